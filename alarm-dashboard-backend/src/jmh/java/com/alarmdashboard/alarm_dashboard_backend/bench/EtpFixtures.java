@@ -0,0 +1,104 @@
+package com.alarmdashboard.alarm_dashboard_backend.bench;
+
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmSlice;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark'lar için ETP benzeri, tohumlu (tekrarlanabilir) veri üretici.
+ * Hedef yolları sahadaki biçimde: ETP/SİSTEM/SINIF/CİHAZ/NOKTA.
+ */
+public final class EtpFixtures {
+
+    /** MQTT topic + payload çifti. */
+    public record Message(String topic, String json) {}
+
+    private record System(String name, String cls, String prefix, String unit) {}
+
+    private static final System[] SYSTEMS = {
+            new System("EmergencyCall", "Call",           "RC", null),
+            new System("LVMV",          "CircuitBreaker", "DPQ", null),
+            new System("Lighting",      "LightLevel",     "L",  "lx"),
+            new System("Ventilation",   "JetFan",         "JF", "Hz"),
+            new System("Fire",          "LinearHeat",     "LH", "°C"),
+            new System("SCADA",         "PLC",            "PLC", null),
+            new System("CCTV",          "Camera",         "CAM", null),
+    };
+
+    private static final String[] LOCATIONS = {
+            "Karakısık 1", "Karakısık 2", "Tünel 1 Giriş", "Tünel 1 Çıkış", "Tünel 2 Giriş", "Enerji Binası"
+    };
+
+    private static final String[] MESSAGES = {
+            "Acil çağrı butonu basıldı", "Kesici açtı", "Aydınlatma seviyesi düşük", "Fan arızası",
+            "Sıcaklık eşiği aşıldı", "PLC haberleşme hatası", "Kamera görüntü kaybı"
+    };
+
+    private EtpFixtures() {}
+
+    /** n cihaz noktasından gelen karışık akış: alarmRatio kadarı alarm, geri kalanı ölçüm. */
+    public static List<Message> messages(int n, long seed, double alarmRatio) {
+        Random r = new Random(seed);
+        List<Message> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int s = r.nextInt(SYSTEMS.length);
+            System sys = SYSTEMS[s];
+            String device = "T" + (1 + r.nextInt(2)) + sys.prefix + (1 + r.nextInt(40));
+            String loc = LOCATIONS[r.nextInt(LOCATIONS.length)];
+            String ts = Instant.parse("2026-03-02T08:00:00Z").plusMillis(i * 37L).toString();
+
+            if (r.nextDouble() < alarmRatio || sys.unit == null) {
+                String target = "ETP/" + sys.name + "/" + sys.cls + "/" + device + "/Alarm";
+                boolean clear = r.nextInt(5) == 0;
+                out.add(new Message(target,
+                        "{\"Target\":\"" + target + "\",\"TagInfo\":\"" + device + " " + sys.cls + "\","
+                                + "\"ValueType\":\"Alarm\",\"Timestamp\":\"" + ts + "\",\"Quality\":192,"
+                                + "\"Value\":{\"Message\":\"" + MESSAGES[s] + "\",\"Priority\":" + (1 + r.nextInt(10)) + ","
+                                + "\"Location\":\"" + loc + "\",\"TargetName\":\"" + device + "\","
+                                + "\"Active\":" + !clear + ",\"Acked\":" + r.nextBoolean() + ","
+                                + "\"Extra\":{\"Panel\":\"P-" + r.nextInt(20) + "\",\"Channels\":[1,2,3]}}}"));
+            } else {
+                String target = "ETP/" + sys.name + "/" + sys.cls + "/" + device + "/Value";
+                out.add(new Message(target,
+                        "{\"Target\":\"" + target + "\",\"TagInfo\":\"" + device + " " + sys.unit + "\","
+                                + "\"ValueType\":\"Float\",\"Timestamp\":\"" + ts + "\",\"Quality\":192,"
+                                + "\"Value\":{\"Value\":" + (r.nextInt(200000) / 100.0) + ",\"Unit\":\"" + sys.unit + "\","
+                                + "\"Min\":0,\"Max\":2000}}"));
+            }
+        }
+        return out;
+    }
+
+    /** Mapper çıktısı biçiminde olaylar; zaman damgaları start'tan step aralıkla artar. */
+    public static List<AlarmEvent> events(int n, long seed, Instant start, Duration step) {
+        Random r = new Random(seed);
+        List<AlarmEvent> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int s = r.nextInt(SYSTEMS.length);
+            System sys = SYSTEMS[s];
+            String device = "T" + (1 + r.nextInt(2)) + sys.prefix + (1 + r.nextInt(40));
+            String target = ("ETP/" + sys.name + "/" + sys.cls + "/" + device + "/Alarm").toUpperCase();
+            Instant ts = start.plus(step.multipliedBy(i));
+            int pr = 1 + r.nextInt(10);
+            String level = pr >= 8 ? "CRITICAL" : pr >= 4 ? "WARN" : "INFO";
+            out.add(new AlarmEvent(target + "@" + ts, level, sys.cls.toUpperCase(),
+                    LOCATIONS[r.nextInt(LOCATIONS.length)], MESSAGES[s], ts));
+        }
+        return out;
+    }
+
+    /** Geçmiş sorgusunun projeksiyon satırları. */
+    public static List<AlarmSlice> slices(int n, long seed) {
+        List<AlarmSlice> out = new ArrayList<>(n);
+        for (AlarmEvent e : events(n, seed, Instant.parse("2026-03-02T08:00:00Z"), Duration.ofSeconds(1))) {
+            String target = e.id().substring(0, e.id().indexOf('@'));
+            out.add(new AlarmSlice(e.id(), target, e.location(), e.level(), e.message(), e.timestamp()));
+        }
+        return out;
+    }
+}
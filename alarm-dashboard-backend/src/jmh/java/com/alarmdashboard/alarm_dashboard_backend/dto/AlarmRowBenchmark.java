@@ -0,0 +1,43 @@
+package com.alarmdashboard.alarm_dashboard_backend.dto;
+
+import com.alarmdashboard.alarm_dashboard_backend.bench.EtpFixtures;
+import com.alarmdashboard.alarm_dashboard_backend.storage.TargetDictionary;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geçmiş/export satırı: target yolunun sistem/cihaz/nokta sütunlarına ayrılması
+ * (eski AlarmQueryController.toRow, şimdi AlarmRow.from): her seferinde ayrıştırma ve TargetDictionary ile.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="AlarmRowBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlarmRowBenchmark {
+
+    private AlarmSlice[] slices;
+    private TargetDictionary targets;
+    private int i;
+
+    @Setup
+    public void setup() {
+        List<AlarmSlice> list = EtpFixtures.slices(1024, 3);
+        slices = list.toArray(AlarmSlice[]::new);
+        targets = new TargetDictionary(TargetDictionary.DEFAULT_CAPACITY);
+    }
+
+    @Benchmark
+    public AlarmRow toRow() {
+        return AlarmRow.from(slices[i++ & 1023]);
+    }
+
+    @Benchmark
+    public AlarmRow toRowCached() {
+        return AlarmRow.from(slices[i++ & 1023], targets);
+    }
+}
@@ -0,0 +1,46 @@
+package com.alarmdashboard.alarm_dashboard_backend.model;
+
+import com.alarmdashboard.alarm_dashboard_backend.bench.EtpFixtures;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AlarmEvent listelerinin JSON'a serileştirilmesi (bootstrap, /recent, toplu topic).
+ * ObjectMapper Boot'un varsayılanına denk: JavaTimeModule, ISO-8601 zaman damgaları.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="AlarmEventJsonBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlarmEventJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper om;
+    private List<AlarmEvent> events;
+
+    @Setup
+    public void setup() {
+        om = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        events = EtpFixtures.events(size, 5, Instant.parse("2026-03-02T08:00:00Z"), Duration.ofMillis(250));
+    }
+
+    @Benchmark
+    public byte[] writeList() throws JsonProcessingException {
+        return om.writeValueAsBytes(events);
+    }
+}
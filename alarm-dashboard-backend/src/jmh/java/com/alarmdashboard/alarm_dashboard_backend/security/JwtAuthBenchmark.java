@@ -0,0 +1,56 @@
+package com.alarmdashboard.alarm_dashboard_backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * İstek başına JWT doğrulama maliyeti: eski yol (her istekte anahtar + parser kurulumu),
+ * paylaşılan parser ve token önbelleği.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="JwtAuthBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "change-this-secret-please-at-least-32-chars-long-123456";
+
+    private JwtService jwt;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwt = new JwtService(SECRET, 15, 1024);
+        token = jwt.generate("operator@example.com", "ADMIN");
+    }
+
+    /** Değişiklik öncesi JwtService.parse: her çağrıda Keys.hmacShaKeyFor + parserBuilder. */
+    @Benchmark
+    public Claims perRequestParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    /** Açılışta kurulan parser; HMAC ve claim ayrıştırması hâlâ her istekte. */
+    @Benchmark
+    public Claims sharedParser() {
+        return jwt.parse(token).getBody();
+    }
+
+    /** JwtAuthFilter'ın yolu: aynı panelin tekrarlanan istekleri önbellekten. */
+    @Benchmark
+    public JwtService.Principal cachedPrincipal() {
+        return jwt.authenticate(token);
+    }
+}
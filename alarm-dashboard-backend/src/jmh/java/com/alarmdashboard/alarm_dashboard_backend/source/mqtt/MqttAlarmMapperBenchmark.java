@@ -0,0 +1,74 @@
+package com.alarmdashboard.alarm_dashboard_backend.source.mqtt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eski yol (isAlarmLike + toEvent, iki kez readTree) ile tek geçişlik map() karşılaştırması.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="MqttAlarmMapperBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MqttAlarmMapperBenchmark {
+
+    /** ETP cihazlarının yolladığı tipik mesajlar. */
+    public enum Shape {
+        /** Target ".../Alarm" ile biten, mesaj + öncelik içeren alarm. */
+        ALARM_TARGET(
+                "ETP/EmergencyCall/Call/T1RC3/Alarm",
+                "{\"Target\":\"ETP/EmergencyCall/Call/T1RC3/Alarm\",\"TagInfo\":\"T1RC3 Acil Çağrı\","
+                        + "\"ValueType\":\"Alarm\",\"Timestamp\":\"2026-03-02T08:15:10.123Z\",\"Quality\":192,"
+                        + "\"Value\":{\"Message\":\"Acil çağrı butonu basıldı\",\"Priority\":8,"
+                        + "\"Location\":\"Karakısık 1\",\"TargetName\":\"T1RC3\",\"Acked\":false,"
+                        + "\"Extra\":{\"Panel\":\"EC-01\",\"Channels\":[1,2,3]}}}"),
+        /** Target alarm değil ama Value.Message/Priority dolu. */
+        ALARM_VALUE(
+                "ETP/LVMV/CircuitBreaker/AKMADPQ1/State",
+                "{\"Target\":\"ETP/LVMV/CircuitBreaker/AKMADPQ1/State\",\"TagInfo\":\"AKMA DP Q1\","
+                        + "\"ValueType\":\"Enum\",\"Timestamp\":\"2026-03-02T08:15:11.004Z\",\"Quality\":192,"
+                        + "\"Value\":{\"Message\":\"Kesici açtı\",\"Priority\":5,\"TargetName\":\"AKMADPQ1\"}}"),
+        /** Ölçüm: alarm değil, düşürülür. */
+        MEASUREMENT(
+                "ETP/Lighting/LightLevel/T2L14/Value",
+                "{\"Target\":\"ETP/Lighting/LightLevel/T2L14/Value\",\"TagInfo\":\"T2 L14 Lux\","
+                        + "\"ValueType\":\"Float\",\"Timestamp\":\"2026-03-02T08:15:11.250Z\",\"Quality\":192,"
+                        + "\"Value\":{\"Value\":412.5,\"Unit\":\"lx\",\"Min\":0,\"Max\":2000}}");
+
+        final String topic;
+        final String json;
+
+        Shape(String topic, String json) {
+            this.topic = topic;
+            this.json = json;
+        }
+    }
+
+    @Param
+    public Shape shape;
+
+    private MqttAlarmMapper mapper;
+
+    @Setup
+    public void setup() {
+        mapper = new MqttAlarmMapper(new ObjectMapper());
+    }
+
+    @Benchmark
+    public void twoPassTree(Blackhole bh) {
+        if (mapper.isAlarmLike(shape.json, shape.topic)) {
+            bh.consume(mapper.toEvent(shape.json, shape.topic));
+        }
+    }
+
+    @Benchmark
+    public MqttAlarmMapper.Mapped singlePassStreaming() {
+        return mapper.map(shape.json, shape.topic);
+    }
+}
@@ -0,0 +1,50 @@
+package com.alarmdashboard.alarm_dashboard_backend.source.mqtt;
+
+import com.alarmdashboard.alarm_dashboard_backend.bench.EtpFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Üretilmiş karışık ETP akışı (alarm + ölçüm) üzerinde mapper; tek mesaj biçimine
+ * aşırı uyumu önlemek için MqttAlarmMapperBenchmark'ı tamamlar.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="MqttAlarmMapperStreamBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MqttAlarmMapperStreamBenchmark {
+
+    /** Akıştaki alarm oranı; kalan mesajlar ölçüm (alarm değil). */
+    @Param({"0.1", "0.5"})
+    public double alarmRatio;
+
+    private EtpFixtures.Message[] messages;
+    private MqttAlarmMapper mapper;
+    private int i;
+
+    @Setup
+    public void setup() {
+        messages = EtpFixtures.messages(4096, 17, alarmRatio).toArray(EtpFixtures.Message[]::new);
+        mapper = new MqttAlarmMapper(new ObjectMapper());
+    }
+
+    @Benchmark
+    public void isAlarmLikeThenToEvent(Blackhole bh) {
+        EtpFixtures.Message m = messages[i++ & 4095];
+        if (mapper.isAlarmLike(m.json(), m.topic())) {
+            bh.consume(mapper.toEvent(m.json(), m.topic()));
+        }
+    }
+
+    @Benchmark
+    public MqttAlarmMapper.Mapped map() {
+        EtpFixtures.Message m = messages[i++ & 4095];
+        return mapper.map(m.json(), m.topic());
+    }
+}
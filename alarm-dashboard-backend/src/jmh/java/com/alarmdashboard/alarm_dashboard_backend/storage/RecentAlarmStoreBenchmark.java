@@ -0,0 +1,91 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.bench.EtpFixtures;
+import com.alarmdashboard.alarm_dashboard_backend.config.TestAlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecentAlarmStore sıcak yolları. since/summary farklı doluluk oranlarında (kapasite 10.000),
+ * append ise dolu halkada (kararlı durum: her ekleme bir eskiyi düşürür) ölçülür.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="RecentAlarmStoreBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecentAlarmStoreBenchmark {
+
+    private static final int CAPACITY = 10_000;
+
+    private static RecentAlarmStore store(int capacity) {
+        return new RecentAlarmStore(TestAlarmProps.of("recent.capacity=" + capacity, "recent.retention=35d"));
+    }
+
+    /** Son bir saate yayılmış fill * kapasite olay. */
+    @State(Scope.Benchmark)
+    public static class Filled {
+        @Param({"0.1", "0.5", "1.0"})
+        public double fill;
+
+        RecentAlarmStore store;
+
+        @Setup
+        public void setup() {
+            store = store(CAPACITY);
+            int n = (int) (CAPACITY * fill);
+            Duration step = Duration.ofMillis(3_600_000L / Math.max(1, n));
+            Instant start = Instant.now().minus(Duration.ofHours(1));
+            for (AlarmEvent e : EtpFixtures.events(n, 42, start, step)) store.append(e);
+        }
+    }
+
+    /** Dolu halka; eklenen olaylar önceden üretilip sırayla dönülür. */
+    @State(Scope.Thread)
+    public static class Full {
+        @Param({"1000", "10000", "100000"})
+        public int capacity;
+
+        RecentAlarmStore store;
+        AlarmEvent[] next;
+        int i;
+
+        @Setup
+        public void setup() {
+            store = store(capacity);
+            Instant start = Instant.now().minus(Duration.ofHours(1));
+            for (AlarmEvent e : EtpFixtures.events(capacity, 7, start, Duration.ofMillis(1))) store.append(e);
+            // zaman damgası null: store "şimdi" kullanır, budama penceresi bozulmaz
+            next = EtpFixtures.events(4096, 11, start, Duration.ZERO).stream()
+                    .map(e -> new AlarmEvent(e.id(), e.level(), e.type(), e.location(), e.message(), null))
+                    .toArray(AlarmEvent[]::new);
+        }
+    }
+
+    @Benchmark
+    public void append(Full s) {
+        s.store.append(s.next[s.i++ & 4095]);
+    }
+
+    /** Bootstrap penceresi: son 10 dakika. */
+    @Benchmark
+    public List<AlarmEvent> since10m(Filled s) {
+        return s.store.since(Instant.now().minus(Duration.ofMinutes(10)));
+    }
+
+    @Benchmark
+    public RecentAlarmStore.Summary summary10m(Filled s) {
+        return s.store.summary(Duration.ofMinutes(10));
+    }
+
+    @Benchmark
+    public RecentAlarmStore.Summary summary1h(Filled s) {
+        return s.store.summary(Duration.ofHours(1));
+    }
+}
@@ -0,0 +1,67 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.bench.EtpFixtures;
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.config.TestAlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Açılışta warm start: dolu bir RecentAlarmStore'un snapshot'ını yazma ve okuyup boş bir store'a
+ * geri yükleme (RecentAlarmWarmStart'ın snapshot yolu).
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="RecentSnapshotBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecentSnapshotBenchmark {
+
+    @Param({"10000", "100000"})
+    public int capacity;
+
+    private AlarmProps props;
+    private RecentAlarmStore.Contents contents;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        props = TestAlarmProps.of("recent.capacity=" + capacity, "recent.retention=35d");
+        RecentAlarmStore store = new RecentAlarmStore(props);
+        Instant start = Instant.now().minus(Duration.ofHours(1));
+        for (AlarmEvent e : EtpFixtures.events(capacity, 42, start, Duration.ofMillis(3_600_000L / capacity))) {
+            store.append(e);
+        }
+        contents = store.contents();
+        file = Files.createTempFile("recent", ".snap");
+        RecentSnapshot.write(file, contents);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        RecentSnapshot.write(file, contents);
+    }
+
+    @Benchmark
+    public RecentAlarmStore readAndRestore() throws IOException {
+        RecentSnapshot.Loaded s = RecentSnapshot.read(file);
+        RecentAlarmStore store = new RecentAlarmStore(props);
+        for (int i = 0; i < s.events().length; i++) store.restore(s.events()[i], s.times()[i]);
+        store.restoredAfter(s.completeAfter());
+        return store;
+    }
+}
@@ -0,0 +1,106 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.bench.EtpFixtures;
+import com.alarmdashboard.alarm_dashboard_backend.config.TestAlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alarm başına WS serileştirme maliyeti: eski yol (convertAndSend, hedef başına Jackson; resume'da
+ * oturum başına liste serileştirme) ile olay başına tek serileştirme (AlarmJsonCache; gövde hedefler
+ * ve replay'ler arasında paylaşılır). Broker yerine hiçbir şey yapmayan kanal: yalnızca mesaj kurma + kodlama.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="AlarmBroadcastSerializationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlarmBroadcastSerializationBenchmark {
+
+    private static final int CAPACITY = 10_000;
+
+    /** Alarm başına resume ile kaçırdıklarını (son 50 olay) alan oturum sayısı. */
+    @Param({"1", "10", "100"})
+    public int reconnecting;
+
+    private ObjectMapper om;
+    private SimpMessagingTemplate template;
+    private AlarmJsonCache cache;
+    private AlarmEvent[] events;          // kapasitenin iki katı: her op yeni (önbellekte olmayan) olay
+    private List<AlarmEvent> missed;      // replay gövdesi: son 50 olay
+    private int next;
+
+    @Setup
+    public void setup() {
+        om = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        MessageChannel noop = (message, timeout) -> true;
+        template = new SimpMessagingTemplate(noop);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(om);
+        template.setMessageConverter(converter);
+
+        cache = new AlarmJsonCache(om, TestAlarmProps.of("recent.capacity=" + CAPACITY), new SimpleMeterRegistry());
+        events = EtpFixtures.events(2 * CAPACITY, 7, Instant.parse("2026-03-02T08:00:00Z"), Duration.ofMillis(50))
+                .toArray(AlarmEvent[]::new);
+        missed = List.of(events).subList(0, 50);
+    }
+
+    private AlarmEvent nextEvent() {
+        AlarmEvent e = events[next];
+        next = (next + 1) % events.length;
+        return e;
+    }
+
+    /** Eski yol: iki hedefe convertAndSend, yeniden bağlanan her oturuma listenin serileştirilmesi. */
+    @Benchmark
+    public void convertPerDestination(Blackhole bh) throws JsonProcessingException {
+        AlarmEvent e = nextEvent();
+        Map<String, Object> headers = Map.of(AlarmBroadcaster.SEQ_HEADER, 1L, AlarmBroadcaster.EPOCH_HEADER, "1");
+        template.convertAndSend(AlarmBroadcaster.TOPIC, e, headers);
+        template.convertAndSend(AlarmDestinations.of(e), e, headers);
+        for (int i = 0; i < reconnecting; i++) bh.consume(om.writeValueAsBytes(missed));
+    }
+
+    /** Yeni yol: olay bir kez serileşir, iki hedefe aynı gövde; replay'ler hazır parçaların birleşimi. */
+    @Benchmark
+    public void serializeOnce(Blackhole bh) {
+        AlarmEvent e = nextEvent();
+        byte[] body = cache.json(e);
+        template.send(AlarmBroadcaster.TOPIC, MessageBuilder.createMessage(body, headers()));
+        template.send(AlarmDestinations.of(e), MessageBuilder.createMessage(body, headers()));
+        for (int i = 0; i < reconnecting; i++) bh.consume(cache.array(missed));
+    }
+
+    private static MessageHeaders headers() {
+        var h = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        h.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        h.setNativeHeader(AlarmBroadcaster.SEQ_HEADER, "1");
+        h.setNativeHeader(AlarmBroadcaster.EPOCH_HEADER, "1");
+        h.setLeaveMutable(true);
+        return h.getMessageHeaders();
+    }
+}
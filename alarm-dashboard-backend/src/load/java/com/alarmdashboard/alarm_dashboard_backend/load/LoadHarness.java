@@ -0,0 +1,286 @@
+package com.alarmdashboard.alarm_dashboard_backend.load;
+
+import com.alarmdashboard.alarm_dashboard_backend.AlarmDashboardBackendApplication;
+import com.alarmdashboard.alarm_dashboard_backend.ws.AlarmBroadcaster;
+import com.alarmdashboard.alarm_dashboard_backend.ws.SubscriptionRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.moquette.broker.Server;
+import io.moquette.broker.config.IConfig;
+import io.moquette.broker.config.MemoryConfig;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.integration.mqtt.inbound.MqttPahoMessageDrivenChannelAdapter;
+import org.springframework.integration.support.leader.LockRegistryLeaderInitiator;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Uçtan uca yük testi, ağ ve MySQL gerektirmez:
+ * gömülü Moquette broker → gerçek RealtimeSourceConfig → AlarmIngestService → STOMP broker → N istemci.
+ * Veritabanı H2 (MySQL modu). Hız basamakları sırayla koşulur, her basamak için istemci tarafında
+ * yayın→varış gecikme yüzdelikleri ve kayıp sayısı raporlanır; SLO'yu tutan en yüksek basamak
+ * "kapasite" olarak yazılır.
+ *
+ * <p>nodes=N (N>1) aynı JVM'de N uygulama bağlamı açar (realtime.cluster.mode=LOCAL): biri lider
+ * seçilip MQTT'yi alır, yayınlar diğerlerine dağıtılır; istemciler düğümlere sırayla bağlanır.
+ *
+ * <p>Argümanlar key=value: rates=500,1000,2000,4000,8000 step=20s warmup=15s drain=5s clients=20
+ * nodes=1 qos=1 lanes=0 flap=false slo=250ms out=target/load-result.json. "--" ile başlayanlar
+ * Spring'e aynen geçer (ör. --alarm.persist.batch-size=500).
+ *
+ * <p>Yayıncı, istemciler ve sunucu aynı JVM'de koşar; sonuçlar sürümler arası karşılaştırma
+ * içindir, sahadaki mutlak kapasite değildir.
+ */
+public final class LoadHarness {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new LinkedHashMap<>();
+        opts.put("rates", "500,1000,2000,4000,8000");
+        opts.put("step", "20s");
+        opts.put("warmup", "15s");   // JIT ısınması; daha kısası ilk basamağın p99unu şişirir
+        opts.put("drain", "5s");
+        opts.put("clients", "20");
+        opts.put("nodes", "1");
+        opts.put("qos", "1");
+        opts.put("lanes", "0");
+        opts.put("flap", "false");
+        opts.put("slo", "250ms");
+        opts.put("out", "target/load-result.json");
+        List<String> springArgs = new ArrayList<>();
+        for (String a : args) {
+            if (a.startsWith("--")) springArgs.add(a);
+            else if (a.contains("=")) opts.put(a.substring(0, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+            else if (!a.isBlank()) throw new IllegalArgumentException("key=value bekleniyordu: " + a);
+        }
+
+        int[] rates = Arrays.stream(opts.get("rates").split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        Duration step = duration(opts.get("step")), warmup = duration(opts.get("warmup")), drain = duration(opts.get("drain"));
+        Duration slo = duration(opts.get("slo"));
+        int clients = Integer.parseInt(opts.get("clients"));
+        int nodes = Integer.parseInt(opts.get("nodes"));
+        int qos = Integer.parseInt(opts.get("qos"));
+
+        // basamak 0 ısınmadır, raporlanmaz
+        int[] stepRates = new int[rates.length + 1];
+        Duration[] stepDurations = new Duration[rates.length + 1];
+        stepRates[0] = rates[0];
+        stepDurations[0] = warmup;
+        for (int i = 0; i < rates.length; i++) {
+            stepRates[i + 1] = rates[i];
+            stepDurations[i + 1] = step;
+        }
+        AtomicLongArray sentAt = new AtomicLongArray(RatePublisher.total(stepRates, stepDurations));
+
+        int mqttPort = freePort();
+        Server broker = startBroker(mqttPort);
+        String brokerUrl = "tcp://127.0.0.1:" + mqttPort;
+
+        // Sistem özellikleri application.properties'i (MySQL, uzak broker, DEBUG log) ezer; logging ve
+        // devtools ortam hazırlanırken okunduğundan initializer yetmez. "--" argümanları bunları da ezer.
+        appProperties(brokerUrl, qos, opts).forEach(System::setProperty);
+        List<ConfigurableApplicationContext> apps = new ArrayList<>();
+        for (int n = 0; n < nodes; n++) {
+            List<String> nodeArgs = new ArrayList<>(springArgs);
+            // DB bellekte: her çalışma ve her düğüm kendi boş günlüğüyle başlar
+            nodeArgs.add("--alarm.journal.dir=" + Files.createTempDirectory("adb-load-journal-n" + n));
+            if (nodes > 1) {
+                nodeArgs.add("--mqtt.clientId=adb-load-n" + n);
+                nodeArgs.add("--realtime.cluster.node-id=n" + n);
+            }
+            apps.add(new SpringApplicationBuilder(AlarmDashboardBackendApplication.class)
+                    .run(nodeArgs.toArray(String[]::new)));
+        }
+
+        List<Map<String, Object>> report = new ArrayList<>();
+        Integer capacity = null;
+        try (StompFleet fleet = new StompFleet(sentAt, stepRates.length);
+             RatePublisher publisher = new RatePublisher(brokerUrl, qos, sentAt)) {
+
+            List<String> urls = new ArrayList<>();
+            List<SubscriptionRegistry> registries = new ArrayList<>();
+            List<Counter> mqttCounters = new ArrayList<>();
+            for (ConfigurableApplicationContext app : apps) {
+                urls.add("ws://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port") + "/ws");
+                registries.add(app.getBean(SubscriptionRegistry.class));
+                mqttCounters.add(app.getBean(MeterRegistry.class).counter("alarm.mqtt.messages", "result", "alarm"));
+            }
+            fleet.connect(urls, clients);
+            awaitSubscribers(registries, clients);
+            if (nodes > 1) awaitLeader(apps);
+            DoubleSupplier mqttIn = () -> mqttCounters.stream().mapToDouble(Counter::count).sum();
+
+            System.out.printf("%nLoad: %d istemci, %d düğüm, qos=%d, basamak=%s, SLO p99<=%dms%n",
+                    clients, nodes, qos, step, slo.toMillis());
+            System.out.printf("%8s %8s %9s %7s %12s %8s %8s %8s %8s %8s%n",
+                    "rate", "sent", "achieved", "mqttIn", "recv/exp", "drops", "p50ms", "p95ms", "p99ms", "maxms");
+
+            for (int s = 0; s < stepRates.length; s++) {
+                double mqttBefore = mqttIn.getAsDouble();
+                RatePublisher.Result r = publisher.run(s, stepRates[s], stepDurations[s]);
+                long expected = (long) r.sent() * clients;
+                awaitReceived(fleet, s, expected, drain);
+                if (s == 0) continue;
+
+                Histogram h = fleet.latency(s);
+                long received = fleet.received(s);
+                long drops = Math.max(0, expected - received);
+                double p99 = h.getValueAtPercentile(99) / 1000.0;
+                boolean ok = drops == 0 && p99 <= slo.toMillis() && r.achievedRate() >= 0.95 * stepRates[s];
+
+                System.out.printf("%8d %8d %9.0f %7.0f %12s %8d %8.1f %8.1f %8.1f %8.1f%s%n",
+                        stepRates[s], r.sent(), r.achievedRate(), mqttIn.getAsDouble() - mqttBefore,
+                        received + "/" + expected, drops,
+                        h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(95) / 1000.0,
+                        p99, h.getMaxValue() / 1000.0, ok ? "" : "  <- SLO");
+
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("rate", stepRates[s]);
+                row.put("sent", r.sent());
+                row.put("achievedRate", Math.round(r.achievedRate()));
+                row.put("publisherStalls", r.stalls());
+                row.put("mqttIn", Math.round(mqttIn.getAsDouble() - mqttBefore));
+                row.put("expected", expected);
+                row.put("received", received);
+                row.put("drops", drops);
+                row.put("p50Ms", h.getValueAtPercentile(50) / 1000.0);
+                row.put("p95Ms", h.getValueAtPercentile(95) / 1000.0);
+                row.put("p99Ms", p99);
+                row.put("maxMs", h.getMaxValue() / 1000.0);
+                row.put("withinSlo", ok);
+                report.add(row);
+
+                if (!ok) break;
+                capacity = stepRates[s];
+            }
+            if (fleet.unparsed() > 0) System.out.printf("id'si okunamayan frame: %d%n", fleet.unparsed());
+        } finally {
+            apps.forEach(ConfigurableApplicationContext::close);
+            broker.stopServer();
+        }
+
+        System.out.println(capacity == null
+                ? "Kapasite: ilk basamak bile SLO'yu tutmadı"
+                : "Kapasite: " + capacity + " alarm/s (" + clients + " istemci, " + nodes + " düğüm, p99<="
+                        + slo.toMillis() + "ms, kayıpsız)");
+        writeReport(opts, capacity, report);
+        System.exit(0);
+    }
+
+    private static Map<String, String> appProperties(String brokerUrl, int qos, Map<String, String> opts) {
+        Map<String, String> p = new LinkedHashMap<>();
+        // devtools yeniden başlatıcısı main thread'den açılan uygulamayı ikinci kez başlatmasın
+        p.put("spring.devtools.restart.enabled", "false");
+        p.put("spring.main.banner-mode", "off");
+        p.put("server.port", "0");
+        p.put("spring.datasource.url", "jdbc:h2:mem:load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        p.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        p.put("spring.datasource.username", "sa");
+        p.put("spring.datasource.password", "");
+        p.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        p.put("spring.jpa.show-sql", "false");
+        p.put("realtime.source", "mqtt");
+        p.put("mqtt.brokerUrl", brokerUrl);
+        p.put("mqtt.clientId", "adb-load-backend");
+        p.put("mqtt.topics", "ETP/#");
+        p.put("mqtt.qos", String.valueOf(qos));
+        p.put("mqtt.username", "");
+        p.put("mqtt.clean-session", "true");
+        p.put("mqtt.ingest-lanes", opts.get("lanes"));
+        p.put("alarm.flap.enabled", opts.get("flap"));
+        // önceki çalışmanın snapshot'ı ölçülen akışa karışmasın
+        p.put("alarm.recent.warm-start", "false");
+        if (Integer.parseInt(opts.get("nodes")) > 1) {
+            p.put("realtime.cluster.mode", "LOCAL");
+            p.put("realtime.cluster.name", "load");
+        }
+        p.put("logging.level.root", "WARN");
+        p.put("logging.level.org.springframework.web", "WARN");
+        p.put("logging.level.io.moquette", "WARN");
+        p.put("logging.level.com.alarmdashboard.alarm_dashboard_backend", "INFO");
+        return p;
+    }
+
+    private static Server startBroker(int port) throws Exception {
+        Properties p = new Properties();
+        p.setProperty(IConfig.HOST_PROPERTY_NAME, "127.0.0.1");
+        p.setProperty(IConfig.PORT_PROPERTY_NAME, String.valueOf(port));
+        p.setProperty(IConfig.ALLOW_ANONYMOUS_PROPERTY_NAME, "true");
+        p.setProperty(IConfig.PERSISTENCE_ENABLED_PROPERTY_NAME, "false");
+        p.setProperty(IConfig.ENABLE_TELEMETRY_NAME, "false");
+        p.setProperty(IConfig.WEB_SOCKET_PORT_PROPERTY_NAME, "disabled");
+        Server server = new Server();
+        server.startServer(new MemoryConfig(p));
+        return server;
+    }
+
+    private static void awaitSubscribers(List<SubscriptionRegistry> registries, int clients) throws InterruptedException {
+        long deadline = System.nanoTime() + CONNECT_TIMEOUT.toNanos();
+        int subscribed;
+        while ((subscribed = registries.stream().mapToInt(r -> r.count(AlarmBroadcaster.TOPIC)).sum()) < clients) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Abonelikler tamamlanmadı: " + subscribed + "/" + clients);
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    /** Lider seçilip MQTT adapter'ı başlayana kadar bekle. */
+    private static void awaitLeader(List<ConfigurableApplicationContext> apps) throws InterruptedException {
+        long deadline = System.nanoTime() + CONNECT_TIMEOUT.toNanos();
+        while (apps.stream().noneMatch(a -> a.getBean(LockRegistryLeaderInitiator.class).getContext().isLeader()
+                && a.getBean(MqttPahoMessageDrivenChannelAdapter.class).isRunning())) {
+            if (System.nanoTime() > deadline) throw new IllegalStateException("Lider seçilmedi");
+            Thread.sleep(50);
+        }
+    }
+
+    private static void awaitReceived(StompFleet fleet, int step, long expected, Duration drain) throws InterruptedException {
+        long deadline = System.nanoTime() + drain.toNanos();
+        while (fleet.received(step) < expected && System.nanoTime() < deadline) Thread.sleep(20);
+    }
+
+    private static void writeReport(Map<String, String> opts, Integer capacity, List<Map<String, Object>> steps) throws Exception {
+        File out = new File(opts.get("out"));
+        if (out.getParentFile() != null) out.getParentFile().mkdirs();
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put("options", opts);
+        doc.put("capacity", capacity);
+        doc.put("steps", steps);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, doc);
+        System.out.println("Sonuç: " + out.getPath());
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+
+    /** "20s", "250ms", "2m" */
+    private static Duration duration(String s) {
+        s = s.trim();
+        if (s.endsWith("ms")) return Duration.ofMillis(Long.parseLong(s.substring(0, s.length() - 2)));
+        if (s.endsWith("s")) return Duration.ofSeconds(Long.parseLong(s.substring(0, s.length() - 1)));
+        if (s.endsWith("m")) return Duration.ofMinutes(Long.parseLong(s.substring(0, s.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(s));
+    }
+
+    private LoadHarness() {}
+}
@@ -0,0 +1,102 @@
+package com.alarmdashboard.alarm_dashboard_backend.load;
+
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gömülü broker'a sabit hızda ETP biçiminde alarm basar. Her mesaj yeni bir hedeftir
+ * (ETP/Load/S{basamak}/N{sıra}/Alarm), yani pipeline'da her biri RAISE olur: DB satırı,
+ * RecentAlarmStore ve /topic/alarms yayını. Yayın anı sentAt[sıra]'ya yazılır.
+ */
+final class RatePublisher implements AutoCloseable {
+
+    private static final String[] LOCATIONS = {
+            "Karakısık 1", "Karakısık 2", "Tünel 1 Giriş", "Tünel 1 Çıkış", "Tünel 2 Giriş", "Enerji Binası"
+    };
+
+    /** Bir basamağın yayın sonucu: gönderilen, süre ve inflight dolduğu için beklenen sayısı. */
+    record Result(int sent, Duration elapsed, long stalls) {
+        double achievedRate() {
+            return sent / Math.max(1e-9, elapsed.toNanos() / 1e9);
+        }
+    }
+
+    private final MqttAsyncClient client;
+    private final int qos;
+    private final AtomicLongArray sentAt;
+    private final Random random = new Random(42);
+    private int seq;
+
+    RatePublisher(String brokerUrl, int qos, AtomicLongArray sentAt) throws MqttException {
+        this.client = new MqttAsyncClient(brokerUrl, "adb-load-publisher", new MemoryPersistence());
+        this.qos = qos;
+        this.sentAt = sentAt;
+        MqttConnectOptions opts = new MqttConnectOptions();
+        opts.setCleanSession(true);
+        opts.setMaxInflight(10_000);
+        client.connect(opts).waitForCompletion(10_000);
+    }
+
+    /** rate msg/s hızda duration boyunca yayınla; geride kalınırsa yetişmek için beklemeden basar. */
+    Result run(int step, int rate, Duration duration) throws MqttException {
+        int count = (int) (rate * duration.toNanos() / 1_000_000_000L);
+        long interval = 1_000_000_000L / rate;
+        long stalls = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            long due = start + i * interval;
+            long wait = due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            int n = seq++;
+            String target = "ETP/Load/S" + step + "/N" + n + "/Alarm";
+            MqttMessage msg = new MqttMessage(payload(target).getBytes(StandardCharsets.UTF_8));
+            msg.setQos(qos);
+            while (true) {
+                sentAt.set(n, System.nanoTime());
+                try {
+                    client.publish(target, msg);
+                    break;
+                } catch (MqttException ex) {
+                    if (ex.getReasonCode() != MqttException.REASON_CODE_MAX_INFLIGHT) throw ex;
+                    stalls++;
+                    LockSupport.parkNanos(100_000);
+                }
+            }
+        }
+        return new Result(count, Duration.ofNanos(System.nanoTime() - start), stalls);
+    }
+
+    /** Bu hızlar ve sürelerle kaç mesaj basılacağı (sentAt boyutu için). */
+    static int total(int[] rates, Duration[] durations) {
+        long n = 0;
+        for (int i = 0; i < rates.length; i++) n += rates[i] * durations[i].toNanos() / 1_000_000_000L;
+        return Math.toIntExact(n);
+    }
+
+    private String payload(String target) {
+        int priority = 1 + random.nextInt(10);
+        String device = target.substring(target.lastIndexOf("/N") + 1, target.lastIndexOf('/'));
+        return "{\"Target\":\"" + target + "\",\"TagInfo\":\"" + device + " Load\","
+                + "\"ValueType\":\"Alarm\",\"Timestamp\":\"" + Instant.now() + "\",\"Quality\":192,"
+                + "\"Value\":{\"Message\":\"Yük testi alarmı\",\"Priority\":" + priority + ","
+                + "\"Location\":\"" + LOCATIONS[random.nextInt(LOCATIONS.length)] + "\","
+                + "\"TargetName\":\"" + device + "\",\"Active\":true,\"Acked\":false}}";
+    }
+
+    @Override
+    public void close() throws MqttException {
+        if (client.isConnected()) client.disconnect().waitForCompletion(5_000);
+        client.close();
+    }
+}
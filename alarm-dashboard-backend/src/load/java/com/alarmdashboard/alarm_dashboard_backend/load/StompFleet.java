@@ -0,0 +1,126 @@
+package com.alarmdashboard.alarm_dashboard_backend.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * /ws'e (SockJS, tarayıcıyla aynı yol) bağlanan N STOMP istemcisi; hepsi /topic/alarms'a abone,
+ * birden çok düğüm verilirse düğümlere sırayla dağılır.
+ * Gelen her olayın id'sinden basamak ve sıra no okunur, yayın anıyla farkı basamağın
+ * histogramına (µs) yazılır.
+ */
+final class StompFleet implements AutoCloseable {
+
+    private static final String ID_FIELD = "\"id\":\"";
+
+    private final WebSocketStompClient stomp;
+    private final List<StompSession> sessions = new ArrayList<>();
+    private final AtomicLongArray sentAt;
+    private final Histogram[] latency;
+    private final LongAdder[] received;
+    private final LongAdder unparsed = new LongAdder();
+
+    StompFleet(AtomicLongArray sentAt, int steps) {
+        this.sentAt = sentAt;
+        this.latency = new Histogram[steps];
+        this.received = new LongAdder[steps];
+        for (int i = 0; i < steps; i++) {
+            latency[i] = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+            received[i] = new LongAdder();
+        }
+        this.stomp = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        this.stomp.setInboundMessageSizeLimit(1024 * 1024);
+        // Sunucu application/json gönderir; gövde ham byte olarak alınır, id elle okunur
+        this.stomp.setMessageConverter(new ByteArrayMessageConverter() {
+            @Override
+            protected boolean supportsMimeType(MessageHeaders headers) {
+                return true;
+            }
+        });
+    }
+
+    void connect(List<String> urls, int clients) throws Exception {
+        for (int i = 0; i < clients; i++) {
+            String url = urls.get(i % urls.size());
+            StompSession s = stomp.connectAsync(url, new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+            s.subscribe("/topic/alarms", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return byte[].class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    onFrame((byte[]) payload);
+                }
+            });
+            sessions.add(s);
+        }
+    }
+
+    private void onFrame(byte[] payload) {
+        long now = System.nanoTime();
+        String json = new String(payload, StandardCharsets.ISO_8859_1);
+        int at = json.indexOf(ID_FIELD);
+        int step = at < 0 ? -1 : number(json, json.indexOf("/S", at) + 2);
+        int seq = at < 0 ? -1 : number(json, json.indexOf("/N", at) + 2);
+        if (step < 0 || step >= latency.length || seq < 0 || seq >= sentAt.length()) {
+            unparsed.increment();
+            return;
+        }
+        long t0 = sentAt.get(seq);
+        latency[step].recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(Math.max(0, now - t0)),
+                latency[step].getHighestTrackableValue()));
+        received[step].increment();
+    }
+
+    /** Basamak 'step' için istemcilerin toplamda aldığı olay sayısı. */
+    long received(int step) {
+        return received[step].sum();
+    }
+
+    Histogram latency(int step) {
+        return latency[step];
+    }
+
+    long unparsed() {
+        return unparsed.sum();
+    }
+
+    private static int number(String s, int from) {
+        if (from < 2) return -1;
+        int n = 0, i = from;
+        while (i < s.length() && Character.isDigit(s.charAt(i))) n = n * 10 + (s.charAt(i++) - '0');
+        return i == from ? -1 : n;
+    }
+
+    @Override
+    public void close() {
+        for (StompSession s : sessions) {
+            try {
+                s.disconnect();
+            } catch (Exception ignored) {
+                // kapanışta bağlantı zaten düşmüş olabilir
+            }
+        }
+        stomp.stop();
+    }
+}
@@ -0,0 +1,81 @@
+package com.alarmdashboard.alarm_dashboard_backend.api;
+
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmFilter;
+import com.alarmdashboard.alarm_dashboard_backend.service.AlarmExportService;
+import com.alarmdashboard.alarm_dashboard_backend.service.AlarmExportService.Format;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class AlarmExportController {
+
+    private final AlarmExportService exporter;
+
+    /**
+     * [from, to) aralığını NDJSON (varsayılan) veya CSV olarak, eskiden yeniye akıtır.
+     * to verilmezse şimdi, from verilmezse to - 1 gün. gzip=true ise dosya .gz olarak iner.
+     * Filtreler /alarms/history ile aynıdır.
+     */
+    @GetMapping("/alarms/export")
+    public void export(@RequestParam(name = "from", required = false)
+                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                       @RequestParam(name = "to", required = false)
+                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                       @RequestParam(name = "format", defaultValue = "ndjson") String format,
+                       @RequestParam(name = "gzip", defaultValue = "false") boolean gzip,
+                       @RequestParam(name = "level", required = false) String level,
+                       @RequestParam(name = "location", required = false) String location,
+                       @RequestParam(name = "target", required = false) String target,
+                       HttpServletResponse response) throws IOException {
+        Format fmt = parseFormat(format);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+
+        String name = "alarms-" + start.truncatedTo(ChronoUnit.SECONDS) + "_" + end.truncatedTo(ChronoUnit.SECONDS)
+                + (fmt == Format.CSV ? ".csv" : ".ndjson");
+        name = name.replace(':', '-');
+        if (gzip) {
+            response.setContentType("application/gzip");
+            name += ".gz";
+        } else {
+            response.setContentType(fmt == Format.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "\"");
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream gz = new GZIPOutputStream(out, 8192)) {
+                exporter.export(AlarmFilter.of(level, location, target), start, end, fmt, gz);
+            }
+        } else {
+            exporter.export(AlarmFilter.of(level, location, target), start, end, fmt, out);
+            out.flush();
+        }
+    }
+
+    private static Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv");
+        }
+    }
+}
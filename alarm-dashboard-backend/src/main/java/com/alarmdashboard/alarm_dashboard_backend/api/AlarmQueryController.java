@@ -1,13 +1,21 @@
 package com.alarmdashboard.alarm_dashboard_backend.api;
 
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmFilter;
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmPage;
 import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmRow;
-import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEntity;
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmSlice;
 import com.alarmdashboard.alarm_dashboard_backend.repository.AlarmRepository;
+import com.alarmdashboard.alarm_dashboard_backend.storage.AlarmArchive;
+import com.alarmdashboard.alarm_dashboard_backend.storage.TargetDictionary;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
 
 @RestController
@@ -16,36 +24,84 @@ import java.util.List;
 public class AlarmQueryController {
 
     private final AlarmRepository repo;
+    private final TargetDictionary targets;
+    private final AlarmArchive archive;
 
     /** Son N alarm (created_at DESC). Varsayılan 200, üst sınır 2000. */
     @GetMapping(value = "/alarms/recent", params = "limit")
     public List<AlarmRow> recent(@RequestParam(name = "limit", defaultValue = "200") int limit) {
         int capped = Math.min(Math.max(limit, 1), 2000);
-        return repo.findAllByOrderByCreatedAtDesc(PageRequest.of(0, capped))
-                .getContent()
+        List<AlarmSlice> hot = repo.findHistory(null, null, null, Limit.of(capped));
+        return withArchive(hot, AlarmFilter.NONE, null, capped)
                 .stream()
-                .map(this::toRow)
+                .map(a -> AlarmRow.from(a, targets))
                 .toList();
     }
 
-    private AlarmRow toRow(AlarmEntity a) {
-        String target = nz(a.getTarget()).replace('\\','/');
-        String[] parts = Arrays.stream(target.split("/")).filter(s -> !s.isBlank()).toArray(String[]::new);
-        String system = parts.length >= 2 ? parts[1] : "";
-        String device = parts.length >= 3 ? parts[2] : "";
-        String point  = parts.length >= 4 ? parts[3] : (parts.length >= 3 ? parts[2] : "");
-
-        return new AlarmRow(
-                a.getId(),
-                system,
-                device,
-                point,
-                nz(a.getLocation()),
-                nz(a.getLevel()),
-                nz(a.getMessage()),
-                a.getCreatedAt() != null ? a.getCreatedAt().toString() : ""
-        );
+    /**
+     * Geçmiş, keyset sayfalama ile (created_at DESC, id DESC). İlk çağrı cursor'suz yapılır;
+     * sonraki sayfa için yanıttaki nextCursor aynen geri gönderilir. Offset ve count sorgusu
+     * olmadığından derin sayfalar da ilk sayfa kadar ucuzdur. Filtreler: bkz. {@link AlarmFilter}.
+     * Sayfa arşivlenmiş güne uzanırsa arşivle birleştirilir; imleç iki katmanda da aynı anlamdadır.
+     */
+    @GetMapping("/alarms/history")
+    public AlarmPage history(@RequestParam(name = "limit", defaultValue = "200") int limit,
+                             @RequestParam(name = "cursor", required = false) String cursor,
+                             @RequestParam(name = "level", required = false) String level,
+                             @RequestParam(name = "location", required = false) String location,
+                             @RequestParam(name = "target", required = false) String target) {
+        int capped = Math.min(Math.max(limit, 1), 2000);
+        AlarmFilter f = AlarmFilter.of(level, location, target);
+
+        // Bir fazlası istenir: gelirse devamı var demektir
+        Limit fetch = Limit.of(capped + 1);
+        List<AlarmSlice> rows;
+        Cursor c = blankToNull(cursor) == null ? null : decode(cursor);
+        if (c == null) {
+            rows = repo.findHistory(f.level(), f.location(), f.target(), fetch);
+        } else {
+            rows = repo.findHistoryBefore(f.level(), f.location(), f.target(), c.createdAt(), c.id(), fetch);
+        }
+        rows = withArchive(rows, f, c, capped + 1);
+
+        String next = null;
+        if (rows.size() > capped) {
+            rows = rows.subList(0, capped);
+            next = encode(rows.get(capped - 1));
+        }
+        return new AlarmPage(rows.stream().map(a -> AlarmRow.from(a, targets)).toList(), next);
     }
 
+    /** Sıcak sayfa dolduysa ve arşivdeki her şeyden yeniyse arşive gitmez (canlı sayfalar için olağan durum). */
+    private List<AlarmSlice> withArchive(List<AlarmSlice> hot, AlarmFilter f, Cursor c, int fetch) {
+        if (!archive.enabled()) return hot;
+        if (hot.size() >= fetch) {
+            Instant newest = archive.newest();
+            if (newest == null || hot.get(hot.size() - 1).createdAt().isAfter(newest)) return hot;
+        }
+        List<AlarmSlice> cold = archive.history(f, c == null ? null : c.createdAt(), c == null ? null : c.id(), fetch);
+        return AlarmArchive.newestFirst(hot, cold, fetch);
+    }
+
+    // ---------- cursor: base64url("createdAt|id"), istemci için opak ----------
+    private record Cursor(Instant createdAt, String id) {}
+
+    private static String encode(AlarmSlice last) {
+        String raw = last.createdAt() + "|" + nz(last.id());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new Cursor(Instant.parse(raw.substring(0, sep)), raw.substring(sep + 1));
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private static String blankToNull(String s) { return (s == null || s.isBlank()) ? null : s; }
+
     private static String nz(String s) { return s == null ? "" : s; }
-}
\ No newline at end of file
+}
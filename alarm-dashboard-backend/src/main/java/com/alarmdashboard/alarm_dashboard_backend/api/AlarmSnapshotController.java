@@ -1,6 +1,8 @@
 package com.alarmdashboard.alarm_dashboard_backend.api;
 
+import com.alarmdashboard.alarm_dashboard_backend.dto.ActiveAlarm;
 import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import com.alarmdashboard.alarm_dashboard_backend.service.AlarmLifecycle;
 import com.alarmdashboard.alarm_dashboard_backend.storage.RecentAlarmStore;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
@@ -13,7 +15,12 @@ import java.util.List;
 @RequestMapping("/api/alarms")
 public class AlarmSnapshotController {
     private final RecentAlarmStore store;
-    public AlarmSnapshotController(RecentAlarmStore store) { this.store = store; }
+    private final AlarmLifecycle lifecycle;
+
+    public AlarmSnapshotController(RecentAlarmStore store, AlarmLifecycle lifecycle) {
+        this.store = store;
+        this.lifecycle = lifecycle;
+    }
 
     @GetMapping(value = "/recent", params = "since")
     public List<AlarmEvent> recent(@RequestParam("since")
@@ -26,4 +33,10 @@ public class AlarmSnapshotController {
         // window ISO-8601 duration: PT10M=10 dakika, PT1H=1 saat
         return store.summary(Duration.parse(window));
     }
-}
\ No newline at end of file
+
+    /** Şu an açık alarmlar (clear gelmemiş), bellekteki aktif dizinden; DB'ye gitmez. */
+    @GetMapping("/active")
+    public List<ActiveAlarm> active() {
+        return lifecycle.active();
+    }
+}
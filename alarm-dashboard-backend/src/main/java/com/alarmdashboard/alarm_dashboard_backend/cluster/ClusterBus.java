@@ -0,0 +1,20 @@
+package com.alarmdashboard.alarm_dashboard_backend.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Düğümler arası olay yolu. Ingest tek düğümde (lider) yapılır; işlenen her yayın buradan
+ * diğer düğümlere gider, her düğüm kendi RecentAlarmStore'una ekleyip kendi WS istemcilerine yayınlar.
+ * Teslim en-fazla-bir-kez kabul edilir: kaçıran istemci resume/bootstrap ile tamamlanır.
+ */
+public interface ClusterBus {
+
+    /** Bu düğümün kimliği; gönderilen mesajların node alanı. */
+    String nodeId();
+
+    /** Diğer düğümlere gönder; false: gönderilemedi (bağlantı yok, serileştirme hatası). */
+    boolean publish(ClusterEvent event);
+
+    /** Diğer düğümlerden gelen mesajlar; kendi gönderdikleri gelmez. Tek dinleyici. */
+    void subscribe(Consumer<ClusterEvent> handler);
+}
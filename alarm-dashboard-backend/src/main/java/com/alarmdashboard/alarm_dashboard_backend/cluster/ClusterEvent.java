@@ -0,0 +1,39 @@
+package com.alarmdashboard.alarm_dashboard_backend.cluster;
+
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+
+import java.time.Instant;
+
+/**
+ * Düğümler arası mesaj: lider düğümde işlenmiş (lifecycle + flap sonrası) bir yayın.
+ * node: gönderen düğüm; kendi mesajını alan düğüm onu yok sayar.
+ */
+public record ClusterEvent(
+        String node,
+        Kind kind,
+        AlarmEvent event,
+        Instant endedAt,     // yalnızca CLEARED
+        boolean cleared,     // yalnızca FLAPPED
+        int suppressed,      // yalnızca FLAPPED
+        Instant seenAt,      // yalnızca REPEATED: tekrarın geliş anı (aktif dizinde lastSeen)
+        long count           // yalnızca REPEATED: liderin sayacı
+) {
+    /** REPEATED: açık alarmın tekrarı; event kanonik haldedir (açık satırın id'si, raise anı, son içerik). */
+    public enum Kind { RAISED, REPEATED, CLEARED, FLAPPED }
+
+    public static ClusterEvent raised(String node, AlarmEvent evt) {
+        return new ClusterEvent(node, Kind.RAISED, evt, null, false, 0, null, 0);
+    }
+
+    public static ClusterEvent repeated(String node, AlarmEvent evt, Instant seenAt, long count) {
+        return new ClusterEvent(node, Kind.REPEATED, evt, null, false, 0, seenAt, count);
+    }
+
+    public static ClusterEvent cleared(String node, AlarmEvent evt, Instant endedAt) {
+        return new ClusterEvent(node, Kind.CLEARED, evt, endedAt, true, 0, null, 0);
+    }
+
+    public static ClusterEvent flapped(String node, AlarmEvent evt, boolean cleared, int suppressed) {
+        return new ClusterEvent(node, Kind.FLAPPED, evt, null, cleared, suppressed, null, 0);
+    }
+}
@@ -0,0 +1,83 @@
+package com.alarmdashboard.alarm_dashboard_backend.cluster;
+
+import org.springframework.integration.support.locks.DefaultLockRegistry;
+import org.springframework.integration.support.locks.LockRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Aynı JVM'deki uygulama bağlamları arasında olay yolu (realtime.cluster.mode=LOCAL).
+ * Yük testi ve geliştirme içindir: aynı küme adıyla açılan her bağlam bir düğümdür, lider kilidi de
+ * bu JVM'de paylaşılır. Her düğümün tek thread'li gelen kutusu vardır; gönderen düğüm diğerlerinin
+ * yayın işini yapmaz, sıra düğüm başına korunur.
+ */
+public final class LocalClusterBus implements ClusterBus, AutoCloseable {
+
+    /** Küme adı -> üyeler + paylaşılan kilitler. */
+    private static final Map<String, Hub> HUBS = new ConcurrentHashMap<>();
+
+    private static final class Hub {
+        final List<LocalClusterBus> members = new CopyOnWriteArrayList<>();
+        final LockRegistry locks = new DefaultLockRegistry();
+    }
+
+    private final Hub hub;
+    private final String nodeId;
+    private final ExecutorService inbox;
+    private volatile Consumer<ClusterEvent> handler = e -> {};
+
+    public LocalClusterBus(String cluster, String nodeId) {
+        this.hub = hub(cluster);
+        this.nodeId = nodeId;
+        this.inbox = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "cluster-local-" + nodeId);
+            t.setDaemon(true);
+            return t;
+        });
+        hub.members.add(this);
+    }
+
+    /** Küme adıyla paylaşılan lider kilidi. */
+    public static LockRegistry locks(String cluster) {
+        return hub(cluster).locks;
+    }
+
+    private static Hub hub(String cluster) {
+        return HUBS.computeIfAbsent(cluster, k -> new Hub());
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public boolean publish(ClusterEvent event) {
+        for (LocalClusterBus m : hub.members) {
+            if (m != this) m.deliver(event);
+        }
+        return true;
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterEvent> handler) {
+        this.handler = handler;
+    }
+
+    private void deliver(ClusterEvent event) {
+        if (inbox.isShutdown()) return;
+        inbox.execute(() -> handler.accept(event));
+    }
+
+    @Override
+    public void close() {
+        hub.members.remove(this);
+        inbox.shutdownNow();
+    }
+}
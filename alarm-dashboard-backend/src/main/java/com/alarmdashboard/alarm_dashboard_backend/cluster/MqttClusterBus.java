@@ -0,0 +1,187 @@
+package com.alarmdashboard.alarm_dashboard_backend.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * MQTT broker'ı üzerinden olay yolu (realtime.cluster.mode=MQTT): her düğüm aynı topic'e JSON
+ * ClusterEvent basar ve abone olur, kendi mesajlarını node alanından tanıyıp atlar.
+ * Ek altyapı gerektirmez; alarmların geldiği broker yeterlidir. Oturum temizdir (cleanSession=true):
+ * bağlantı kopukken kaçan olaylar istemci tarafında resume/bootstrap ile tamamlanır.
+ * Gelen mesajlar Paho'nun callback thread'inde değil, tek thread'li sınırlı gelen kutusunda işlenir
+ * (lifecycle + store + WS yayını); sıra korunur, Paho'nun okuması ve keep-alive'ı beklemez. Kutu dolarsa
+ * mesaj atılır (teslim zaten en-fazla-bir-kez).
+ */
+public class MqttClusterBus implements ClusterBus, SmartLifecycle, MqttCallbackExtended {
+    private static final Logger log = LoggerFactory.getLogger(MqttClusterBus.class);
+
+    private static final long RETRY_SECONDS = 5;
+    private static final int INBOX_CAPACITY = 10_000;
+
+    private final MqttAsyncClient client;
+    private final MqttConnectOptions options;
+    private final String nodeId;
+    private final String topic;
+    private final int qos;
+    private final ObjectMapper om;
+    private final ScheduledExecutorService retry = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cluster-mqtt-connect");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ThreadPoolExecutor inbox;
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile Consumer<ClusterEvent> handler = e -> {};
+    private volatile boolean running;
+
+    public MqttClusterBus(String brokerUrl, String username, String password,
+                          String nodeId, String topic, int qos, ObjectMapper om) throws MqttException {
+        this.client = new MqttAsyncClient(brokerUrl, "adb-cluster-" + nodeId, new MemoryPersistence());
+        this.nodeId = nodeId;
+        this.topic = topic;
+        this.qos = qos;
+        this.om = om;
+        this.options = new MqttConnectOptions();
+        options.setCleanSession(true);
+        options.setAutomaticReconnect(true);
+        options.setMaxInflight(10_000);
+        if (username != null && !username.isBlank()) options.setUserName(username);
+        if (password != null && !password.isBlank()) options.setPassword(password.toCharArray());
+        client.setCallback(this);
+        this.inbox = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(INBOX_CAPACITY), r -> {
+            Thread t = new Thread(r, "cluster-mqtt-inbox");
+            t.setDaemon(true);
+            return t;
+        }, (r, ex) -> {
+            long n = rejected.incrementAndGet();
+            if (n == 1 || n % 1000 == 0) log.warn("Cluster inbox full, {} messages dropped so far", n);
+        });
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public boolean publish(ClusterEvent event) {
+        try {
+            client.publish(topic, om.writeValueAsBytes(event), qos, false);
+            return true;
+        } catch (Exception ex) {
+            log.debug("Cluster publish failed: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterEvent> handler) {
+        this.handler = handler;
+    }
+
+    // ---------- Paho callback ----------
+    @Override
+    public void connectComplete(boolean reconnect, String serverURI) {
+        // Temiz oturum: her bağlantıda yeniden abone ol
+        try {
+            client.subscribe(topic, qos);
+            log.info("Cluster bus {} node={} topic={}", reconnect ? "reconnected" : "connected", nodeId, topic);
+        } catch (MqttException ex) {
+            log.warn("Cluster subscribe failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void messageArrived(String t, MqttMessage message) {
+        ClusterEvent event;
+        try {
+            event = om.readValue(message.getPayload(), ClusterEvent.class);
+        } catch (Exception ex) {
+            log.warn("Cluster message dropped: {}", ex.getMessage());
+            return;
+        }
+        if (nodeId.equals(event.node())) return;
+        inbox.execute(() -> {
+            try {
+                handler.accept(event);
+            } catch (Exception ex) {
+                log.warn("Cluster message {} failed: {}", event.kind(), ex.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void connectionLost(Throwable cause) {
+        log.warn("Cluster bus connection lost: {}", cause == null ? "-" : cause.getMessage());
+    }
+
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+        // no-op
+    }
+
+    // ---------- lifecycle ----------
+    private void connect() {
+        try {
+            client.connect(options, null, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken token) {
+                    // abonelik connectComplete'te
+                }
+
+                @Override
+                public void onFailure(IMqttToken token, Throwable ex) {
+                    // automaticReconnect yalnızca ilk başarılı bağlantıdan sonra devreye girer
+                    log.warn("Cluster bus connect failed, retry in {}s: {}", RETRY_SECONDS, ex.getMessage());
+                    if (running) retry.schedule(MqttClusterBus.this::connect, RETRY_SECONDS, TimeUnit.SECONDS);
+                }
+            });
+        } catch (MqttException ex) {
+            log.warn("Cluster bus connect failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        connect();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        retry.shutdownNow();
+        inbox.shutdownNow();
+        try {
+            if (client.isConnected()) client.disconnect().waitForCompletion(5_000);
+            client.close();
+        } catch (MqttException ex) {
+            log.debug("Cluster bus close: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,39 @@
+package com.alarmdashboard.alarm_dashboard_backend.config;
+
+import com.alarmdashboard.alarm_dashboard_backend.service.AlarmLifecycle;
+import com.alarmdashboard.alarm_dashboard_backend.storage.RecentAlarmStore;
+import com.alarmdashboard.alarm_dashboard_backend.storage.TargetDictionary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AlarmProps.class)
+public class AlarmPipelineConfig {
+
+    /** Bellekteki yapıların boyutları (alarm.recent.size, alarm.lifecycle.active, alarm.targets.*). */
+    @Bean
+    public MeterBinder alarmStoreMeters(RecentAlarmStore store, AlarmLifecycle lifecycle, TargetDictionary targets) {
+        return registry -> {
+            Gauge.builder("alarm.recent.size", store, RecentAlarmStore::size)
+                    .description("RecentAlarmStore'daki olay sayısı")
+                    .register(registry);
+            Gauge.builder("alarm.recent.capacity", store, RecentAlarmStore::capacity)
+                    .register(registry);
+            Gauge.builder("alarm.lifecycle.active", lifecycle, AlarmLifecycle::activeCount)
+                    .description("Açık (clear gelmemiş) alarm sayısı")
+                    .register(registry);
+            Gauge.builder("alarm.targets.size", targets, TargetDictionary::size)
+                    .description("Sözlükteki ayrıştırılmış hedef yolu sayısı")
+                    .register(registry);
+            FunctionCounter.builder("alarm.targets.misses", targets, TargetDictionary::misses)
+                    .description("Sözlükte bulunmayıp ayrıştırılan yollar")
+                    .register(registry);
+            FunctionCounter.builder("alarm.targets.evictions", targets, TargetDictionary::evictions)
+                    .register(registry);
+        };
+    }
+}
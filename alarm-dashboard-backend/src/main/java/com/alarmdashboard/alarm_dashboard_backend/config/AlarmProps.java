@@ -0,0 +1,245 @@
+package com.alarmdashboard.alarm_dashboard_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * alarm.* ayarları (ingest hattı). Boş bırakılan alanlar varsayılan değerleri alır.
+ */
+@ConfigurationProperties(prefix = "alarm")
+public record AlarmProps(
+        Persist persist,
+        Recent recent,
+        Bootstrap bootstrap,
+        Batch batch,
+        Lifecycle lifecycle,
+        Flap flap,
+        Targets targets,
+        Archive archive,
+        Journal journal,
+        Compact compact,
+        Outbound outbound
+) {
+    public AlarmProps {
+        persist   = Optional.ofNullable(persist).orElseGet(() -> new Persist(null, null, null, null, null));
+        recent    = Optional.ofNullable(recent).orElseGet(() -> new Recent(null, null, null, null, null));
+        bootstrap = Optional.ofNullable(bootstrap).orElseGet(() -> new Bootstrap(null, null));
+        batch     = Optional.ofNullable(batch).orElseGet(() -> new Batch(null, null, null));
+        lifecycle = Optional.ofNullable(lifecycle).orElseGet(() -> new Lifecycle(null, null));
+        flap      = Optional.ofNullable(flap).orElseGet(() -> new Flap(null, null, null, null));
+        targets   = Optional.ofNullable(targets).orElseGet(() -> new Targets(null));
+        archive   = Optional.ofNullable(archive).orElseGet(() -> new Archive(null, null, null, null, null, null));
+        journal   = Optional.ofNullable(journal).orElseGet(() -> new Journal(null, null, null, null, null, null));
+        compact   = Optional.ofNullable(compact).orElseGet(() -> new Compact(null, null));
+        outbound  = Optional.ofNullable(outbound).orElseGet(() -> new Outbound(null, null, null, null, null, null, null));
+    }
+
+    /** Kuyruk dolduğunda ne yapılacağı. */
+    public enum Backpressure {
+        /** offerTimeout kadar bekle; yer açılmazsa çağıran thread'de yaz. */
+        BLOCK,
+        /** Yeni gelen kaydı at (kapanış atılmaz, çağıran thread'de yazılır). */
+        DROP_NEWEST,
+        /** Kuyruktaki en eski kaydı atıp yenisini ekle (atılacak kayıt kapanışsa çağıran thread'de yazılır). */
+        DROP_OLDEST,
+        /** Beklemeden çağıran thread'de senkron yaz. */
+        CALLER_RUNS
+    }
+
+    /** WS oturumunun kuyruğu sınırı aştığında sırayla uygulanacak ilk adım (sonrakiler de denenir). */
+    public enum SlowConsumer {
+        /** Kuyruktaki INFO frame'lerini at; yetmezse COLLAPSE. */
+        DROP_INFO,
+        /** Hedef başına yalnızca en yeni frame'i tut; yetmezse DISCONNECT. */
+        COLLAPSE,
+        /** Oturumu kapat; istemci yeniden bağlanıp seq/epoch ile kaçırdıklarını alır. */
+        DISCONNECT
+    }
+
+    /** Write-behind kalıcılık katmanı (alarm.persist.*). */
+    public record Persist(
+            Integer queueCapacity,
+            Integer batchSize,
+            Duration flushInterval,
+            Backpressure backpressure,
+            Duration offerTimeout
+    ) {
+        public Persist {
+            queueCapacity = Optional.ofNullable(queueCapacity).orElse(10_000);
+            batchSize     = Optional.ofNullable(batchSize).orElse(200);
+            flushInterval = Optional.ofNullable(flushInterval).orElse(Duration.ofMillis(100));
+            backpressure  = Optional.ofNullable(backpressure).orElse(Backpressure.BLOCK);
+            offerTimeout  = Optional.ofNullable(offerTimeout).orElse(Duration.ofMillis(50));
+        }
+    }
+
+    /**
+     * Bellekteki son alarmlar (alarm.recent.*): RecentAlarmStore halka tamponu. warmStart açıksa açılışta
+     * snapshot dosyasından (yoksa DB'den) doldurulur; snapshot snapshotInterval'de bir ve kapanışta yazılır.
+     */
+    public record Recent(
+            Integer capacity,
+            Duration retention,
+            Boolean warmStart,
+            String snapshot,
+            Duration snapshotInterval
+    ) {
+        public Recent {
+            capacity         = Optional.ofNullable(capacity).orElse(10_000);
+            retention        = Optional.ofNullable(retention).orElse(Duration.ofDays(35));
+            warmStart        = Optional.ofNullable(warmStart).orElse(true);
+            snapshot         = Optional.ofNullable(snapshot).filter(s -> !s.isBlank()).orElse("data/recent.snap");
+            snapshotInterval = Optional.ofNullable(snapshotInterval).orElse(Duration.ofMinutes(1));
+        }
+    }
+
+    /** WS abonelik bootstrap'ı (alarm.bootstrap.*): pencere ve serileştirilmiş listenin ömrü. */
+    public record Bootstrap(
+            Duration window,
+            Duration cacheTtl
+    ) {
+        public Bootstrap {
+            window   = Optional.ofNullable(window).orElse(Duration.ofMinutes(10));
+            cacheTtl = Optional.ofNullable(cacheTtl).orElse(Duration.ofSeconds(2));
+        }
+    }
+
+    /** Toplu WS yayını (alarm.batch.*): /topic/alarms.batch için pencere ve üst sınır. */
+    public record Batch(
+            Boolean enabled,
+            Duration window,
+            Integer maxSize
+    ) {
+        public Batch {
+            enabled = Optional.ofNullable(enabled).orElse(true);
+            window  = Optional.ofNullable(window).orElse(Duration.ofMillis(50));
+            maxSize = Optional.ofNullable(maxSize).orElse(500);
+        }
+    }
+
+    /** Alarm yaşam döngüsü (alarm.lifecycle.*): raise/repeat/clear ve açılışta geri yükleme penceresi. */
+    public record Lifecycle(
+            Boolean enabled,
+            Duration restoreWindow
+    ) {
+        public Lifecycle {
+            enabled       = Optional.ofNullable(enabled).orElse(true);
+            restoreWindow = Optional.ofNullable(restoreWindow).orElse(Duration.ofDays(1));
+        }
+    }
+
+    /** Hedef başına tekrar filtresi (alarm.flap.*): burst kadar olay hemen, sonra holdOff'ta bir. */
+    public record Flap(
+            Boolean enabled,
+            Integer burst,
+            Duration holdOff,
+            Duration idleTtl
+    ) {
+        public Flap {
+            enabled = Optional.ofNullable(enabled).orElse(true);
+            burst   = Optional.ofNullable(burst).orElse(3);
+            holdOff = Optional.ofNullable(holdOff).orElse(Duration.ofSeconds(5));
+            idleTtl = Optional.ofNullable(idleTtl).orElse(Duration.ofMinutes(10));
+        }
+    }
+
+    /** Hedef yolu sözlüğü (alarm.targets.*): ayrıştırılmış yolların üst sınırı, aşılınca LRU. */
+    public record Targets(
+            Integer capacity
+    ) {
+        public Targets {
+            capacity = Optional.ofNullable(capacity).orElse(4096);
+        }
+    }
+
+    /**
+     * Soğuk arşiv (alarm.archive.*): age'den eski (gün sınırına yuvarlanmış) kapanmış satırlar interval'de
+     * bir dir altındaki günlük segmentlere taşınır; blockRows segment içi blok boyutudur.
+     */
+    public record Archive(
+            Boolean enabled,
+            String dir,
+            Duration age,
+            Duration interval,
+            Integer blockRows,
+            Duration rescanInterval
+    ) {
+        public Archive {
+            enabled   = Optional.ofNullable(enabled).orElse(false);
+            dir       = Optional.ofNullable(dir).filter(d -> !d.isBlank()).orElse("data/archive");
+            age       = Optional.ofNullable(age).orElse(Duration.ofDays(35));
+            interval  = Optional.ofNullable(interval).orElse(Duration.ofHours(1));
+            blockRows = Optional.ofNullable(blockRows).orElse(4096);
+            rescanInterval = Optional.ofNullable(rescanInterval).orElse(Duration.ofSeconds(5));
+        }
+    }
+
+    /**
+     * Yerel yazma-önü günlüğü (alarm.journal.*): açıksa kalıcılık kuyruğu yerine dir altındaki bellek eşlemeli
+     * segmentler kullanılır. syncInterval fsync toplama aralığı, maxSize diskte tutulabilecek en fazla günlük,
+     * retryBackoff DB'ye ulaşılamazken yeniden deneme aralığının üst sınırıdır (günlük kapalıyken kuyruk
+     * yolunun yazıcısı da kullanır).
+     */
+    public record Journal(
+            Boolean enabled,
+            String dir,
+            DataSize segmentSize,
+            DataSize maxSize,
+            Duration syncInterval,
+            Duration retryBackoff
+    ) {
+        public Journal {
+            enabled      = Optional.ofNullable(enabled).orElse(false);
+            dir          = Optional.ofNullable(dir).filter(d -> !d.isBlank()).orElse("data/journal");
+            segmentSize  = Optional.ofNullable(segmentSize).orElse(DataSize.ofMegabytes(64));
+            maxSize      = Optional.ofNullable(maxSize).orElse(DataSize.ofGigabytes(2));
+            syncInterval = Optional.ofNullable(syncInterval).orElse(Duration.ofMillis(50));
+            retryBackoff = Optional.ofNullable(retryBackoff).orElse(Duration.ofSeconds(5));
+        }
+    }
+
+    /**
+     * Sıkı WS biçimi (alarm.compact.*): /topic/alarms.compact yayını ve paylaşılan sözlüğün üst sınırı;
+     * sınır dolunca yeni değerler düz string gider.
+     */
+    public record Compact(
+            Boolean enabled,
+            Integer dictionarySize
+    ) {
+        public Compact {
+            enabled        = Optional.ofNullable(enabled).orElse(true);
+            dictionarySize = Optional.ofNullable(dictionarySize).orElse(65_536);
+        }
+    }
+
+    /**
+     * İstemciye giden frame'ler (alarm.outbound.*): oturum başına kuyruk sınırı (queueSize frame ya da en eskisi
+     * maxLag'den yaşlı) ve aşılınca slowConsumer politikası. sendTimeLimit/sendBufferSize soket yazımının
+     * Spring sınırlarıdır (aşılınca oturum kapanır). perSessionMetrics: oturum başına kuyruk derinliği metriği.
+     * senderThreads: clientOutboundChannel havuzu; oturum başına en çok bir yazım sürdüğünden, aynı anda
+     * soketinde bekleyebilecek yavaş oturum sayısı kadar fazlası gerekir.
+     */
+    public record Outbound(
+            Integer queueSize,
+            Duration maxLag,
+            SlowConsumer slowConsumer,
+            Duration sendTimeLimit,
+            DataSize sendBufferSize,
+            Boolean perSessionMetrics,
+            Integer senderThreads
+    ) {
+        public Outbound {
+            queueSize         = Optional.ofNullable(queueSize).orElse(1000);
+            maxLag            = Optional.ofNullable(maxLag).orElse(Duration.ofSeconds(10));
+            slowConsumer      = Optional.ofNullable(slowConsumer).orElse(SlowConsumer.DROP_INFO);
+            sendTimeLimit     = Optional.ofNullable(sendTimeLimit).orElse(Duration.ofSeconds(10));
+            sendBufferSize    = Optional.ofNullable(sendBufferSize).orElse(DataSize.ofKilobytes(512));
+            perSessionMetrics = Optional.ofNullable(perSessionMetrics).orElse(true);
+            senderThreads     = Optional.ofNullable(senderThreads)
+                    .orElse(Math.max(8, 2 * Runtime.getRuntime().availableProcessors()));
+        }
+    }
+}
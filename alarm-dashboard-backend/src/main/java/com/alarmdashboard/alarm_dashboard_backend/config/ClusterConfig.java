@@ -0,0 +1,129 @@
+package com.alarmdashboard.alarm_dashboard_backend.config;
+
+import com.alarmdashboard.alarm_dashboard_backend.cluster.LocalClusterBus;
+import com.alarmdashboard.alarm_dashboard_backend.cluster.MqttClusterBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.jdbc.lock.DefaultLockRepository;
+import org.springframework.integration.jdbc.lock.JdbcLockRegistry;
+import org.springframework.integration.leader.DefaultCandidate;
+import org.springframework.integration.support.leader.LockRegistryLeaderInitiator;
+import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Yatay ölçek (realtime.cluster.*). mode=NONE tek düğümdür (eski davranış).
+ * LOCAL/MQTT'de düğümlerden biri lider seçilir ve MQTT ingest yalnızca onda açılır (rol {@link #INGEST_ROLE});
+ * işlenen her yayın ClusterBus ile diğer düğümlere gider, fan-out her düğümde kendi istemcilerine yapılır.
+ * LOCAL: aynı JVM'deki bağlamlar (yük testi); MQTT: broker üzerinden, lider kilidi veritabanında (INT_LOCK).
+ */
+@Configuration
+@EnableConfigurationProperties(ClusterConfig.ClusterProps.class)
+public class ClusterConfig {
+    private static final Logger log = LoggerFactory.getLogger(ClusterConfig.class);
+
+    /** Lider seçilen düğümde başlatılan endpoint'lerin rolü (MQTT inbound adapter). */
+    public static final String INGEST_ROLE = "alarm-ingest";
+
+    @Bean
+    @ConditionalOnProperty(name = "realtime.cluster.mode", havingValue = "local")
+    public LocalClusterBus localClusterBus(ClusterProps props) {
+        log.info("Cluster mode=LOCAL name={} node={}", props.name(), props.nodeId());
+        return new LocalClusterBus(props.name(), props.nodeId());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "realtime.cluster.mode", havingValue = "mqtt")
+    public MqttClusterBus mqttClusterBus(ClusterProps props, ObjectMapper om,
+                                         @Value("${mqtt.brokerUrl}") String brokerUrl,
+                                         @Value("${mqtt.username:}") String username,
+                                         @Value("${mqtt.password:}") String password) throws MqttException {
+        log.info("Cluster mode=MQTT name={} node={} topic={}", props.name(), props.nodeId(), props.topic());
+        return new MqttClusterBus(brokerUrl, username, password, props.nodeId(), props.topic(), props.qos(), om);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "realtime.cluster.mode", havingValue = "local")
+    public LockRegistry localClusterLocks(ClusterProps props) {
+        return LocalClusterBus.locks(props.name());
+    }
+
+    /** Düğümler arası lider kilidi: paylaşılan veritabanındaki INT_LOCK tablosu (yoksa açılır). */
+    @Bean
+    @ConditionalOnProperty(name = "realtime.cluster.mode", havingValue = "mqtt")
+    public DefaultLockRepository clusterLockRepository(DataSource dataSource, ClusterProps props) {
+        new JdbcTemplate(dataSource).execute("""
+                CREATE TABLE IF NOT EXISTS INT_LOCK (
+                    LOCK_KEY CHAR(36) NOT NULL,
+                    REGION VARCHAR(100) NOT NULL,
+                    CLIENT_ID CHAR(36),
+                    CREATED_DATE TIMESTAMP(6) NOT NULL,
+                    CONSTRAINT INT_LOCK_PK PRIMARY KEY (LOCK_KEY, REGION)
+                )""");
+        DefaultLockRepository repo = new DefaultLockRepository(dataSource);
+        repo.setRegion(props.name());
+        return repo;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "realtime.cluster.mode", havingValue = "mqtt")
+    public LockRegistry jdbcClusterLocks(DefaultLockRepository clusterLockRepository) {
+        return new JdbcLockRegistry(clusterLockRepository);
+    }
+
+    /** Kilidi alan düğüm lider olur; OnGranted/OnRevoked olayları INGEST_ROLE endpoint'lerini açıp kapatır. */
+    @Bean
+    @ConditionalOnExpression("!'${realtime.cluster.mode:none}'.equalsIgnoreCase('none')")
+    public LockRegistryLeaderInitiator clusterLeader(LockRegistry locks, ClusterProps props) {
+        return new LockRegistryLeaderInitiator(locks, new DefaultCandidate(props.nodeId(), INGEST_ROLE));
+    }
+
+    /** alarm.cluster.leader: bu düğüm ingest lideri mi (1/0). */
+    @Bean
+    @ConditionalOnExpression("!'${realtime.cluster.mode:none}'.equalsIgnoreCase('none')")
+    public MeterBinder clusterMeters(LockRegistryLeaderInitiator clusterLeader) {
+        return registry -> Gauge.builder("alarm.cluster.leader", clusterLeader,
+                        l -> l.getContext().isLeader() ? 1 : 0)
+                .description("Bu düğüm MQTT ingest lideri mi")
+                .register(registry);
+    }
+
+    public enum Mode { NONE, LOCAL, MQTT }
+
+    @ConfigurationProperties(prefix = "realtime.cluster")
+    public record ClusterProps(
+            Mode mode,
+            String name,
+            String nodeId,
+            String topic,
+            Integer qos
+    ) {
+        public ClusterProps {
+            mode   = Optional.ofNullable(mode).orElse(Mode.NONE);
+            name   = Optional.ofNullable(name).filter(s -> !s.isBlank()).orElse("adb");
+            nodeId = Optional.ofNullable(nodeId).filter(s -> !s.isBlank())
+                    .orElseGet(() -> ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8));
+            topic  = Optional.ofNullable(topic).filter(s -> !s.isBlank()).orElse("adb/cluster/" + name + "/events");
+            qos    = Optional.ofNullable(qos).orElse(1);
+        }
+
+        public boolean enabled() {
+            return mode != Mode.NONE;
+        }
+    }
+}
@@ -3,16 +3,30 @@ package com.alarmdashboard.alarm_dashboard_backend.config;
 import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
 import com.alarmdashboard.alarm_dashboard_backend.service.AlarmIngestService;
 import com.alarmdashboard.alarm_dashboard_backend.source.mqtt.MqttAlarmMapper;
+import com.alarmdashboard.alarm_dashboard_backend.source.mqtt.MqttIngestLanes;
+import com.alarmdashboard.alarm_dashboard_backend.source.mqtt.OrderedAcks;
+import com.alarmdashboard.alarm_dashboard_backend.storage.TargetDictionary;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.acks.SimpleAcknowledgment;
 import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.mqtt.core.DefaultMqttPahoClientFactory;
@@ -20,10 +34,13 @@ import org.springframework.integration.mqtt.core.MqttPahoClientFactory;
 import org.springframework.integration.mqtt.inbound.MqttPahoMessageDrivenChannelAdapter;
 import org.springframework.integration.mqtt.support.DefaultPahoMessageConverter;
 import org.springframework.integration.mqtt.support.MqttHeaders;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
 
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Configuration
 @EnableConfigurationProperties(RealtimeSourceConfig.MqttProps.class)
@@ -33,8 +50,8 @@ public class RealtimeSourceConfig {
 
     @Bean
     @ConditionalOnMissingBean
-    public MqttAlarmMapper mqttAlarmMapper(ObjectMapper om) {
-        return new MqttAlarmMapper(om);
+    public MqttAlarmMapper mqttAlarmMapper(ObjectMapper om, MeterRegistry registry, TargetDictionary targets) {
+        return new MqttAlarmMapper(om, registry, targets);
     }
 
     @Bean
@@ -56,6 +73,15 @@ public class RealtimeSourceConfig {
         return f;
     }
 
+    /** mqtt.ingestLanes > 0 ise mesajlar paralel şeritlerde işlenir; 0 = Paho thread'inde (eski davranış). */
+    @Bean
+    @Conditional(IngestLanesCondition.class)
+    public MqttIngestLanes mqttIngestLanes(MqttProps props, MeterRegistry registry) {
+        int lanes = props.ingestLanes();
+        log.info("MQTT ingest lanes={} capacity={} key={}", lanes, props.laneQueueCapacity(), props.laneKey());
+        return new MqttIngestLanes(lanes, props.laneQueueCapacity(), registry);
+    }
+
     @Bean
     public MessageChannel mqttInputChannel() {
         return new DirectChannel();
@@ -64,6 +90,7 @@ public class RealtimeSourceConfig {
     @Bean
     public MqttPahoMessageDrivenChannelAdapter mqttInboundAdapter(
             MqttProps props,
+            ClusterConfig.ClusterProps cluster,
             MqttPahoClientFactory factory,
             MessageChannel mqttInputChannel) {
 
@@ -77,7 +104,14 @@ public class RealtimeSourceConfig {
         converter.setPayloadAsBytes(false);
         adapter.setConverter(converter);
         adapter.setQos(qos);
+        // Şeritlerde mesaj işlenince, geliş sırasıyla onaylanır (at-least-once); aksi halde Paho callback dönünce
+        adapter.setManualAcks(props.ingestLanes() > 0);
         adapter.setOutputChannel(mqttInputChannel);
+        if (cluster.enabled()) {
+            // Kümede yalnızca lider abone olur (her alarm bir kez işlenir); lider değişince rol denetleyicisi açar/kapatır
+            adapter.setRole(ClusterConfig.INGEST_ROLE);
+            adapter.setAutoStartup(false);
+        }
 
         log.info("MQTT subscribing clientId={} qos={} topics={}", props.clientId(), qos, String.join(",", topics));
         return adapter;
@@ -85,45 +119,169 @@ public class RealtimeSourceConfig {
 
     @Bean
     @ServiceActivator(inputChannel = "mqttInputChannel")
-    public MessageHandler mqttInboundHandler(MqttAlarmMapper mapper,
-                                             AlarmIngestService ingestService) {
+    public MessageHandler mqttInboundHandler(MqttProps props,
+                                             MqttAlarmMapper mapper,
+                                             AlarmIngestService ingestService,
+                                             ObjectProvider<MqttIngestLanes> lanesProvider,
+                                             MeterRegistry registry) {
+        MqttIngestLanes lanes = lanesProvider.getIfAvailable();
+        MqttCounters counters = new MqttCounters(registry);
+        OrderedAcks acks = new OrderedAcks();
         return message -> {
-            // --- Header tabanlı filtreler ---
-            Boolean retained = message.getHeaders().get(MqttHeaders.RECEIVED_RETAINED, Boolean.class);
-            if (Boolean.TRUE.equals(retained)) {
-                // Eski (retained) mesaj — işleme.
-                if (log.isDebugEnabled()) {
-                    String t = String.valueOf(message.getHeaders().get(MqttHeaders.RECEIVED_TOPIC));
-                    log.debug("DROP (retained) <= [{}]", t);
-                }
+            // Manuel onay yalnızca şeritlerde açık; işlenmeden onaylanan mesaj çökmede kaybolur
+            SimpleAcknowledgment ack = message.getHeaders()
+                    .get(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK, SimpleAcknowledgment.class);
+            if (lanes == null || ack == null) {
+                handle(message, props, mapper, ingestService, lanes, counters, true, () -> {});
                 return;
             }
+            // Şeritler bitiş sırasıyla tamamlar; PUBACK'ler geliş sırasıyla gider (MQTT 3.1.1 §4.6)
+            OrderedAcks.Completion done = acks.register(ack);
+            try {
+                // Yeniden gönderilen (DUP) mesaj onaylanmamış, belki işlenmemiş mesajdır: atılmaz.
+                // Tekrar işlemek güvenli (upsert anahtarı id, yaşam döngüsü indeksi hedef başına tek açık)
+                handle(message, props, mapper, ingestService, lanes, counters, false, done::acknowledge);
+            } catch (RejectedExecutionException ex) {
+                done.skip();    // şeritler kapanıyor: onaylanmayan mesajı broker yeniden gönderir
+                throw ex;
+            } catch (RuntimeException ex) {
+                done.acknowledge();
+                throw ex;
+            }
+        };
+    }
+
+    /** Mesajı işler ya da şeride verir; done mesaj işlenince (atılınca da) bir kez çağrılır. */
+    private static void handle(Message<?> message, MqttProps props, MqttAlarmMapper mapper,
+                               AlarmIngestService ingestService, MqttIngestLanes lanes,
+                               MqttCounters counters, boolean dropDuplicates, Runnable done) {
+        // --- Header tabanlı filtreler ---
+        Boolean retained = message.getHeaders().get(MqttHeaders.RECEIVED_RETAINED, Boolean.class);
+        if (Boolean.TRUE.equals(retained)) {
+            // Eski (retained) mesaj — işleme.
+            counters.retained.increment();
+            if (log.isTraceEnabled()) {
+                String t = String.valueOf(message.getHeaders().get(MqttHeaders.RECEIVED_TOPIC));
+                log.trace("DROP (retained) <= [{}]", t);
+            }
+            done.run();
+            return;
+        }
 
-            Boolean duplicate = message.getHeaders().get(MqttHeaders.DUPLICATE, Boolean.class);
-            if (Boolean.TRUE.equals(duplicate)) {
+        Boolean duplicate = message.getHeaders().get(MqttHeaders.DUPLICATE, Boolean.class);
+        if (dropDuplicates && Boolean.TRUE.equals(duplicate)) {
+            counters.duplicate.increment();
+            if (log.isTraceEnabled()) {
                 String t = String.valueOf(message.getHeaders().get(MqttHeaders.RECEIVED_TOPIC));
-                log.debug("DROP (duplicate) <= [{}]", t);
-                return;
+                log.trace("DROP (duplicate) <= [{}]", t);
             }
+            done.run();
+            return;
+        }
 
-            // --- Normal akış ---
-            String payload = String.valueOf(message.getPayload());
-            String topic   = String.valueOf(message.getHeaders().get(MqttHeaders.RECEIVED_TOPIC));
+        // --- Normal akış ---
+        String payload = String.valueOf(message.getPayload());
+        String topic   = String.valueOf(message.getHeaders().get(MqttHeaders.RECEIVED_TOPIC));
 
-            log.info("MQTT <= [{}] {}", topic, payload);
+        // Sıcak yol: her mesaj yerine DEBUG_SAMPLE'da bir (DEBUG açıksa)
+        if (log.isDebugEnabled() && counters.sampled()) {
+            log.debug("MQTT <= [{}] {} (1/{} sampled)", topic, payload, DEBUG_SAMPLE);
+        }
 
-            if (!mapper.isAlarmLike(payload, topic)) {
+        if (lanes == null) {
+            process(mapper, ingestService, counters, payload, topic);
+            done.run();
+        } else if (props.laneKey() == LaneKey.TARGET) {
+            // Target'a göre şeritlemek için parse burada (tek sefer), DB + WS şeritte
+            MqttAlarmMapper.Mapped mapped = mapper.map(payload, topic);
+            if (!mapped.alarm()) {
+                counters.notAlarm.increment();
                 log.trace("DROP  <= [{}] {}", topic, payload);
+                done.run();
                 return;
             }
+            counters.alarm.increment();
+            AlarmEvent evt = mapped.event();
+            lanes.execute(targetOf(evt), () -> {
+                try {
+                    ingestService.ingest(evt, mapped.cleared());
+                } finally {
+                    done.run();
+                }
+            });
+        } else {
+            lanes.execute(topic, () -> {
+                try {
+                    process(mapper, ingestService, counters, payload, topic);
+                } finally {
+                    done.run();
+                }
+            });
+        }
+    }
 
-            // timestamp = now (arrival)
-            AlarmEvent evt = mapper.toEvent(payload, topic);
-            ingestService.ingest(evt);
-            log.debug("ALARM <= [{}] {}", topic, evt);
-        };
+    private static void process(MqttAlarmMapper mapper, AlarmIngestService ingestService,
+                                MqttCounters counters, String payload, String topic) {
+        // tek parse: sınıflandırma + event (timestamp = now / arrival)
+        MqttAlarmMapper.Mapped mapped = mapper.map(payload, topic);
+        if (!mapped.alarm()) {
+            counters.notAlarm.increment();
+            log.trace("DROP  <= [{}] {}", topic, payload);
+            return;
+        }
+
+        counters.alarm.increment();
+        AlarmEvent evt = mapped.event();
+        ingestService.ingest(evt, mapped.cleared());
+        log.trace("ALARM <= [{}] {}", topic, evt);
+    }
+
+    private static final int DEBUG_SAMPLE = 100;
+
+    /** alarm.mqtt.messages{result=alarm|not_alarm|retained|duplicate} + debug log örnekleme sayacı. */
+    private static final class MqttCounters {
+        final Counter alarm, notAlarm, retained, duplicate;
+        private final AtomicLong seen = new AtomicLong();
+
+        MqttCounters(MeterRegistry registry) {
+            alarm     = counter(registry, "alarm");
+            notAlarm  = counter(registry, "not_alarm");
+            retained  = counter(registry, "retained");
+            duplicate = counter(registry, "duplicate");
+        }
+
+        boolean sampled() {
+            return seen.getAndIncrement() % DEBUG_SAMPLE == 0;
+        }
+
+        private static Counter counter(MeterRegistry registry, String result) {
+            return Counter.builder("alarm.mqtt.messages")
+                    .description("Gelen MQTT mesajları, sonuca göre")
+                    .tag("result", result)
+                    .register(registry);
+        }
+    }
+
+    private static String targetOf(AlarmEvent evt) {
+        String id = evt.id();
+        int at = id.indexOf('@');
+        return at > 0 ? id.substring(0, at) : id;
     }
 
+    /** mqtt.ingest-lanes > 0 mı; gevşek bağlama ile (ingestLanes, ingest-lanes, MQTT_INGESTLANES). */
+    static class IngestLanesCondition extends SpringBootCondition {
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            int lanes = Binder.get(context.getEnvironment()).bind("mqtt.ingest-lanes", Integer.class).orElse(0);
+            return lanes > 0
+                    ? ConditionOutcome.match("mqtt.ingest-lanes=" + lanes)
+                    : ConditionOutcome.noMatch("mqtt.ingest-lanes=" + lanes);
+        }
+    }
+
+    /** Şerit anahtarı: TOPIC (parse şeritte) ya da payload Target'ı (parse callback thread'inde). */
+    public enum LaneKey { TOPIC, TARGET }
+
     @ConfigurationProperties(prefix = "mqtt")
     public record MqttProps(
             String brokerUrl,
@@ -135,6 +293,15 @@ public class RealtimeSourceConfig {
             Boolean cleanSession,
             Integer keepAlive,
             Integer connectionTimeout,
-            Long recoveryIntervalMs
-    ) {}
+            Long recoveryIntervalMs,
+            Integer ingestLanes,
+            Integer laneQueueCapacity,
+            LaneKey laneKey
+    ) {
+        public MqttProps {
+            ingestLanes = Optional.ofNullable(ingestLanes).orElse(0);
+            laneQueueCapacity = Optional.ofNullable(laneQueueCapacity).orElse(1000);
+            laneKey = Optional.ofNullable(laneKey).orElse(LaneKey.TOPIC);
+        }
+    }
 }
\ No newline at end of file
@@ -1,32 +1,73 @@
 package com.alarmdashboard.alarm_dashboard_backend.config;
 
+import com.alarmdashboard.alarm_dashboard_backend.ws.SessionOutbox;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final SessionOutbox outbox;
+    private final AlarmProps.Outbound outbound;
+
+    public WebSocketConfig(SessionOutbox outbox, AlarmProps props) {
+        this.outbox = outbox;
+        this.outbound = props.outbound();
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.enableSimpleBroker("/topic", "/queue")
                 .setHeartbeatValue(new long[]{10000, 10000})
                 .setTaskScheduler(heartBeatScheduler());
         registry.setApplicationDestinationPrefixes("/app");
+        // Broker'ın hedef -> abone önbelleği; /topic/alarms/{location}/{level} hedeflerinin hepsi sığsın
+        registry.setCacheLimit(4096);
         registry.setUserDestinationPrefix("/user");
     }
 
+    // Oturum başına sıra ve sınırlı kuyruk SessionOutbox'ta (preservePublishOrder'ın kuyruğu sınırsız)
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(outbox);
+        // Boot aksi halde tek iş parçacıklı ortak zamanlayıcıyı verir; yavaş oturumun bloklayan yazımı
+        // bir iş parçacığını tutar, diğer oturumlara yetecek kadar kalsın
+        registration.executor(wsOutboundExecutor());
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) outbound.sendTimeLimit().toMillis())
+                .setSendBufferSizeLimit((int) outbound.sendBufferSize().toBytes())
+                .addDecoratorFactory(outbox::decorate);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
     }
 
+    @Bean
+    public ThreadPoolTaskExecutor wsOutboundExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(outbound.senderThreads());
+        ex.setMaxPoolSize(outbound.senderThreads());
+        ex.setAllowCoreThreadTimeOut(true);
+        ex.setThreadNamePrefix("ws-out-");
+        ex.initialize();
+        return ex;
+    }
+
     @Bean
     public TaskScheduler heartBeatScheduler() {
         ThreadPoolTaskScheduler ts = new ThreadPoolTaskScheduler();
@@ -0,0 +1,16 @@
+package com.alarmdashboard.alarm_dashboard_backend.dto;
+
+import java.time.Instant;
+
+/** Açık (henüz clear gelmemiş) alarm: ilk raise satırı + son tekrar bilgisi. */
+public record ActiveAlarm(
+        String id,
+        String target,
+        String level,
+        String type,
+        String location,
+        String message,
+        Instant raisedAt,
+        Instant lastSeen,
+        long count
+) {}
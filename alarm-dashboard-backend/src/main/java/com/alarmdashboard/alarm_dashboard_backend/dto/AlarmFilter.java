@@ -0,0 +1,48 @@
+package com.alarmdashboard.alarm_dashboard_backend.dto;
+
+import java.util.Locale;
+
+/**
+ * Sorgu/export ortak filtreleri, repository parametrelerine hazır halde (null = filtre yok).
+ * target bir önektir: "ETP/LVMV" -> ETP/LVMV altındaki tüm noktalar ("ETP/LVMV%" deseni, kaçış '!').
+ */
+public record AlarmFilter(String level, String location, String target) {
+
+    public static final AlarmFilter NONE = new AlarmFilter(null, null, null);
+
+    public static AlarmFilter of(String level, String location, String target) {
+        return new AlarmFilter(
+                blankToNull(level) == null ? null : level.trim().toUpperCase(Locale.ROOT),
+                blankToNull(location),
+                targetPattern(target));
+    }
+
+    /** Bellekteki satır için aynı filtre (arşiv okumaları); target deseni önek olarak karşılaştırılır. */
+    public boolean matches(AlarmSlice a) {
+        if (level != null && !level.equals(a.level())) return false;
+        if (location != null && !location.equals(a.location())) return false;
+        return target == null || (a.target() != null && a.target().startsWith(targetPrefix()));
+    }
+
+    /** "ETP/LVMV!_1%" -> "ETP/LVMV_1" */
+    private String targetPrefix() {
+        StringBuilder sb = new StringBuilder(target.length());
+        for (int i = 0; i < target.length() - 1; i++) {   // sondaki '%' hariç
+            char c = target.charAt(i);
+            if (c == '!' && i + 1 < target.length() - 1) c = target.charAt(++i);
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /** Hedefler normalize (büyük harf, '/') saklanır; filtre de aynı biçime getirilip önek desenine çevrilir. */
+    private static String targetPattern(String target) {
+        String t = blankToNull(target);
+        if (t == null) return null;
+        t = t.trim().replace('\\', '/').toUpperCase(Locale.ROOT)
+                .replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return t + "%";
+    }
+
+    private static String blankToNull(String s) { return (s == null || s.isBlank()) ? null : s; }
+}
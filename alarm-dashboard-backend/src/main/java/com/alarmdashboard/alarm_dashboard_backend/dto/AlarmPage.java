@@ -0,0 +1,9 @@
+package com.alarmdashboard.alarm_dashboard_backend.dto;
+
+import java.util.List;
+
+/** Keyset sayfası: nextCursor null ise daha eski kayıt yok. */
+public record AlarmPage(
+        List<AlarmRow> items,
+        String nextCursor
+) {}
@@ -1,5 +1,8 @@
 package com.alarmdashboard.alarm_dashboard_backend.dto;
 
+import com.alarmdashboard.alarm_dashboard_backend.storage.TargetDictionary;
+import com.alarmdashboard.alarm_dashboard_backend.storage.TargetPath;
+
 public record AlarmRow(
         String id,
         String system,
@@ -9,4 +12,29 @@ public record AlarmRow(
         String level,
         String message,
         String createdAt
-) {}
\ No newline at end of file
+) {
+    /** target yolunu (ETP/SİSTEM/CİHAZ/NOKTA) sütunlara ayırır; yol sözlükten, bir kez ayrıştırılmış gelir. */
+    public static AlarmRow from(AlarmSlice a, TargetDictionary targets) {
+        return from(a, targets.of(a.target()));
+    }
+
+    /** Sözlüksüz: her çağrıda yolu yeniden ayrıştırır. */
+    public static AlarmRow from(AlarmSlice a) {
+        return from(a, TargetPath.parse(a.target()));
+    }
+
+    private static AlarmRow from(AlarmSlice a, TargetPath path) {
+        return new AlarmRow(
+                a.id(),
+                path.system(),
+                path.device(),
+                path.point(),
+                nz(a.location()),
+                nz(a.level()),
+                nz(a.message()),
+                a.createdAt() != null ? a.createdAt().toString() : ""
+        );
+    }
+
+    private static String nz(String s) { return s == null ? "" : s; }
+}
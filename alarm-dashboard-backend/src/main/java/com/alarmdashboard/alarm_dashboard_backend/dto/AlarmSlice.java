@@ -0,0 +1,13 @@
+package com.alarmdashboard.alarm_dashboard_backend.dto;
+
+import java.time.Instant;
+
+/** alarms tablosundan liste/geçmiş için gereken sütunlar (JPQL constructor projection). */
+public record AlarmSlice(
+        String id,
+        String target,
+        String location,
+        String level,
+        String message,
+        Instant createdAt
+) {}
@@ -7,6 +7,7 @@ import java.time.Instant;
 @Table(name = "alarms",
         indexes = {
                 @Index(name = "idx_alarms_created_at", columnList = "createdAt"),
+                @Index(name = "idx_alarms_created_id", columnList = "createdAt, id"),
                 @Index(name = "idx_alarms_target", columnList = "target")
         })
 public class AlarmEntity {
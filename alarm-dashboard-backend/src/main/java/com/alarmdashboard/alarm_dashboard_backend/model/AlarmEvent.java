@@ -1,5 +1,7 @@
 package com.alarmdashboard.alarm_dashboard_backend.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.Instant;
 
 public record AlarmEvent(
@@ -8,5 +10,16 @@ public record AlarmEvent(
         String type,      // e.g. FAN_FAILURE
         String location,  // e.g. Tunnel-3
         String message,
-        Instant timestamp
-) {}
\ No newline at end of file
+        Instant timestamp,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Instant endedAt   // yalnızca kapanış (CLEAR) olayında: id'li alarm bu anda kapandı
+) {
+    public AlarmEvent(String id, String level, String type, String location, String message, Instant timestamp) {
+        this(id, level, type, location, message, timestamp, null);
+    }
+
+    /** Aynı alarmın kapanış olayı. */
+    public AlarmEvent closedAt(Instant endedAt) {
+        return new AlarmEvent(id, level, type, location, message, timestamp, endedAt);
+    }
+}
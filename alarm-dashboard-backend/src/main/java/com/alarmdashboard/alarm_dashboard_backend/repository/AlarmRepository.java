@@ -1,14 +1,23 @@
 package com.alarmdashboard.alarm_dashboard_backend.repository;
 
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmSlice;
 import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AlarmRepository extends JpaRepository<AlarmEntity, String> {
 
@@ -19,4 +28,63 @@ public interface AlarmRepository extends JpaRepository<AlarmEntity, String> {
     List<AlarmEntity> findBetween(@Param("from") Instant from, @Param("to") Instant to);
 
     Page<AlarmEntity> findAllByOrderByCreatedAtDesc(Pageable pageable);
-}
\ No newline at end of file
+
+    /** Açık (clear gelmemiş) alarmlar, eskiden yeniye — aktif dizinin açılışta geri yüklenmesi için. */
+    @Query("select a from AlarmEntity a where a.status = 'ACTIVE' and a.createdAt >= :since order by a.createdAt asc")
+    List<AlarmEntity> findActiveSince(@Param("since") Instant since);
+
+    /** createdAt'i before'dan eski açık satırları kapatır (geri yükleme penceresinin dışında kalıp asılı kalanlar). */
+    @Transactional
+    @Modifying
+    @Query("update AlarmEntity a set a.status = 'CLEARED', a.endedAt = :endedAt where a.status = 'ACTIVE' and a.createdAt < :before")
+    int closeActiveBefore(@Param("before") Instant before, @Param("endedAt") Instant endedAt);
+
+    /** Verilen açık satırları kapatır (aynı hedefin daha yeni açık satırıyla gölgelenenler). */
+    @Transactional
+    @Modifying
+    @Query("update AlarmEntity a set a.status = 'CLEARED', a.endedAt = :endedAt where a.status = 'ACTIVE' and a.id in :ids")
+    int closeActive(@Param("ids") Collection<String> ids, @Param("endedAt") Instant endedAt);
+
+    // ---- keyset (createdAt, id) geçmiş: count sorgusu yok, offset yok ----
+    String SLICE = "select new com.alarmdashboard.alarm_dashboard_backend.dto.AlarmSlice(" +
+            "a.id, a.target, a.location, a.level, a.message, a.createdAt) from AlarmEntity a ";
+    String FILTERS = "(:level is null or a.level = :level) " +
+            "and (:location is null or a.location = :location) " +
+            "and (:target is null or a.target like :target escape '!') ";
+
+    /** İlk sayfa (en yeniler). target bir önek desenidir ("ETP/LVMV/%"). */
+    @Query(SLICE + "where " + FILTERS + "order by a.createdAt desc, a.id desc")
+    List<AlarmSlice> findHistory(@Param("level") String level,
+                                 @Param("location") String location,
+                                 @Param("target") String target,
+                                 Limit limit);
+
+    /** İmleçten (createdAt, id) daha eskiler. */
+    @Query(SLICE + "where " + FILTERS +
+            "and (a.createdAt < :beforeTs or (a.createdAt = :beforeTs and a.id < :beforeId)) " +
+            "order by a.createdAt desc, a.id desc")
+    List<AlarmSlice> findHistoryBefore(@Param("level") String level,
+                                       @Param("location") String location,
+                                       @Param("target") String target,
+                                       @Param("beforeTs") Instant beforeTs,
+                                       @Param("beforeId") String beforeId,
+                                       Limit limit);
+
+    /**
+     * Export için [from, to) aralığı, eskiden yeniye, satır satır. Açık bir (read-only) transaction
+     * içinde tüketilmeli ve kapatılmalı. MySQL'de fetch size, URL'deki useCursorFetch=true ile
+     * sunucu tarafı cursor'a dönüşür; sonuç kümesi belleğe alınmaz.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SLICE + "where " + FILTERS +
+            "and a.createdAt >= :from and a.createdAt < :to " +
+            "order by a.createdAt asc, a.id asc")
+    Stream<AlarmSlice> streamBetween(@Param("level") String level,
+                                     @Param("location") String location,
+                                     @Param("target") String target,
+                                     @Param("from") Instant from,
+                                     @Param("to") Instant to);
+}
@@ -2,25 +2,54 @@ package com.alarmdashboard.alarm_dashboard_backend.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class JwtService {
 
-    @Value("${app.jwt.secret}")
-    private String secret;
+    /** Doğrulanmış token'ın içeriği; token süresi dolana kadar önbellekte tutulur. */
+    public record Principal(String email, String role, List<GrantedAuthority> authorities, Instant expiresAt) {}
 
-    @Value("${app.jwt.expiryMinutes}")
-    private long expiryMinutes;
+    private final long expiryMinutes;
+    private final int cacheSize;
+
+    // Anahtar ve parser açılışta bir kez kurulur (ikisi de thread-safe)
+    private final SecretKey key;
+    private final JwtParser parser;
+
+    // token -> principal, erişim sıralı (LRU): dolunca en uzun süredir kullanılmayan O(1) atılır; kendi kilidiyle
+    private final Map<String, Principal> cache;
+
+    public JwtService(@Value("${app.jwt.secret}") String secret,
+                      @Value("${app.jwt.expiryMinutes}") long expiryMinutes,
+                      @Value("${app.jwt.cacheSize:1024}") int cacheSize) {
+        this.expiryMinutes = expiryMinutes;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(Math.min(cacheSize, 1024) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Principal> eldest) {
+                return size() > JwtService.this.cacheSize;
+            }
+        };
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    }
 
     public String generate(String email, String role) {
         Instant now = Instant.now();
@@ -29,14 +58,42 @@ public class JwtService {
                 .claim("role", role)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plus(Duration.ofMinutes(expiryMinutes))))
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Jws<Claims> parse(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
-                .build()
-                .parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
+    }
+
+    /**
+     * Token'ı doğrular; aynı token daha önce doğrulandıysa ve süresi dolmadıysa HMAC ve claim
+     * ayrıştırması atlanır. Geçersiz token'da parse() ile aynı istisnayı fırlatır.
+     */
+    public Principal authenticate(String token) {
+        Instant now = Instant.now();
+        Principal p;
+        synchronized (cache) {
+            p = cache.get(token);
+            if (p != null && !p.expiresAt().isAfter(now)) {
+                cache.remove(token);
+                p = null;
+            }
+        }
+        if (p != null) return p;
+
+        Claims claims = parse(token).getBody();
+        String role = (String) claims.get("role");
+        Date exp = claims.getExpiration();
+        p = new Principal(claims.getSubject(), role,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)),
+                exp != null ? exp.toInstant() : now);
+
+        if (exp != null && cacheSize > 0) {
+            synchronized (cache) {
+                cache.put(token, p);
+            }
+        }
+        return p;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,260 @@
+package com.alarmdashboard.alarm_dashboard_backend.service;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.storage.AlarmArchive;
+import com.alarmdashboard.alarm_dashboard_backend.storage.ArchivedAlarm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.integration.support.leader.LockRegistryLeaderInitiator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Devir işi: alarm.archive.age'den eski günlerin (UTC, tam gün) satırlarını alarms tablosundan
+ * {@link AlarmArchive}'e taşır. Gün gün: satırlar (created_at, id) sırasıyla akıtılıp segmente yazılır,
+ * dosya diske zorlanıp yerine konduktan sonra tablodan parça parça silinir. Hâlâ açık (status ACTIVE)
+ * alarmlar tabloda kalır, kapandıktan sonraki turda aynı güne eklenir. Açıklık bellekteki yaşam döngüsü
+ * indeksinden değil tablodan okunur: indeks boş olabilir (lifecycle kapalı, restore başarısız, yeni lider).
+ * Okuma ile silme arasında kapanan satır arşivde yoktur; silme, okumadan önce açık olan satırların
+ * arasındaki (created_at, id) aralıklarıyla yapılır, onlara dokunmaz.
+ * Yazım ile silme arasında çökerse bir sonraki tur aynı satırları yeniden birleştirir (id ile tekil).
+ * Kümede yalnızca lider düğüm çalıştırır; dir tüm düğümlerce paylaşılan bir birim olmalıdır.
+ */
+@Component
+public class AlarmArchiver implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(AlarmArchiver.class);
+
+    private static final String SELECT_DAY =
+            "select id, level, type, location, message, target, priority, status, created_at, ended_at " +
+            "from alarms where created_at >= ? and created_at < ? and status <> 'ACTIVE' order by created_at asc, id asc";
+    private static final String SELECT_OPEN =
+            "select created_at, id from alarms where created_at >= ? and created_at < ? and status = 'ACTIVE' " +
+            "order by created_at asc, id asc";
+    private static final int FETCH_SIZE = 500;
+    private static final int DELETE_CHUNK = 5_000;
+
+    // AlarmBatchWriter ile aynı: Instant'lar UTC yazılır
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbc;
+    private final AlarmArchive archive;
+    private final AlarmProps.Archive props;
+    private final ObjectProvider<LockRegistryLeaderInitiator> leader;
+
+    private final Counter moved;
+    private final Timer rollover;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public AlarmArchiver(JdbcTemplate jdbc, AlarmArchive archive, AlarmProps props,
+                         ObjectProvider<LockRegistryLeaderInitiator> leader, MeterRegistry registry) {
+        this.jdbc = jdbc;
+        this.archive = archive;
+        this.props = props.archive();
+        this.leader = leader;
+
+        this.moved = Counter.builder("alarm.archive.moved")
+                .description("Tablodan arşive taşınan satırlar")
+                .register(registry);
+        this.rollover = Timer.builder("alarm.archive.rollover")
+                .description("Bir devir turunun süresi")
+                .register(registry);
+        Gauge.builder("alarm.archive.partitions", archive, AlarmArchive::partitions).register(registry);
+        Gauge.builder("alarm.archive.rows", archive, AlarmArchive::rows).register(registry);
+        Gauge.builder("alarm.archive.bytes", archive, AlarmArchive::bytes).register(registry);
+    }
+
+    /** Bir devir turu; taşınan satır sayısını döner. */
+    public long runOnce() {
+        LockRegistryLeaderInitiator l = leader.getIfAvailable();
+        if (l != null && !l.getContext().isLeader()) return 0;
+
+        long t0 = System.nanoTime();
+        LocalDate cutoff = LocalDate.ofInstant(Instant.now().minus(props.age()), ZoneOffset.UTC);
+        long total = 0;
+        try {
+            LocalDate day = oldestDayBefore(cutoff);
+            while (day != null && running) {
+                total += archiveDay(day);
+                day = oldestDayBefore(cutoff, day.plusDays(1));
+            }
+        } catch (Exception ex) {
+            log.warn("Archive rollover stopped: {}", ex.toString());
+        }
+        rollover.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        if (total > 0) {
+            log.info("Archived {} rows older than {} in {} ms", total, cutoff,
+                    Duration.ofNanos(System.nanoTime() - t0).toMillis());
+        }
+        return total;
+    }
+
+    private LocalDate oldestDayBefore(LocalDate cutoff) {
+        return oldestDayBefore(cutoff, null);
+    }
+
+    /** [from, cutoff) arasında satırı olan en eski gün; yoksa null. */
+    private LocalDate oldestDayBefore(LocalDate cutoff, LocalDate from) {
+        String sql = "select min(created_at) from alarms where created_at < ?" + (from == null ? "" : " and created_at >= ?");
+        List<Timestamp> min = jdbc.query(sql, ps -> {
+            ps.setTimestamp(1, ts(startOf(cutoff)), utc());
+            if (from != null) ps.setTimestamp(2, ts(startOf(from)), utc());
+        }, (rs, i) -> rs.getTimestamp(1, utc()));
+        Timestamp t = min.isEmpty() ? null : min.get(0);
+        return t == null ? null : LocalDate.ofInstant(t.toInstant(), ZoneOffset.UTC);
+    }
+
+    /** Açık satırın sıra anahtarı; silme aralıklarının sınırı. */
+    private record Key(Timestamp createdAt, String id) {}
+
+    private long archiveDay(LocalDate day) throws Exception {
+        Instant from = startOf(day), to = startOf(day.plusDays(1));
+        // Önce açıklar: bu okumadan sonra kapanan satır aşağıdaki taramada olmasa da silinmez
+        List<Key> open = jdbc.query(SELECT_OPEN, ps -> {
+            ps.setTimestamp(1, ts(from), utc());
+            ps.setTimestamp(2, ts(to), utc());
+        }, (rs, i) -> new Key(rs.getTimestamp(1, utc()), rs.getString(2)));
+        long[] count = {0};
+
+        try (Stream<ArchivedAlarm> rows = jdbc.queryForStream(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_DAY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setTimestamp(1, ts(from), utc());
+            ps.setTimestamp(2, ts(to), utc());
+            return ps;
+        }, ROW)) {
+            Iterator<ArchivedAlarm> closed = rows.peek(a -> count[0]++).iterator();
+            archive.append(day, closed);
+        }
+        if (count[0] == 0) return 0;
+
+        // Segment diskte: açık satırların arasındaki aralıkları parça parça sil (sorgu başına en çok 6 parametre)
+        long deleted = 0;
+        for (int i = 0; i <= open.size() && running; i++) {
+            deleted += deleteBetween(from, to, i == 0 ? null : open.get(i - 1), i == open.size() ? null : open.get(i));
+        }
+
+        moved.increment(count[0]);
+        log.debug("Archived day={} rows={} deleted={} keptOpen={}", day, count[0], deleted, open.size());
+        return count[0];
+    }
+
+    /** Gün içinde lo ile hi arasındaki (ikisi de hariç; null: gün sınırı) kapanmış satırları siler. */
+    private long deleteBetween(Instant from, Instant to, Key lo, Key hi) {
+        String sql = "delete from alarms where created_at >= ? and created_at " + (hi == null ? "<" : "<=") + " ?"
+                + " and status <> 'ACTIVE'"
+                + (lo == null ? "" : " and (created_at > ? or id > ?)")
+                + (hi == null ? "" : " and (created_at < ? or id < ?)")
+                + " limit " + DELETE_CHUNK;
+        long deleted = 0;
+        int n;
+        do {
+            n = jdbc.update(sql, ps -> {
+                int k = 1;
+                if (lo == null) ps.setTimestamp(k++, ts(from), utc());
+                else ps.setTimestamp(k++, lo.createdAt(), utc());
+                if (hi == null) ps.setTimestamp(k++, ts(to), utc());
+                else ps.setTimestamp(k++, hi.createdAt(), utc());
+                if (lo != null) {
+                    ps.setTimestamp(k++, lo.createdAt(), utc());
+                    ps.setString(k++, lo.id());
+                }
+                if (hi != null) {
+                    ps.setTimestamp(k++, hi.createdAt(), utc());
+                    ps.setString(k, hi.id());
+                }
+            });
+            deleted += n;
+        } while (n == DELETE_CHUNK && running);
+        return deleted;
+    }
+
+    private static final RowMapper<ArchivedAlarm> ROW = (ResultSet rs, int i) -> {
+        int priority = rs.getInt("priority");
+        Integer p = rs.wasNull() ? null : priority;
+        Timestamp ended = rs.getTimestamp("ended_at", utc());
+        return new ArchivedAlarm(
+                rs.getString("id"),
+                rs.getString("level"),
+                rs.getString("type"),
+                rs.getString("location"),
+                rs.getString("message"),
+                rs.getString("target"),
+                p,
+                rs.getString("status"),
+                rs.getTimestamp("created_at", utc()).toInstant(),
+                ended == null ? null : ended.toInstant());
+    };
+
+    private static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static Timestamp ts(Instant t) {
+        return Timestamp.from(t);
+    }
+
+    private static Calendar utc() {
+        return Calendar.getInstance(UTC);
+    }
+
+    // ---------- lifecycle ----------
+    @Override
+    public void start() {
+        if (!props.enabled()) return;
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alarm-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMs = props.interval().toMillis();
+        // açılıştan bir dakika sonra ilk tur; ingest önce ısınsın
+        scheduler.scheduleWithFixedDelay(this::runSafely, Math.min(60_000, periodMs), periodMs, TimeUnit.MILLISECONDS);
+        log.info("Archive rollover every {} for rows older than {} -> {}", props.interval(), props.age(), props.dir());
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+        } catch (RuntimeException ex) {
+            log.warn("Archive rollover failed: {}", ex.toString());
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,392 @@
+package com.alarmdashboard.alarm_dashboard_backend.service;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEntity;
+import com.alarmdashboard.alarm_dashboard_backend.storage.AlarmJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind kalıcılık: ingest thread'i kaydı sınırlı kuyruğa bırakır,
+ * tek bir yazıcı thread kuyruğu boyut/süre eşiğine göre JDBC batch ile boşaltır.
+ * Yazım upsert'tür: aynı id ikinci kez gelirse (repeat/clear) satır güncellenir, created_at korunur.
+ * Tek thread + FIFO kuyruk olduğundan (kuyruk dolup çağıran thread'de yazılmadıkça) bir satırın
+ * güncellemesi insert'inden önce yazılmaz. Kapanmış (CLEARED) satır geri açılmaz; yeniden ya da
+ * sırasız yazılan eski kayıt sonucu değiştirmez.
+ *
+ * <p>alarm.journal.enabled ise kuyruk yerine {@link AlarmJournal} kullanılır: submit yalnızca günlüğe
+ * ekler, yazıcı thread günlükten okur. DB'ye ulaşılamazken batch elde tutulup artan aralıklarla
+ * (en çok retryBackoff) yeniden denenir; ingest etkilenmez, günlük büyür. Açılışta önceki çalışmadan
+ * kalan kayıtlar, aktif dizin DB'den yüklenmeden önce yazılır. Günlük doluyken reddedilen kayıtlar atılır
+ * (alarm.persist.dropped, loglanır); kapanışlar atılmaz, bellekteki kuyruğa alınıp günlükten önce yazılır.
+ */
+@Component
+public class AlarmBatchWriter implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(AlarmBatchWriter.class);
+
+    /*
+     * Her iki yolun (kuyruk ve günlük) upsert'ü. CLEARED satırın sütunları korunur: günlük tekrarında aynı
+     * kaydın yeniden yazılması, DROP_OLDEST/CALLER_RUNS ile çağıran thread'de öne geçen kapanıştan sonra
+     * gelen eski ACTIVE kaydı, kapanmış satırı geri açmaz. Bu kuyruk yolunda da davranış değişikliğidir:
+     * önceden son yazılan kazanırdı; kapanmış bir id'ye sonradan gelen ACTIVE yazımı artık yok sayılır
+     * (yeniden açılan alarm zaten yeni id ile gelir).
+     */
+    static final String UPSERT_SQL =
+            "insert into alarms (id, level, type, location, message, target, priority, status, created_at, ended_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "on duplicate key update " +
+            "level = " + unlessCleared("level") + ", type = " + unlessCleared("type") + ", " +
+            "location = " + unlessCleared("location") + ", message = " + unlessCleared("message") + ", " +
+            "priority = " + unlessCleared("priority") + ", ended_at = " + unlessCleared("ended_at") + ", " +
+            // status en sonda: MySQL atamaları soldan sağa uygular, öncekiler eski status'u görmeli
+            "status = " + unlessCleared("status");
+
+    private static String unlessCleared(String col) {
+        return "case when status = 'CLEARED' then " + col + " else values(" + col + ") end";
+    }
+
+    // hibernate.jdbc.time_zone=UTC ile aynı: Instant'lar UTC yazılır
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbc;
+    private final AlarmProps.Persist props;
+    private final BlockingQueue<AlarmEntity> queue;
+    private final AlarmJournal journal;     // null: günlük kapalı
+    private final long maxBackoffNanos;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter dropped;
+    private final Counter callerRuns;
+    private final Counter failed;
+    private final Counter retries;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AlarmBatchWriter(JdbcTemplate jdbc, AlarmProps props, AlarmJournal journal, MeterRegistry registry) {
+        this.jdbc = jdbc;
+        this.props = props.persist();
+        this.queue = new ArrayBlockingQueue<>(this.props.queueCapacity());
+        this.journal = journal.enabled() ? journal : null;
+        this.maxBackoffNanos = props.journal().retryBackoff().toNanos();
+
+        Gauge.builder("alarm.persist.queue.depth", queue, BlockingQueue::size)
+                .description("Yazılmayı bekleyen alarm sayısı")
+                .register(registry);
+        this.flushTimer = Timer.builder("alarm.persist.flush")
+                .description("Bir batch'in DB'ye yazılma süresi")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("alarm.persist.batch.size").register(registry);
+        this.dropped    = Counter.builder("alarm.persist.dropped").register(registry);
+        this.callerRuns = Counter.builder("alarm.persist.caller.runs").register(registry);
+        this.failed     = Counter.builder("alarm.persist.failed").register(registry);
+        this.retries    = Counter.builder("alarm.persist.retries")
+                .description("DB'ye ulaşılamadığı için ertelenen batch'ler")
+                .register(registry);
+    }
+
+    /** Kaydı yazma kuyruğuna bırakır; kuyruk doluysa backpressure politikası uygulanır. */
+    public void submit(AlarmEntity e) {
+        if (journal != null) {
+            if (journal.append(e)) return;
+            // Günlük dolu/kapalı: kapanış bellekteki kuyruğa (yazıcı günlükten önce yazar), yer yoksa hemen
+            if (closes(e)) {
+                if (!queue.offer(e)) callerRuns(e);
+                return;
+            }
+            dropped.increment();
+            long n = (long) dropped.count();
+            if (n == 1 || n % 1000 == 0) log.warn("Journal rejected id={}, {} rows dropped so far", e.getId(), n);
+            return;
+        }
+        if (queue.offer(e)) return;
+
+        switch (props.backpressure()) {
+            // Kapanışlar atılmaz: satır ACTIVE kalır ve bir daha kapanmazdı; çağıran thread'de yazılır
+            case DROP_NEWEST -> {
+                if (closes(e)) {
+                    callerRuns(e);
+                    return;
+                }
+                dropped.increment();
+                log.warn("Persist queue full, dropped id={}", e.getId());
+            }
+            case DROP_OLDEST -> {
+                AlarmEntity old = queue.poll();
+                if (old != null) {
+                    if (closes(old)) callerRuns(old);
+                    else dropped.increment();
+                }
+                if (!queue.offer(e)) callerRuns(e);
+            }
+            case CALLER_RUNS -> callerRuns(e);
+            default -> {
+                try {
+                    if (queue.offer(e, props.offerTimeout().toMillis(), TimeUnit.MILLISECONDS)) return;
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+                callerRuns(e);
+            }
+        }
+    }
+
+    private static boolean closes(AlarmEntity e) {
+        return AlarmLifecycle.CLEARED.equals(e.getStatus());
+    }
+
+    private void callerRuns(AlarmEntity e) {
+        callerRuns.increment();
+        writeNow(e);
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    // ---------- writer loop ----------
+    private void runLoop() {
+        int batchSize = props.batchSize();
+        long flushNanos = props.flushInterval().toNanos();
+        List<AlarmEntity> batch = new ArrayList<>(batchSize);
+        boolean interrupted = false;
+
+        while (running || !queue.isEmpty()) {
+            try {
+                AlarmEntity first = queue.poll(flushNanos, TimeUnit.NANOSECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // boyut ya da süre dolana kadar topla
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) continue;
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0 || !running) break;
+                    AlarmEntity next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException ie) {
+                // stop() kesmez; beklenmedik bir kesme yazıcıyı durdurmasın, toplanan batch yine yazılır
+                interrupted = true;
+            }
+            try {
+                if (!batch.isEmpty()) flush(batch);
+            } catch (InterruptedException ie) {
+                interrupted = true;
+            } catch (Exception ex) {
+                log.error("Alarm writer loop error", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // ---------- günlükten yazım ----------
+    private void runJournalLoop() {
+        int batchSize = props.batchSize();
+        long flushNanos = props.flushInterval().toNanos();
+        List<AlarmEntity> batch = new ArrayList<>(batchSize);
+        boolean fromQueue = false;
+        long backoff = 0;
+        boolean interrupted = false;
+
+        while (running || journal.hasUnread() || !batch.isEmpty() || !queue.isEmpty()) {
+            try {
+                // başarısız batch elde kalır, aynısı yeniden denenir; günlüğün reddettiği kapanışlar önce
+                if (batch.isEmpty()) {
+                    fromQueue = queue.drainTo(batch, batchSize) > 0;
+                    if (!fromQueue) journal.poll(batch, batchSize, flushNanos);
+                }
+                if (batch.isEmpty()) continue;
+                if (persist(batch)) {
+                    if (!fromQueue) journal.commit();
+                    batch.clear();
+                    if (backoff > 0) log.info("Database reachable again, replaying journal ({} bytes behind)", journal.pending());
+                    backoff = 0;
+                    continue;
+                }
+                if (!running) break;   // kalanlar bir sonraki açılışta
+                if (backoff == 0) log.warn("Database unavailable, journaling ingest ({} bytes behind)", journal.pending());
+                retries.increment();
+                backoff = Math.min(maxBackoffNanos, Math.max(flushNanos, backoff * 2));
+                TimeUnit.NANOSECONDS.sleep(backoff);
+            } catch (InterruptedException ie) {
+                // stop() kesmez; kesme yazıcıyı durdurmasın, günlük okunmaya devam eder
+                interrupted = true;
+            } catch (Exception ex) {
+                log.error("Alarm journal writer loop error", ex);
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Batch'i yazar; DB'ye ulaşılamıyorsa false (hiçbiri kaybolmaz, çağıran aynı batch'i tekrar dener).
+     * Satırın kendisinden kaynaklanan hatada batch satır satır denenir, hatalı satırlar atlanır.
+     */
+    private boolean persist(List<AlarmEntity> batch) {
+        batchSizes.record(batch.size());
+        try {
+            flushTimer.record(() -> jdbc.batchUpdate(UPSERT_SQL, batch, batch.size(), AlarmBatchWriter::bind));
+            return true;
+        } catch (DataAccessException ex) {
+            if (unavailable(ex)) return false;
+            log.warn("Batch insert failed ({} rows), retrying row by row: {}", batch.size(), ex.getMessage());
+        }
+        for (AlarmEntity e : batch) {
+            try {
+                jdbc.update(UPSERT_SQL, ps -> bind(ps, e));
+            } catch (DataAccessException ex) {
+                if (unavailable(ex)) return false;
+                failed.increment();
+                log.error("Alarm insert failed id={}: {}", e.getId(), ex.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bağlantı/kaynak ya da geçici hata mı (yeniden denemeye değer), yoksa satırın kendisi mi hatalı.
+     * Geçici: kilit bekleme/deadlock (CannotAcquireLockException), zaman aşımı, geçici kaynak hatası.
+     */
+    private static boolean unavailable(DataAccessException ex) {
+        return ex instanceof DataAccessResourceFailureException
+                || ex instanceof TransientDataAccessException
+                || ex instanceof RecoverableDataAccessException;
+    }
+
+    /** Önceki çalışmadan kalan kayıtları, DB ulaşılabildiği sürece şimdi yazar. */
+    private void replayPending() {
+        if (!journal.hasUnread()) return;
+        long t0 = System.nanoTime();
+        long bytes = journal.pending();
+        List<AlarmEntity> batch = new ArrayList<>(props.batchSize());
+        try {
+            while (journal.hasUnread()) {
+                journal.poll(batch, props.batchSize(), 0);
+                if (!persist(batch)) {
+                    log.warn("Journal replay deferred, database unavailable ({} bytes behind)", journal.pending());
+                    return;
+                }
+                journal.commit();
+                batch.clear();
+            }
+            log.info("Replayed {} journal bytes in {} ms", bytes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Kuyruk yolunun yazımı: DB'ye ulaşılamıyorsa batch'in tamamı artan aralıklarla (en çok retryBackoff)
+     * yeniden denenir, bu sırada kuyruk dolarsa backpressure politikası işler. Yalnızca satırın kendisinden
+     * kaynaklanan hatalar satır satır denenip atlanır. Kapanışta DB hâlâ yoksa batch kaybedilir.
+     */
+    private void flush(List<AlarmEntity> batch) throws InterruptedException {
+        long backoff = 0;
+        while (!persist(batch)) {
+            if (!running) {
+                failed.increment(batch.size());
+                log.error("Database unavailable at shutdown, {} alarm rows not persisted", batch.size());
+                return;
+            }
+            if (backoff == 0) log.warn("Database unavailable, holding {} rows (queue depth {})", batch.size(), queue.size());
+            retries.increment();
+            backoff = Math.min(maxBackoffNanos, Math.max(props.flushInterval().toNanos(), backoff * 2));
+            TimeUnit.NANOSECONDS.sleep(backoff);
+        }
+        if (backoff > 0) log.info("Database reachable again, writer resumed");
+    }
+
+    private void writeNow(AlarmEntity e) {
+        try {
+            jdbc.update(UPSERT_SQL, ps -> bind(ps, e));
+        } catch (DataAccessException ex) {
+            failed.increment();
+            log.error("Alarm insert failed id={}: {}", e.getId(), ex.getMessage());
+        }
+    }
+
+    private static void bind(PreparedStatement ps, AlarmEntity e) throws SQLException {
+        ps.setString(1, e.getId());
+        ps.setString(2, e.getLevel());
+        ps.setString(3, e.getType());
+        ps.setString(4, e.getLocation());
+        ps.setString(5, e.getMessage());
+        ps.setString(6, e.getTarget());
+        if (e.getPriority() != null) ps.setInt(7, e.getPriority()); else ps.setNull(7, Types.INTEGER);
+        ps.setString(8, e.getStatus());
+        setInstant(ps, 9, e.getCreatedAt());
+        setInstant(ps, 10, e.getEndedAt());
+    }
+
+    private static void setInstant(PreparedStatement ps, int idx, Instant t) throws SQLException {
+        if (t == null) ps.setNull(idx, Types.TIMESTAMP);
+        else ps.setTimestamp(idx, Timestamp.from(t), Calendar.getInstance(UTC));
+    }
+
+    // ---------- lifecycle ----------
+    @Override
+    public void start() {
+        running = true;
+        if (journal != null) replayPending();
+        worker = new Thread(journal != null ? this::runJournalLoop : this::runLoop, "alarm-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread w = worker;
+        if (w == null) return;
+        try {
+            w.join(5_000);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) log.warn("Alarm writer stopped with {} pending rows", queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // MQTT adapter'ından önce başlar, sonra durur; kuyruk kapanışta boşaltılabilir.
+        // AlarmLifecycle'dan önce: günlükte kalanlar aktif dizin yüklenmeden yazılır
+        return Integer.MIN_VALUE + 1000;
+    }
+}
@@ -0,0 +1,109 @@
+package com.alarmdashboard.alarm_dashboard_backend.service;
+
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmFilter;
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmRow;
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmSlice;
+import com.alarmdashboard.alarm_dashboard_backend.repository.AlarmRepository;
+import com.alarmdashboard.alarm_dashboard_backend.storage.AlarmArchive;
+import com.alarmdashboard.alarm_dashboard_backend.storage.TargetDictionary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Geçmişi akış halinde dışa aktarır: satırlar DB cursor'ından okunup hemen yazılır,
+ * aralık ne kadar büyük olursa olsun bellekte liste oluşmaz. Aralık arşivlenmiş günlere uzanıyorsa
+ * arşiv segmentleri (blok blok) sıcak tabloyla zaman sırasında birleştirilir.
+ */
+@Service
+public class AlarmExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "id,system,device,point,location,level,message,createdAt\n";
+
+    private final AlarmRepository repo;
+    private final TargetDictionary targets;
+    private final AlarmArchive archive;
+    private final ObjectWriter rowWriter;
+
+    public AlarmExportService(AlarmRepository repo, TargetDictionary targets, AlarmArchive archive, ObjectMapper om) {
+        this.repo = repo;
+        this.targets = targets;
+        this.archive = archive;
+        this.rowWriter = om.writerFor(AlarmRow.class);
+    }
+
+    /** Yazılan satır sayısını döner. out kapatılmaz. */
+    @Transactional(readOnly = true)
+    public long export(AlarmFilter f, Instant from, Instant to, Format format, OutputStream out) throws IOException {
+        try (Stream<AlarmSlice> rows = repo.streamBetween(f.level(), f.location(), f.target(), from, to);
+             AlarmArchive.Scan cold = archive.overlaps(from, to) ? archive.scan(f, from, to) : null) {
+            Iterator<AlarmSlice> it = cold == null ? rows.iterator() : AlarmArchive.oldestFirst(cold, rows.iterator());
+            return format == Format.CSV ? writeCsv(it, out) : writeNdjson(it, out);
+        }
+    }
+
+    private long writeNdjson(Iterator<AlarmSlice> rows, OutputStream out) throws IOException {
+        long n = 0;
+        try (JsonGenerator gen = rowWriter.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (rows.hasNext()) {
+                rowWriter.writeValue(gen, AlarmRow.from(rows.next(), targets));
+                gen.writeRaw('\n');
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private long writeCsv(Iterator<AlarmSlice> rows, OutputStream out) throws IOException {
+        long n = 0;
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write(CSV_HEADER);
+        while (rows.hasNext()) {
+            AlarmRow r = AlarmRow.from(rows.next(), targets);
+            csv(w, r.id()).write(',');
+            csv(w, r.system()).write(',');
+            csv(w, r.device()).write(',');
+            csv(w, r.point()).write(',');
+            csv(w, r.location()).write(',');
+            csv(w, r.level()).write(',');
+            csv(w, r.message()).write(',');
+            csv(w, r.createdAt()).write('\n');
+            n++;
+        }
+        w.flush();
+        return n;
+    }
+
+    /** RFC 4180: ayraç/tırnak/satır sonu içeren alan tırnaklanır, içteki tırnak çiftlenir. */
+    private static Writer csv(Writer w, String v) throws IOException {
+        if (v == null) return w;
+        boolean quote = false;
+        for (int i = 0; i < v.length() && !quote; i++) {
+            char c = v.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            w.write(v);
+        } else {
+            w.write('"');
+            w.write(v.replace("\"", "\"\""));
+            w.write('"');
+        }
+        return w;
+    }
+}
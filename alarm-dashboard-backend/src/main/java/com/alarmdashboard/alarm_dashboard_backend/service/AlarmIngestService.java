@@ -2,39 +2,132 @@ package com.alarmdashboard.alarm_dashboard_backend.service;
 
 import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEntity;
 import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
-import com.alarmdashboard.alarm_dashboard_backend.repository.AlarmRepository;
+import com.alarmdashboard.alarm_dashboard_backend.ws.AlarmPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class AlarmIngestService {
     private static final Logger log = LoggerFactory.getLogger(AlarmIngestService.class);
 
-    private final AlarmRepository repo;
-    private final SimpMessageSendingOperations messaging;
+    private final AlarmBatchWriter writer;
+    private final AlarmPublisher publisher;
+    private final AlarmLifecycle lifecycle;
+    private final FlapFilter flaps;
 
-    public AlarmIngestService(AlarmRepository repo,
-                              SimpMessageSendingOperations messaging) {
-        this.repo = repo;
-        this.messaging = messaging;
+    // her DEBUG_SAMPLE yayından biri loglanır (DEBUG açıksa)
+    private static final int DEBUG_SAMPLE = 100;
+    private final AtomicLong sent = new AtomicLong();
+
+    private final Timer arrivalToBroadcast;
+    private final Map<AlarmLifecycle.Transition, Counter> transitions =
+            new EnumMap<>(AlarmLifecycle.Transition.class);
+
+    public AlarmIngestService(AlarmBatchWriter writer,
+                              AlarmPublisher publisher,
+                              AlarmLifecycle lifecycle,
+                              FlapFilter flaps,
+                              MeterRegistry registry) {
+        this.writer = writer;
+        this.publisher = publisher;
+        this.lifecycle = lifecycle;
+        this.flaps = flaps;
+
+        this.arrivalToBroadcast = Timer.builder("alarm.ingest.latency")
+                .description("MQTT varışından (event timestamp) WS yayınının bitişine kadar; flap filtresinde bekletilenler hariç")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        for (AlarmLifecycle.Transition t : AlarmLifecycle.Transition.values()) {
+            transitions.put(t, Counter.builder("alarm.ingest.transitions")
+                    .tag("transition", t.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    /** Filtreden geçenler buraya gelir; kurucu bitmeden this dışarı verilmesin diye kurulum sonrası bağlanır. */
+    @PostConstruct
+    void bindFlapFilter() {
+        flaps.onRelease(this::process);
     }
 
-    @Transactional
     public void ingest(AlarmEvent evt) {
-        // 1) DB'ye yaz
-        repo.save(map(evt));
+        ingest(evt, false);
+    }
+
+    /** clear=true: kaynak alarmın kapandığını bildirdi. */
+    public void ingest(AlarmEvent evt, boolean clear) {
+        // Kalıcılık/yayından önce hedef başına tekrar filtresi; geçenler process()'e gelir
+        if (flaps.enabled()) {
+            flaps.submit(AlarmLifecycle.targetOf(evt.id()), evt, clear);
+        } else {
+            process(evt, clear, 0, false);
+        }
+    }
+
+    /**
+     * suppressed > 0: bu olaydan önce aynı hedefin o kadar olayı filtrede birleştirildi.
+     * released: olay filtrede bekletildi; varış anı holdOff kadar geride, gecikme ölçümüne girmez.
+     */
+    private void process(AlarmEvent evt, boolean clear, int suppressed, boolean released) {
+        if (!lifecycle.enabled()) {
+            if (clear) return;
+            raise(evt, !released);
+            if (suppressed > 0) publisher.flapped(evt, false, suppressed);
+            return;
+        }
 
-        // 2) CANLI WS yayını
-        messaging.convertAndSend("/topic/alarms", evt);
-        log.info("WS -> /topic/alarms id={} level={} msg={}", evt.id(), evt.level(), evt.message());
+        AlarmLifecycle.Change c = lifecycle.apply(evt, clear);
+        transitions.get(c.transition()).increment();
+        if (suppressed > 0 && c.event() != null) publisher.flapped(c.event(), clear, suppressed);
+        switch (c.transition()) {
+            case RAISE -> raise(c.event(), !released);
+            // Tekrar: yeni satır yok; içerik (seviye/mesaj) değiştiyse satır güncellenir ve aynı id ile
+            // yeniden yayınlanır (istemci satırı yerinde günceller). timestamp raise anı: gecikmeye girmez.
+            // Diğer düğümler her tekrarı alır: aktif dizinlerinde seviye/sayaç/lastSeen liderle aynı kalır
+            case REPEAT -> {
+                if (c.changed()) writer.submit(map(c.event(), AlarmLifecycle.ACTIVE, null));
+                Instant seenAt = evt.timestamp() != null ? evt.timestamp() : Instant.now();
+                publisher.repeated(c.event(), c.changed(), seenAt, c.count());
+            }
+            case CLEAR -> {
+                writer.submit(map(c.event(), AlarmLifecycle.CLEARED, c.endedAt()));
+                publisher.cleared(c.event(), c.endedAt());
+            }
+            case IGNORED -> log.debug("Clear without active alarm id={}", evt.id());
+        }
+    }
+
+    private void raise(AlarmEvent evt, boolean measured) {
+        // 1) DB'ye yazılmak üzere kuyruğa bırak (write-behind, yayını bekletmez)
+        writer.submit(map(evt, AlarmLifecycle.ACTIVE, null));
+
+        // 2) Bellekteki son alarmlar (snapshot/summary, WS bootstrap) + CANLI WS yayını;
+        //    küme modunda diğer düğümler de aynısını kendi istemcilerine yapar
+        publisher.publish(evt);
+        if (measured && evt.timestamp() != null) {
+            arrivalToBroadcast.record(Duration.between(evt.timestamp(), Instant.now()));
+        }
+        if (log.isDebugEnabled() && sent.getAndIncrement() % DEBUG_SAMPLE == 0) {
+            log.debug("WS -> /topic/alarms id={} level={} msg={} (1/{} sampled)",
+                    evt.id(), evt.level(), evt.message(), DEBUG_SAMPLE);
+        }
     }
 
-    private AlarmEntity map(AlarmEvent evt) {
+    private AlarmEntity map(AlarmEvent evt, String status, Instant endedAt) {
         AlarmEntity e = new AlarmEntity();
         e.setId(evt.id());
         e.setLevel(nz(evt.level(), "INFO"));
@@ -44,7 +137,8 @@ public class AlarmIngestService {
 
         e.setTarget(extractTargetFromId(evt.id()));
         e.setPriority(priorityFromLevel(evt.level()));
-        e.setStatus("ACTIVE");
+        e.setStatus(status);
+        e.setEndedAt(endedAt);
 
         // createdAt: payload timestamp; boşsa now
         e.setCreatedAt(evt.timestamp() != null ? evt.timestamp() : Instant.now());
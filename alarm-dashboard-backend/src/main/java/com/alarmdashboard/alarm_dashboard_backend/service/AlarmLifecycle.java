@@ -0,0 +1,214 @@
+package com.alarmdashboard.alarm_dashboard_backend.service;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.dto.ActiveAlarm;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEntity;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import com.alarmdashboard.alarm_dashboard_backend.repository.AlarmRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aktif alarm dizini: normalize hedef -> açık alarm. Gelen her olay raise / repeat / clear
+ * geçişine çevrilir. Tekrarlar yeni satır açmaz (ilk raise'in id'si korunur), clear satırı
+ * kapatır. Güncel aktif liste DB'ye gitmeden buradan okunur.
+ * Açılışta son restoreWindow içindeki ACTIVE satırlar DB'den geri yüklenir; pencereden eski ya da aynı
+ * hedefin daha yeni satırıyla gölgelenen ACTIVE satırlar kapatılır.
+ */
+@Component
+public class AlarmLifecycle implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(AlarmLifecycle.class);
+
+    public static final String ACTIVE  = "ACTIVE";
+    public static final String CLEARED = "CLEARED";
+
+    public enum Transition { RAISE, REPEAT, CLEAR, IGNORED }
+
+    /**
+     * Bir olayın sonucu. event kanonik haldedir: id = açık satırın id'si, timestamp = raise anı,
+     * level/message en son gelen. changed: REPEAT'te satıra yansıtılacak bir fark var mı.
+     */
+    public record Change(Transition transition, AlarmEvent event, Instant endedAt, long count, boolean changed) {
+        static final Change IGNORED_CHANGE = new Change(Transition.IGNORED, null, null, 0, false);
+    }
+
+    /** Açık alarm; yalnızca compute() içinde değişir, okuyucular volatile alanlardan okur. */
+    private static final class Active {
+        final String id;
+        final String target;
+        final Instant raisedAt;
+        volatile AlarmEvent last;
+        volatile Instant lastSeen;
+        volatile long count;
+
+        Active(String id, String target, Instant raisedAt, AlarmEvent last) {
+            this.id = id;
+            this.target = target;
+            this.raisedAt = raisedAt;
+            this.last = last;
+            this.lastSeen = raisedAt;
+            this.count = 1;
+        }
+
+        ActiveAlarm view() {
+            AlarmEvent e = last;
+            return new ActiveAlarm(id, target, e.level(), e.type(), e.location(), e.message(),
+                    raisedAt, lastSeen, count);
+        }
+    }
+
+    private final AlarmRepository repo;
+    private final AlarmProps.Lifecycle props;
+    private final Map<String, Active> active = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public AlarmLifecycle(AlarmRepository repo, AlarmProps props) {
+        this.repo = repo;
+        this.props = props.lifecycle();
+    }
+
+    public boolean enabled() {
+        return props.enabled();
+    }
+
+    /** Olayı aktif dizine uygular; aynı hedef için çağrılar sıralı kabul edilir (compute ile atomik). */
+    public Change apply(AlarmEvent evt, boolean clear) {
+        String key = targetOf(evt.id());
+        Instant at = evt.timestamp() != null ? evt.timestamp() : Instant.now();
+        Change[] out = { Change.IGNORED_CHANGE };
+
+        active.compute(key, (k, cur) -> {
+            if (clear) {
+                if (cur == null) return null;   // açık alarm yok: bayat clear
+                out[0] = new Change(Transition.CLEAR, cur.last, at, cur.count, true);
+                return null;
+            }
+            if (cur == null) {
+                AlarmEvent first = withId(evt, k + "@" + at, at);
+                out[0] = new Change(Transition.RAISE, first, null, 1, true);
+                return new Active(first.id(), k, at, first);
+            }
+            AlarmEvent next = withId(evt, cur.id, cur.raisedAt);
+            boolean changed = !sameContent(cur.last, next);
+            cur.last = next;
+            cur.lastSeen = at;
+            cur.count++;
+            out[0] = new Change(Transition.REPEAT, next, null, cur.count, changed);
+            return cur;
+        });
+        return out[0];
+    }
+
+    /**
+     * Başka düğümde (lider) işlenmiş tekrar: kanonik olay, geliş anı ve sayaç olduğu gibi alınır.
+     * Bu düğüm raise'i kaçırdıysa (ya da hedefin eski satırı açık kaldıysa) liderin satırı benimsenir.
+     * Bu düğümün gördüğü içerik değiştiyse true.
+     */
+    public boolean mirror(AlarmEvent canonical, Instant seenAt, long count) {
+        boolean[] changed = { false };
+        active.compute(targetOf(canonical.id()), (k, cur) -> {
+            if (cur == null || !cur.id.equals(canonical.id())) {
+                Instant raisedAt = canonical.timestamp() != null ? canonical.timestamp() : seenAt;
+                cur = new Active(canonical.id(), k, raisedAt, canonical);
+                changed[0] = true;
+            } else {
+                changed[0] = !sameContent(cur.last, canonical);
+                cur.last = canonical;
+            }
+            cur.lastSeen = seenAt;
+            cur.count = count;
+            return cur;
+        });
+        return changed[0];
+    }
+
+    /** Güncel aktif alarmlar, en yeni raise önce. O(aktif). */
+    public List<ActiveAlarm> active() {
+        List<ActiveAlarm> list = new ArrayList<>(active.size());
+        for (Active a : active.values()) list.add(a.view());
+        list.sort((x, y) -> y.raisedAt().compareTo(x.raisedAt()));
+        return list;
+    }
+
+    public int activeCount() {
+        return active.size();
+    }
+
+    /** Satır id'sinden (target@zaman) hedef; MqttAlarmMapper hedefi zaten büyük harfe çeviriyor. */
+    static String targetOf(String id) {
+        if (id == null) return "ALARM";
+        int at = id.indexOf('@');
+        return (at > 0 ? id.substring(0, at) : id).toUpperCase(Locale.ROOT);
+    }
+
+    private static AlarmEvent withId(AlarmEvent e, String id, Instant ts) {
+        return new AlarmEvent(id, e.level(), e.type(), e.location(), e.message(), ts);
+    }
+
+    private static boolean sameContent(AlarmEvent a, AlarmEvent b) {
+        return Objects.equals(a.level(), b.level())
+                && Objects.equals(a.type(), b.type())
+                && Objects.equals(a.location(), b.location())
+                && Objects.equals(a.message(), b.message());
+    }
+
+    // ---------- restore + lifecycle ----------
+    private void restore() {
+        Instant now = Instant.now();
+        Instant since = now.minus(props.restoreWindow());
+        int n = 0;
+        List<String> shadowed = new ArrayList<>();
+        // eskiden yeniye: aynı hedefin birden çok ACTIVE satırı varsa en yenisi kalır
+        for (AlarmEntity e : repo.findActiveSince(since)) {
+            Instant at = e.getCreatedAt() != null ? e.getCreatedAt() : now;
+            String key = targetOf(e.getTarget() != null ? e.getTarget() : e.getId());
+            AlarmEvent evt = new AlarmEvent(e.getId(), e.getLevel(), e.getType(), e.getLocation(), e.getMessage(), at);
+            Active old = active.put(key, new Active(e.getId(), key, at, evt));
+            if (old != null) shadowed.add(old.id);
+            n++;
+        }
+        // Dizine alınmayan açık satırlara clear hiç gelmez (hedefin sonraki olayı yeni satır açar ya da
+        // yenisini günceller): kapatılmazsa sonsuza dek ACTIVE kalırlar
+        int stale = repo.closeActiveBefore(since, now);
+        if (!shadowed.isEmpty()) stale += repo.closeActive(shadowed, now);
+        log.info("Restored {} active alarms ({} rows since {}), closed {} stale rows", active.size(), n, since, stale);
+    }
+
+    @Override
+    public void start() {
+        if (props.enabled()) {
+            try {
+                restore();
+            } catch (Exception ex) {
+                log.warn("Active alarm restore failed, starting empty: {}", ex.getMessage());
+            }
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // MQTT adapter'ından önce dolu olmalı
+        return Integer.MIN_VALUE + 1500;
+    }
+}
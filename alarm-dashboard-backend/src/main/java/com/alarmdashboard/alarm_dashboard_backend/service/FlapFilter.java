@@ -0,0 +1,227 @@
+package com.alarmdashboard.alarm_dashboard_backend.service;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedef başına token bucket: burst kadar olay hemen geçer, sonrası holdOff'ta bir token.
+ * Token yokken gelen olaylar bastırılır; yalnızca en sonuncusu saklanır ve token açılınca
+ * (yeni olayla ya da süpürücüyle) "N kez tekrarlandı" bilgisiyle teslim edilir. Böylece
+ * fırtına bittiğinde son durum (ör. clear) kaybolmaz. Boşta kalan hedefler idleTtl sonra silinir.
+ * Geçen olaylar hedefin teslim kuyruğuna girer ve kilit dışında, hedef başına geliş sırasıyla teslim edilir:
+ * o an teslim yapan thread yoksa kuyruğu ekleyen thread boşaltır.
+ */
+@Component
+public class FlapFilter implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(FlapFilter.class);
+
+    /**
+     * Geçen olayı işler; suppressed: bu olaydan önce bastırılıp teslim edilmeyen olay sayısı,
+     * released: olay fırtına sonunda süpürücüyle serbest kaldı (varışından holdOff'a kadar sonra).
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(AlarmEvent evt, boolean clear, int suppressed, boolean released);
+    }
+
+    private record Passed(AlarmEvent evt, boolean clear, int suppressed, boolean released) {}
+
+    /** Hedef durumu; tüm alanlar nesnenin kilidi altında değişir. */
+    private static final class State {
+        double tokens;
+        long refilledAt;
+        long lastSeen;
+        int suppressed;
+        AlarmEvent pending;
+        boolean pendingClear;
+        boolean dead;
+        final ArrayDeque<Passed> outbox = new ArrayDeque<>(2);   // teslim bekleyen geçmiş olaylar
+        boolean draining;                                       // bir thread outbox'ı boşaltıyor
+
+        State(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+            this.lastSeen = now;
+        }
+    }
+
+    private final AlarmProps.Flap props;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    private final long holdOffNanos;
+    private final Counter suppressedCounter;
+    private final Counter releasedCounter;
+
+    private volatile Sink sink;
+    private ScheduledExecutorService sweeper;
+    private volatile boolean running;
+
+    public FlapFilter(AlarmProps props, MeterRegistry registry) {
+        this.props = props.flap();
+        this.holdOffNanos = Math.max(1, this.props.holdOff().toNanos());
+        this.suppressedCounter = Counter.builder("alarm.flap.suppressed")
+                .description("Tekrar filtresine takılan olaylar")
+                .register(registry);
+        this.releasedCounter = Counter.builder("alarm.flap.released")
+                .description("Fırtına sonunda süpürücünün teslim ettiği son olaylar")
+                .register(registry);
+        Gauge.builder("alarm.flap.targets", states, Map::size).register(registry);
+    }
+
+    public boolean enabled() {
+        return props.enabled();
+    }
+
+    /** Geçen (ya da sonradan serbest kalan) olayların gideceği yer; tek sefer bağlanır. */
+    public void onRelease(Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Olayı filtreden geçirir. Geçerse hedefin teslim kuyruğuna girer; süpürücünün teslim ettiği olay ile
+     * yeni olay aynı hedef için sıralı kalır, sink hedefin kilidi tutulmadan çağrılır.
+     */
+    public void submit(String target, AlarmEvent evt, boolean clear) {
+        while (true) {
+            State s = states.computeIfAbsent(target, k -> new State(props.burst(), System.nanoTime()));
+            boolean drain;
+            synchronized (s) {
+                if (s.dead) continue;   // süpürücü az önce sildi; yenisiyle dene
+                long now = System.nanoTime();
+                s.lastSeen = now;
+                refill(s, now);
+                if (s.tokens >= 1) {
+                    s.tokens -= 1;
+                    // saklanan eski olay yerine bu (daha yeni) olay gider
+                    int dropped = s.suppressed;
+                    s.suppressed = 0;
+                    s.pending = null;
+                    drain = enqueue(s, new Passed(evt, clear, dropped, false));
+                } else {
+                    s.suppressed++;
+                    s.pending = evt;
+                    s.pendingClear = clear;
+                    suppressedCounter.increment();
+                    return;
+                }
+            }
+            if (drain) drain(target, s);
+            return;
+        }
+    }
+
+    /** Kilit altında: olayı kuyruğa ekler; boşaltan yoksa çağıran boşaltmayı üstlenir (true). */
+    private static boolean enqueue(State s, Passed p) {
+        s.outbox.add(p);
+        if (s.draining) return false;
+        s.draining = true;
+        return true;
+    }
+
+    /** Kilit dışında: kuyruk boşalana kadar teslim eder. Serbest kalanın hatası loglanır, yeninin hatası çağırana gider. */
+    private void drain(String target, State s) {
+        RuntimeException failure = null;
+        while (true) {
+            Passed p;
+            synchronized (s) {
+                p = s.outbox.poll();
+                if (p == null) {
+                    s.draining = false;
+                    break;
+                }
+            }
+            try {
+                sink.accept(p.evt(), p.clear(), p.suppressed(), p.released());
+            } catch (RuntimeException ex) {
+                if (p.released()) log.warn("Flap release failed target={}: {}", target, ex.getMessage());
+                else if (failure == null) failure = ex;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private void refill(State s, long now) {
+        long elapsed = now - s.refilledAt;
+        if (elapsed <= 0) return;
+        s.tokens = Math.min(props.burst(), s.tokens + (double) elapsed / holdOffNanos);
+        s.refilledAt = now;
+    }
+
+    /**
+     * Token'ı açılan hedeflerin saklı son olayını serbest bırakır, boşta kalanları siler.
+     * Serbest kalanlar tüm hedefler gezildikten sonra, kilitler bırakılmışken teslim edilir.
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        long ttl = props.idleTtl().toNanos();
+        List<Map.Entry<String, State>> released = new ArrayList<>();
+        for (Map.Entry<String, State> en : states.entrySet()) {
+            State s = en.getValue();
+            synchronized (s) {
+                refill(s, now);
+                if (s.pending != null && s.tokens >= 1) {
+                    s.tokens -= 1;
+                    Passed p = new Passed(s.pending, s.pendingClear, s.suppressed - 1, true);
+                    s.pending = null;
+                    s.suppressed = 0;
+                    releasedCounter.increment();
+                    if (enqueue(s, p)) released.add(en);
+                } else if (s.pending == null && !s.draining && now - s.lastSeen > ttl) {
+                    s.dead = true;
+                    states.remove(en.getKey(), s);
+                }
+            }
+        }
+        for (Map.Entry<String, State> en : released) drain(en.getKey(), en.getValue());
+    }
+
+    public int trackedTargets() {
+        return states.size();
+    }
+
+    // ---------- lifecycle ----------
+    @Override
+    public void start() {
+        if (!props.enabled()) return;
+        long periodMs = Math.max(100, holdOffNanos / 1_000_000 / 2);
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alarm-flap");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, periodMs, periodMs, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (sweeper != null) sweeper.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // yazıcıdan sonra başlar, önce durur: süpürücünün teslim ettikleri kuyruğa girebilsin
+        return Integer.MIN_VALUE + 1500;
+    }
+}
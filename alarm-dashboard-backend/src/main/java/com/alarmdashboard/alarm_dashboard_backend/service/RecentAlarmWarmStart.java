@@ -0,0 +1,213 @@
+package com.alarmdashboard.alarm_dashboard_backend.service;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import com.alarmdashboard.alarm_dashboard_backend.storage.RecentAlarmStore;
+import com.alarmdashboard.alarm_dashboard_backend.storage.RecentSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * RecentAlarmStore'u yeniden başlatmalar arasında taşır. Açılışta, canlı olaylardan önce:
+ * <ol>
+ *   <li>snapshot dosyası varsa ve retention içindeyse yüklenir, sonra son olayından bu yana DB'ye
+ *       yazılmış satırlar eklenir (kapanıştan sonra ya da çökmeden önceki son aralıkta gelenler);</li>
+ *   <li>yoksa retention penceresinin en yeni capacity satırı DB'den (en yeniden, sınırlı) okunur.</li>
+ * </ol>
+ * Snapshot snapshotInterval'de bir ve kapanışta yazılır. DB'ye ulaşılamazsa yüklenenlerle devam edilir,
+ * ama tampon açılıştan öncesi için eksiksiz sayılmaz (bootstrap DB'ye düşer).
+ */
+@Component
+public class RecentAlarmWarmStart implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(RecentAlarmWarmStart.class);
+
+    private static final String SELECT_SINCE =
+            "select id, level, type, location, message, created_at from alarms " +
+            "where created_at >= ? order by created_at desc, id desc limit ?";
+    private static final int FETCH_SIZE = 500;
+    // snapshot'tan sonraki DB satırları: geç gelen (eski timestamp'li) olaylar için biraz geriden başla
+    private static final Duration DELTA_SLACK = Duration.ofMinutes(1);
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final RecentAlarmStore store;
+    private final JdbcTemplate jdbc;
+    private final AlarmProps.Recent props;
+    private final Path file;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public RecentAlarmWarmStart(RecentAlarmStore store, JdbcTemplate jdbc, AlarmProps props) {
+        this.store = store;
+        this.jdbc = jdbc;
+        this.props = props.recent();
+        this.file = Paths.get(this.props.snapshot());
+    }
+
+    // ---------- açılış ----------
+    private void warmStart() {
+        long t0 = System.nanoTime();
+        Instant now = Instant.now();
+        Instant windowStart = now.minus(props.retention());
+
+        RecentSnapshot.Loaded snap = readSnapshot(windowStart);
+        if (snap != null) {
+            Set<String> ids = new HashSet<>(snap.events().length * 2);
+            for (int i = 0; i < snap.events().length; i++) {
+                store.restore(snap.events()[i], snap.times()[i]);
+                ids.add(snap.events()[i].id());
+            }
+            long newest = snap.times().length == 0 ? snap.writtenAt().toEpochMilli() : snap.times()[snap.times().length - 1];
+            Instant from = Instant.ofEpochMilli(newest).minus(DELTA_SLACK);
+            try {
+                int added = 0;
+                List<Row> delta = newestRows(from.isBefore(windowStart) ? windowStart : from);
+                for (Row r : delta) {
+                    if (ids.contains(r.event().id())) continue;
+                    store.restore(r.event(), r.time());
+                    added++;
+                }
+                // capacity ile kesildiyse snapshot ile aradaki boşluk bilinmiyor
+                store.restoredAfter(delta.size() < props.capacity()
+                        ? snap.completeAfter()
+                        : Math.max(snap.completeAfter(), delta.get(0).time()));
+                log.info("Recent store warm start: {} events from snapshot ({}) + {} from database in {} ms",
+                        snap.events().length, snap.writtenAt(), added, elapsedMs(t0));
+            } catch (RuntimeException ex) {
+                log.warn("Recent store warm start: {} events from snapshot, database catch-up failed: {}",
+                        snap.events().length, ex.toString());
+            }
+            return;
+        }
+
+        try {
+            List<Row> rows = newestRows(windowStart);
+            for (Row r : rows) store.restore(r.event(), r.time());
+            // pencerenin tamamı geldi mi, yoksa capacity ile kesildi mi
+            store.restoredAfter(rows.size() < props.capacity()
+                    ? windowStart.toEpochMilli() - 1
+                    : rows.isEmpty() ? Long.MIN_VALUE : rows.get(0).time());
+            log.info("Recent store warm start: {} events from database in {} ms", rows.size(), elapsedMs(t0));
+        } catch (RuntimeException ex) {
+            log.warn("Recent store warm start skipped, database unavailable: {}", ex.toString());
+        }
+    }
+
+    private RecentSnapshot.Loaded readSnapshot(Instant windowStart) {
+        if (!Files.exists(file)) return null;
+        try {
+            RecentSnapshot.Loaded s = RecentSnapshot.read(file);
+            if (s.writtenAt().isBefore(windowStart)) {
+                log.info("Recent snapshot {} is older than retention, loading from database", s.writtenAt());
+                return null;
+            }
+            return s;
+        } catch (Exception ex) {
+            log.warn("Recent snapshot unreadable, loading from database: {}", ex.toString());
+            return null;
+        }
+    }
+
+    private record Row(AlarmEvent event, long time) {}
+
+    /** from ve sonrası en yeni capacity satır, eskiden yeniye. */
+    private List<Row> newestRows(Instant from) {
+        List<Row> rows = new ArrayList<>();
+        try (Stream<Row> s = jdbc.queryForStream(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_SINCE);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.from(from), Calendar.getInstance(UTC));
+            ps.setInt(2, props.capacity());
+            return ps;
+        }, (rs, i) -> {
+            Instant created = rs.getTimestamp("created_at", Calendar.getInstance(UTC)).toInstant();
+            AlarmEvent e = new AlarmEvent(rs.getString("id"), rs.getString("level"), rs.getString("type"),
+                    rs.getString("location"), rs.getString("message"), created);
+            return new Row(e, created.toEpochMilli());
+        })) {
+            s.forEach(rows::add);
+        }
+        Collections.reverse(rows);
+        return rows;
+    }
+
+    // ---------- snapshot ----------
+    private void snapshot() {
+        long t0 = System.nanoTime();
+        try {
+            RecentAlarmStore.Contents c = store.contents();
+            RecentSnapshot.write(file, c);
+            log.debug("Recent snapshot: {} events in {} ms", c.events().length, elapsedMs(t0));
+        } catch (Exception ex) {
+            log.warn("Recent snapshot failed {}: {}", file.toAbsolutePath(), ex.toString());
+        }
+    }
+
+    private static long elapsedMs(long t0) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+    }
+
+    // ---------- lifecycle ----------
+    @Override
+    public void start() {
+        if (!props.warmStart()) return;
+        warmStart();
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "recent-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        long ms = props.snapshotInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshot, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) return;
+        running = false;
+        scheduler.shutdown();
+        try {
+            // süren periyodik yazım bitsin: ikisi aynı geçici dosyaya yazar
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        // MQTT adapter'ı durduktan sonra: son olaylar dahil
+        snapshot();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Günlük yeniden oynatıldıktan (AlarmBatchWriter) ve aktif dizin yüklendikten sonra, MQTT adapter'ından önce
+        return Integer.MIN_VALUE + 2000;
+    }
+}
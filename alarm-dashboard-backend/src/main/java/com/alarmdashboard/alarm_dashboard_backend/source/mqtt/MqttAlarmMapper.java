@@ -1,22 +1,91 @@
 package com.alarmdashboard.alarm_dashboard_backend.source.mqtt;
 
 import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import com.alarmdashboard.alarm_dashboard_backend.storage.TargetDictionary;
+import com.alarmdashboard.alarm_dashboard_backend.storage.TargetPath;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
+import java.io.IOException;
 import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 public class MqttAlarmMapper {
     private final ObjectMapper om;
+    private final TargetDictionary targets;
+
+    // alarm.mqtt.stage{stage=parse|classify}; registry verilmezse (benchmark) ölçüm yok
+    private final Timer parseTimer;
+    private final Timer classifyTimer;
 
     public MqttAlarmMapper(ObjectMapper om) {
+        this(om, null, new TargetDictionary(TargetDictionary.DEFAULT_CAPACITY));
+    }
+
+    public MqttAlarmMapper(ObjectMapper om, MeterRegistry registry, TargetDictionary targets) {
         this.om = om;
+        this.targets = targets;
+        this.parseTimer = registry == null ? null : stageTimer(registry, "parse");
+        this.classifyTimer = registry == null ? null : stageTimer(registry, "classify");
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("alarm.mqtt.stage")
+                .description("MQTT payload eşleme aşamaları")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    /**
+     * Tek geçişlik sınıflandırma sonucu: alarm değilse event null.
+     * cleared: payload alarmın kapandığını bildiriyor (Value.Active=false).
+     */
+    public record Mapped(boolean alarm, AlarmEvent event, boolean cleared) {
+        public static final Mapped NOT_ALARM = new Mapped(false, null, false);
+    }
+
+    /**
+     * Payload'ı bir kez (streaming JsonParser ile) okur; sınıflandırma ve AlarmEvent üretimi
+     * isAlarmLike + toEvent ile birebir aynı kurallarla yapılır, ama ağaç kurulmaz.
+     * Geçersiz JSON alarm sayılmaz.
+     */
+    public Mapped map(String json, String mqttTopic) {
+        long t0 = System.nanoTime();
+        Fields f;
+        try {
+            f = scan(json);
+        } catch (Exception e) {
+            f = null;
+        }
+        long t1 = System.nanoTime();
+        if (parseTimer != null) parseTimer.record(t1 - t0, TimeUnit.NANOSECONDS);
+        if (f == null) return Mapped.NOT_ALARM;
+
+        Mapped m = classify(f, mqttTopic);
+        if (classifyTimer != null) classifyTimer.record(System.nanoTime() - t1, TimeUnit.NANOSECONDS);
+        return m;
+    }
+
+    private Mapped classify(Fields f, String mqttTopic) {
+        String candidate = firstNonBlank(f.target, mqttTopic);
+        boolean alarm = endsWithAlarm(candidate)
+                || f.message != null
+                || f.hasPriority;
+        if (!alarm) return Mapped.NOT_ALARM;
+
+        return new Mapped(true, build(path(f.target, mqttTopic), f.location, f.targetName,
+                f.message, f.tagInfo, f.valueType, f.priority), f.cleared);
     }
 
     /**
      * Alarm mı?
      * - Öncelik: payload.Target ya da MQTT topic (case-insensitive) ".../Alarm" ile bitiyorsa TRUE
      * - Yedek: Value.Message dolu VEYA Value.Priority sayısal ise TRUE
+     * Ağaç tabanlı eski yol; ingest map() kullanıyor, bu ikisi karşılaştırma (JMH) için duruyor.
      */
 
     public boolean isAlarmLike(String json, String mqttTopic) {
@@ -24,7 +93,7 @@ public class MqttAlarmMapper {
             JsonNode root = om.readTree(json);
             String target = text(root, "Target", null);
             String candidate = firstNonBlank(target, mqttTopic);
-            if (candidate != null && normalize(candidate).endsWith("/ALARM")) return true;
+            if (endsWithAlarm(candidate)) return true;
 
             JsonNode v = root.path("Value");
             boolean hasMsg = v.hasNonNull("Message") && !v.path("Message").asText("").isBlank();
@@ -44,42 +113,11 @@ public class MqttAlarmMapper {
         try {
             JsonNode root = om.readTree(json);
             JsonNode v = root.path("Value");
-
-            // Target: payload.Target > topic > "UNKNOWN/Alarm"
-            String target = firstNonBlank(text(root, "Target", null), mqttTopic, "UNKNOWN/Alarm");
-            target = normalize(target);
-
-            // Location: Location > cihaz (path) > TargetName > "Unknown"
-            String location = firstNonBlank(
-                    text(v, "Location", null),
-                    deviceFromPath(target),
-                    text(v, "TargetName", null),
-                    "Unknown"
-            );
-
-            // Tip: path’te "Alarm"dan önceki parça > Value.Message > TagInfo > ValueType > "GENERIC"
-            String type = firstNonBlank(
-                    typeFromPath(target),
-                    text(v, "Message", null),
-                    text(root, "TagInfo", null),
-                    text(root, "ValueType", null),
-                    "GENERIC"
-            );
-
-            String message = firstNonBlank(
-                    text(v, "Message", null),
-                    shortFromPath(target)
-            );
-
-            // 8+=CRITICAL, 4+=WARN, aksi INFO
             int pr = v.has("Priority") && v.path("Priority").isNumber() ? v.path("Priority").asInt() : 0;
-            String level = toLevel(pr);
-
-            // ARRIVAL time + tekilleştirme
-            Instant now = Instant.now();
-            String id = (target.isBlank() ? "alarm" : target) + "@" + now;
-
-            return new AlarmEvent(id, level, type, location, message, now);
+            return build(
+                    path(text(root, "Target", null), mqttTopic),
+                    text(v, "Location", null), text(v, "TargetName", null), text(v, "Message", null),
+                    text(root, "TagInfo", null), text(root, "ValueType", null), pr);
         } catch (Exception ex) {
             Instant now = Instant.now();
             return new AlarmEvent(
@@ -91,6 +129,129 @@ public class MqttAlarmMapper {
         }
     }
 
+    /** Target: payload.Target > topic > "UNKNOWN/Alarm"; sözlükten, ayrıştırılmış haliyle. */
+    private TargetPath path(String payloadTarget, String mqttTopic) {
+        return targets.of(firstNonBlank(payloadTarget, mqttTopic, "UNKNOWN/Alarm"));
+    }
+
+    private static AlarmEvent build(TargetPath path,
+                                    String valueLocation, String targetName, String valueMessage,
+                                    String tagInfo, String valueType, int pr) {
+        String target = path.normalized();
+
+        // Location: Location > cihaz (path) > TargetName > "Unknown"
+        String location = firstNonBlank(
+                valueLocation,
+                path.location(),
+                targetName,
+                "Unknown"
+        );
+
+        // Tip: path’te "Alarm"dan önceki parça > Value.Message > TagInfo > ValueType > "GENERIC"
+        String type = firstNonBlank(
+                path.type(),
+                valueMessage,
+                tagInfo,
+                valueType,
+                "GENERIC"
+        );
+
+        String message = firstNonBlank(
+                valueMessage,
+                path.shortName()
+        );
+
+        // 8+=CRITICAL, 4+=WARN, aksi INFO
+        String level = toLevel(pr);
+
+        // ARRIVAL time + tekilleştirme
+        Instant now = Instant.now();
+        String id = (target.isBlank() ? "alarm" : target) + "@" + now;
+
+        return new AlarmEvent(id, level, type, location, message, now);
+    }
+
+    // ---------- streaming ----------
+    /** map() için ihtiyaç duyulan alanlar; text() ile aynı anlam: boş/blank → null. */
+    private static final class Fields {
+        String target, tagInfo, valueType;
+        String message, location, targetName;
+        boolean hasPriority;
+        int priority;
+        boolean cleared;
+
+        void resetValue() {
+            message = location = targetName = null;
+            hasPriority = false;
+            priority = 0;
+            cleared = false;
+        }
+    }
+
+    private Fields scan(String json) throws IOException {
+        Fields f = new Fields();
+        try (JsonParser p = om.getFactory().createParser(json)) {
+            JsonToken t = p.nextToken();
+            if (t != JsonToken.START_OBJECT) {
+                // readTree gibi: kök obje değilse alan yok, ama yine de sonuna kadar doğrula
+                if (t != null) p.skipChildren();
+                return f;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                t = p.nextToken();
+                switch (name) {
+                    case "Target"    -> f.target = scalar(p, t);
+                    case "TagInfo"   -> f.tagInfo = scalar(p, t);
+                    case "ValueType" -> f.valueType = scalar(p, t);
+                    case "Value"     -> scanValue(p, t, f);
+                    default          -> p.skipChildren();
+                }
+            }
+        }
+        return f;
+    }
+
+    private static void scanValue(JsonParser p, JsonToken t, Fields f) throws IOException {
+        // aynı anahtar tekrar ederse readTree sonuncuyu tutar
+        f.resetValue();
+        if (t != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            t = p.nextToken();
+            switch (name) {
+                case "Message"    -> f.message = scalar(p, t);
+                case "Location"   -> f.location = scalar(p, t);
+                case "TargetName" -> f.targetName = scalar(p, t);
+                case "Priority"   -> {
+                    f.hasPriority = t.isNumeric();
+                    f.priority = !f.hasPriority ? 0
+                            : p.getNumberType() == JsonParser.NumberType.INT ? p.getIntValue()
+                            : p.getNumberValue().intValue();
+                    p.skipChildren();
+                }
+                case "Active"     -> {
+                    f.cleared = t == JsonToken.VALUE_FALSE;
+                    p.skipChildren();
+                }
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private static String scalar(JsonParser p, JsonToken t) throws IOException {
+        if (t == JsonToken.START_OBJECT || t == JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        if (t == JsonToken.VALUE_NULL) return null;
+        String s = p.getText();
+        return (s == null || s.isBlank()) ? null : s;
+    }
+
     // ---------- helpers ----------
     private static String toLevel(int p) {
         if (p >= 8) return "CRITICAL";
@@ -98,8 +259,12 @@ public class MqttAlarmMapper {
         return "INFO";
     }
 
-    private static String normalize(String s) {
-        return (s == null ? "" : s).replace('\\','/').toUpperCase();
+    /** normalize(s).endsWith("/ALARM") ile aynı, ama büyük harfli kopya üretmeden (alarm olmayan mesajlar sözlüğe girmez). */
+    private static boolean endsWithAlarm(String s) {
+        if (s == null || s.length() < 6) return false;
+        int i = s.length() - 6;
+        char c = s.charAt(i);
+        return (c == '/' || c == '\\') && s.regionMatches(true, i + 1, "ALARM", 0, 5);
     }
 
     private static String text(JsonNode node, String field, String def) {
@@ -115,30 +280,4 @@ public class MqttAlarmMapper {
         for (String x : xs) if (x != null && !x.isBlank()) return x;
         return null;
     }
-
-    private static String[] splitPath(String t) {
-        return (t == null ? "" : t).replace('\\','/').split("/");
-    }
-
-    private static String typeFromPath(String t) {
-        String[] p = splitPath(t);
-        if (p.length >= 2) return p[p.length - 2];
-        if (p.length >= 1) return p[p.length - 1];
-        return null;
-    }
-
-    private static String deviceFromPath(String t) {
-        String[] p = splitPath(t);
-        if (p.length >= 3) return p[p.length - 3];
-        if (p.length >= 2) return p[p.length - 2];
-        return null;
-    }
-
-    private static String shortFromPath(String t) {
-        String[] p = splitPath(t);
-        int n = p.length;
-        if (n >= 3) return p[n - 3] + "/" + p[n - 2] + "/" + p[n - 1];
-        if (n >= 2) return p[n - 2] + "/" + p[n - 1];
-        return t;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.alarmdashboard.alarm_dashboard_backend.source.mqtt;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MQTT ingest'i N tek-thread'li şeride dağıtır. Aynı anahtar (topic ya da Target) hep aynı
+ * şeride düşer, böylece bir hedefin olayları sırasını korur; farklı hedefler paralel işlenir.
+ * Şerit kuyruğu dolunca çağıran (Paho callback) bekler — broker'a doğal backpressure.
+ * Mesaj şeritte işlendikten sonra, geliş sırasıyla onaylanır (RealtimeSourceConfig, {@link OrderedAcks}):
+ * kuyrukta bekleyenler onaylanmamıştır, süreç çökerse broker DUP işaretiyle yeniden gönderir.
+ */
+public class MqttIngestLanes implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(MqttIngestLanes.class);
+
+    private final ThreadPoolExecutor[] lanes;
+    private volatile boolean running;
+
+    public MqttIngestLanes(int laneCount, int queueCapacity, MeterRegistry registry) {
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = "mqtt-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread t = new Thread(r, name);
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    (r, ex) -> {
+                        // kuyruk dolu: sırayı bozmamak için CallerRuns değil, yer açılana kadar bekle
+                        if (ex.isShutdown()) throw new RejectedExecutionException(name + " is shut down");
+                        try {
+                            ex.getQueue().put(r);
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            throw new RejectedExecutionException(name + " interrupted", ie);
+                        }
+                    });
+        }
+        Gauge.builder("alarm.mqtt.lane.depth", this, MqttIngestLanes::depth)
+                .description("Şerit kuyruklarında bekleyen MQTT mesajı")
+                .register(registry);
+    }
+
+    public void execute(String key, Runnable task) {
+        lanes[laneOf(key)].execute(task);
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    int laneOf(String key) {
+        int h = key == null ? 0 : key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), lanes.length);
+    }
+
+    private int depth() {
+        int n = 0;
+        for (ThreadPoolExecutor lane : lanes) n += lane.getQueue().size();
+        return n;
+    }
+
+    // ---------- lifecycle ----------
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (ThreadPoolExecutor lane : lanes) lane.shutdown();
+        try {
+            for (ThreadPoolExecutor lane : lanes) {
+                if (!lane.awaitTermination(5, TimeUnit.SECONDS)) {
+                    log.warn("Ingest lane did not drain in time, {} pending", lane.getQueue().size());
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // adapter'dan sonra, AlarmBatchWriter'dan önce durur: şeritler boşalınca yazıcı kapanır
+        return Integer.MIN_VALUE + 2000;
+    }
+}
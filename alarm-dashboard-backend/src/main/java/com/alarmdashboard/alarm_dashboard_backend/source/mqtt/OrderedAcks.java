@@ -0,0 +1,80 @@
+package com.alarmdashboard.alarm_dashboard_backend.source.mqtt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.integration.acks.SimpleAcknowledgment;
+
+import java.util.ArrayDeque;
+
+/**
+ * Manuel MQTT onaylarını geliş sırasıyla bırakır. Şeritler mesajları bitiş sırasıyla tamamlar; MQTT 3.1.1
+ * §4.6 ise PUBACK'lerin yayın sırasıyla gönderilmesini ister. Her mesaj Paho callback thread'inde (geliş
+ * sırası) kayıt olur; tamamlanan mesajın onayı, önündeki tüm mesajlar tamamlanana kadar bekletilir.
+ * Onay mesajın geldiği bağlantıya gider (SimpleAcknowledgment istemciyi tutar); bağlantı koptuysa onay
+ * düşer ve broker yeniden bağlanınca mesajı tekrar gönderir.
+ */
+public class OrderedAcks {
+    private static final Logger log = LoggerFactory.getLogger(OrderedAcks.class);
+
+    private final ArrayDeque<Slot> pending = new ArrayDeque<>();
+
+    private static final class Slot {
+        final SimpleAcknowledgment ack;
+        boolean done;
+        boolean skip;
+
+        Slot(SimpleAcknowledgment ack) {
+            this.ack = ack;
+        }
+    }
+
+    /** Geliş sırasına ekler (callback thread'inde çağrılmalı); dönen tamamlayıcıyla bırakılır. */
+    public Completion register(SimpleAcknowledgment ack) {
+        Slot slot = new Slot(ack);
+        synchronized (this) {
+            pending.addLast(slot);
+        }
+        return new Completion(slot);
+    }
+
+    /** Bekleyen (henüz onaylanmamış) mesaj sayısı. */
+    public synchronized int pending() {
+        return pending.size();
+    }
+
+    /** Bir mesajın tamamlayıcısı; yalnızca ilk çağrı sayılır. */
+    public final class Completion {
+        private final Slot slot;
+
+        private Completion(Slot slot) {
+            this.slot = slot;
+        }
+
+        /** Mesaj işlendi (ya da atıldı): sırası gelince onaylanır. */
+        public void acknowledge() {
+            complete(slot, false);
+        }
+
+        /** Mesaj işlenmedi: onaylanmaz (broker yeniden gönderir), arkasındakileri de tutmaz. */
+        public void skip() {
+            complete(slot, true);
+        }
+    }
+
+    private synchronized void complete(Slot slot, boolean skip) {
+        if (slot.done) return;
+        slot.done = true;
+        slot.skip = skip;
+        // Kilit altında: iki thread'in bıraktıkları birbirinin önüne geçemez (Paho onayı yalnızca kuyruklar)
+        Slot head;
+        while ((head = pending.peekFirst()) != null && head.done) {
+            pending.pollFirst();
+            if (head.skip) continue;
+            try {
+                head.ack.acknowledge();
+            } catch (RuntimeException ex) {
+                log.debug("MQTT ack failed (connection lost?): {}", ex.toString());
+            }
+        }
+    }
+}
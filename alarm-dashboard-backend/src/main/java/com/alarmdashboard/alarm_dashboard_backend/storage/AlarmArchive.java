@@ -0,0 +1,449 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmFilter;
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmSlice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Soğuk katman: alarms tablosundan taşınan satırlar, gün (UTC) başına bir segment dosyasında
+ * (bkz. {@link ArchiveSegment}). Dosya adı alarms-YYYY-MM-DD-g{nesil}.seg; aynı güne sonradan satır
+ * eklenirse (geç kapanan alarm) gün yeni nesille baştan yazılır, eskisi emekliye ayrılır: o sırada okuyan
+ * sorgular (uzun export taramaları dahil) eski kanaldan okumaya devam eder, son okuyucu bitince kapanıp silinir.
+ *
+ * <p>Dizini yalnızca lider yazar; sorgular önce dizine bakar ({@link #refresh}), böylece takipçiler de
+ * liderin yeni yazdığı segmentleri (ve tablodan silinen satırları) görür. Dizin yalnızca değişim zamanı
+ * (mtime) değiştiyse ya da son taramadan bu yana rescanInterval geçtiyse yeniden listelenir; aksi halde
+ * sorgu başına tek bir stat.
+ *
+ * <p>Sorgular (createdAt, id) sırasını korur; geçmiş ve export sıcak tabloyla birleştirmek için
+ * {@link #newestFirst} / {@link #oldestFirst} kullanır. Aynı satır iki katmanda birden varsa
+ * (taşıma ile silme arasında) bir kez döner.
+ */
+@Component
+public class AlarmArchive {
+    private static final Logger log = LoggerFactory.getLogger(AlarmArchive.class);
+
+    private static final Pattern FILE = Pattern.compile("alarms-(\\d{4}-\\d{2}-\\d{2})-g(\\d+)\\.seg");
+
+    /** Bir günün güncel segmenti. */
+    private record Partition(LocalDate day, long generation, ArchiveSegment segment) {}
+
+    private final AlarmProps.Archive props;
+    private final Path dir;
+    private final NavigableMap<LocalDate, Partition> partitions = new ConcurrentSkipListMap<>();
+    // Okunamayan (bozuk) dosyalar: her sorguda yeniden denenip loglanmasın
+    private final Set<Path> unreadable = ConcurrentHashMap.newKeySet();
+    private final long rescanNanos;
+    private volatile FileTime scannedMtime;
+    private volatile long scannedAt;
+
+    public AlarmArchive(AlarmProps props) {
+        this.props = props.archive();
+        this.dir = Paths.get(this.props.dir());
+        this.rescanNanos = this.props.rescanInterval().toNanos();
+        if (this.props.enabled()) load();
+    }
+
+    public boolean enabled() {
+        return props.enabled();
+    }
+
+    private void load() {
+        try {
+            Files.createDirectories(dir);
+            sync(true);
+            log.info("Archive dir={} partitions={} rows={} bytes={}", dir.toAbsolutePath(), partitions.size(), rows(), bytes());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Archive load failed: " + dir.toAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * Dizindeki yeni nesilleri açar (takipçide liderin yazdıkları); sorgulardan önce çağrılır. mtime aynıysa
+     * ve süre dolmadıysa listelemez: süre, mtime çözünürlüğünün (ör. paylaşımlı birimde saniye) kaçırdığı
+     * değişiklikleri yakalar.
+     */
+    private void refresh() {
+        if (!props.enabled()) return;
+        try {
+            FileTime mtime = Files.getLastModifiedTime(dir);
+            long now = System.nanoTime();
+            if (mtime.equals(scannedMtime) && now - scannedAt < rescanNanos) return;
+            // Listelemeden önce: tarama sırasında gelen değişiklik bir sonraki çağrıda yeniden taratır
+            scannedMtime = mtime;
+            scannedAt = now;
+            sync(false);
+        } catch (IOException ex) {
+            log.warn("Archive dir {} not rescanned: {}", dir.toAbsolutePath(), ex.getMessage());
+        }
+    }
+
+    private void sync(boolean startup) throws IOException {
+        if (startup) {
+            scannedMtime = Files.getLastModifiedTime(dir);
+            scannedAt = System.nanoTime();
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+            for (Path p : ds) files.add(p);
+        }
+        files.sort(Comparator.naturalOrder());
+        for (Path p : files) {
+            String name = p.getFileName().toString();
+            if (name.endsWith(".tmp")) {
+                if (startup) Files.deleteIfExists(p);   // yarım kalmış yazım (çalışırken liderin o anki yazımı olabilir)
+                continue;
+            }
+            Matcher m = FILE.matcher(name);
+            if (!m.matches() || unreadable.contains(p)) continue;
+            try {
+                install(LocalDate.parse(m.group(1)), Long.parseLong(m.group(2)), p);
+            } catch (NoSuchFileException ex) {
+                // Lider bu arada yenisini yazıp sildi; bir sonraki taramada yenisi alınır
+            } catch (IOException ex) {
+                if (startup) throw ex;
+                unreadable.add(p);
+                log.warn("Archive segment {} skipped: {}", p, ex.getMessage());
+            }
+        }
+    }
+
+    /** Günün güncel nesli gen'den eskiyse file'ı açıp yerine koyar, eskisini emekliye ayırır. */
+    private void install(LocalDate day, long gen, Path file) throws IOException {
+        synchronized (partitions) {
+            Partition cur = partitions.get(day);
+            if (cur != null && cur.generation() >= gen) {
+                if (cur.generation() > gen) Files.deleteIfExists(file);
+                return;
+            }
+            partitions.put(day, new Partition(day, gen, ArchiveSegment.open(file)));
+            if (cur != null) cur.segment().retire();
+        }
+    }
+
+    /** Günün güncel segmenti, okuma referansıyla (çağıran release eder); gün yoksa null. */
+    private ArchiveSegment acquire(LocalDate day) {
+        while (true) {
+            Partition p = partitions.get(day);
+            if (p == null) return null;
+            if (p.segment().acquire()) return p.segment();
+            // Tam bu arada emekliye ayrıldı: yerine konan yenisi okunur
+        }
+    }
+
+    // ---------- yazma (AlarmArchiver) ----------
+
+    /**
+     * Günün satırlarını (createdAt, id artan) arşive ekler: gün zaten varsa mevcut satırlarla birleştirip
+     * yeni nesil yazar (aynı id'de yeni gelen kazanır). Dosya diske zorlanıp yerine taşınmadan döner;
+     * döndüğünde satırlar tablodan silinebilir. Yazılan (birleşik) satır sayısını döner.
+     */
+    public synchronized long append(LocalDate day, Iterator<ArchivedAlarm> rows) throws IOException {
+        refresh();
+        Partition cur = partitions.get(day);
+        long gen = cur == null ? 1 : cur.generation() + 1;
+        Path target = dir.resolve(String.format("alarms-%s-g%d.seg", day, gen));
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+        ArchiveSegment old = cur == null ? null : acquire(day);
+
+        long n;
+        try {
+            Iterator<ArchivedAlarm> source = old == null ? rows : mergeRows(old.iterator(), rows);
+            n = ArchiveSegment.write(tmp, source, props.blockRows());
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        } finally {
+            if (old != null) old.release();
+        }
+        if (n == 0) {
+            Files.deleteIfExists(tmp);
+            return 0;
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        // Yeni ad diske inmeden dönülmez: çağıran hemen ardından satırları tablodan siler
+        FileSync.directory(dir);
+        install(day, gen, target);
+        return n;
+    }
+
+    // ---------- okuma ----------
+
+    public Instant newest() {
+        refresh();
+        return newestLoaded();
+    }
+
+    public Instant oldest() {
+        refresh();
+        return oldestLoaded();
+    }
+
+    /** [from, to) arşivle kesişiyor mu. */
+    public boolean overlaps(Instant from, Instant to) {
+        refresh();
+        Instant oldest = oldestLoaded(), newest = newestLoaded();
+        return oldest != null && from.compareTo(newest) <= 0 && oldest.isBefore(to);
+    }
+
+    private Instant newestLoaded() {
+        Map.Entry<LocalDate, Partition> e = partitions.lastEntry();
+        return e == null ? null : e.getValue().segment().newest();
+    }
+
+    private Instant oldestLoaded() {
+        Map.Entry<LocalDate, Partition> e = partitions.firstEntry();
+        return e == null ? null : e.getValue().segment().oldest();
+    }
+
+    /**
+     * (beforeTs, beforeId) imlecinden eski satırlar, en yeni önce, en fazla limit; imleç null ise en yeniden.
+     * Yalnızca imleçten eski blokları açar.
+     */
+    public List<AlarmSlice> history(AlarmFilter f, Instant beforeTs, String beforeId, int limit) {
+        refresh();
+        List<AlarmSlice> out = new ArrayList<>(Math.min(limit, 256));
+        if (partitions.isEmpty()) return out;
+        long before = beforeTs == null ? Long.MAX_VALUE : ArchiveSegment.micros(beforeTs);
+        NavigableMap<LocalDate, Partition> days = beforeTs == null
+                ? partitions.descendingMap()
+                : partitions.headMap(LocalDate.ofInstant(beforeTs, ZoneOffset.UTC), true).descendingMap();
+        for (LocalDate day : days.keySet()) {
+            ArchiveSegment seg = acquire(day);
+            if (seg == null) continue;
+            try {
+                for (int b = seg.blocks() - 1; b >= 0; b--) {
+                    if (seg.minMicros(b) > before) continue;
+                    ArchivedAlarm[] rows = seg.block(b);
+                    for (int i = rows.length - 1; i >= 0; i--) {
+                        AlarmSlice a = rows[i].toSlice();
+                        if (beforeTs != null && !olderThan(a, beforeTs, beforeId)) continue;
+                        if (!f.matches(a)) continue;
+                        out.add(a);
+                        if (out.size() >= limit) return out;
+                    }
+                }
+            } finally {
+                seg.release();
+            }
+        }
+        return out;
+    }
+
+    /**
+     * [from, to) eskiden yeniye, blok blok (bellekte yalnızca bir blok). Tarama başında günlerin segmentlerini
+     * tutar; arada yerlerine yenisi yazılsa da eski kopyadan tutarlı okur. Bitince ya da yarıda kapatılınca
+     * ({@link Scan#close}) segmentleri bırakır.
+     */
+    public Scan scan(AlarmFilter f, Instant from, Instant to) {
+        refresh();
+        List<ArchiveSegment> segments = new ArrayList<>();
+        for (LocalDate day : partitions.subMap(LocalDate.ofInstant(from, ZoneOffset.UTC), true,
+                LocalDate.ofInstant(to, ZoneOffset.UTC), true).keySet()) {
+            ArchiveSegment seg = acquire(day);
+            if (seg != null) segments.add(seg);
+        }
+        return new Scan(f, ArchiveSegment.micros(from), ArchiveSegment.micros(to), segments);
+    }
+
+    /** {@link #scan} sonucu: tuttuğu segmentleri tükenince ya da close ile bırakır. */
+    public static final class Scan implements Iterator<AlarmSlice>, AutoCloseable {
+        private final AlarmFilter f;
+        private final long lo, hi;
+        private final List<ArchiveSegment> segments;
+        private int s = 0, b = 0, i = 0;
+        private ArchivedAlarm[] cur = new ArchivedAlarm[0];
+        private AlarmSlice next;
+
+        private Scan(AlarmFilter f, long lo, long hi, List<ArchiveSegment> segments) {
+            this.f = f;
+            this.lo = lo;
+            this.hi = hi;
+            this.segments = segments;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (i < cur.length) {
+                    ArchivedAlarm a = cur[i++];
+                    long t = ArchiveSegment.micros(a.createdAt());
+                    if (t < lo || t >= hi) continue;
+                    AlarmSlice slice = a.toSlice();
+                    if (f.matches(slice)) next = slice;
+                    continue;
+                }
+                if (s >= segments.size()) return false;
+                ArchiveSegment seg = segments.get(s);
+                if (b >= seg.blocks()) {
+                    seg.release();
+                    s++;
+                    b = 0;
+                    continue;
+                }
+                int block = b++;
+                cur = (seg.maxMicros(block) < lo || seg.minMicros(block) >= hi) ? new ArchivedAlarm[0] : seg.block(block);
+                i = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public AlarmSlice next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            AlarmSlice a = next;
+            next = null;
+            return a;
+        }
+
+        /** Bırakılmamış segmentleri bırakır; tekrar çağrılabilir. */
+        @Override
+        public void close() {
+            while (s < segments.size()) segments.get(s++).release();
+            cur = new ArchivedAlarm[0];
+            next = null;
+        }
+    }
+
+    public int partitions() {
+        return partitions.size();
+    }
+
+    public long rows() {
+        long n = 0;
+        for (Partition p : partitions.values()) n += p.segment().rows();
+        return n;
+    }
+
+    public long bytes() {
+        long n = 0;
+        for (Partition p : partitions.values()) n += p.segment().bytes();
+        return n;
+    }
+
+    // ---------- sıcak + soğuk birleştirme ----------
+
+    private static final Comparator<AlarmSlice> ORDER = Comparator
+            .comparing(AlarmSlice::createdAt)
+            .thenComparing(a -> a.id() == null ? "" : a.id());
+
+    /** İki "en yeni önce" listeyi birleştirir, aynı satırı bir kez alır, en fazla limit. */
+    public static List<AlarmSlice> newestFirst(List<AlarmSlice> hot, List<AlarmSlice> cold, int limit) {
+        if (cold.isEmpty()) return hot;
+        List<AlarmSlice> out = new ArrayList<>(Math.min(limit, hot.size() + cold.size()));
+        int i = 0, j = 0;
+        AlarmSlice last = null;
+        while (out.size() < limit && (i < hot.size() || j < cold.size())) {
+            AlarmSlice a;
+            if (j >= cold.size() || (i < hot.size() && ORDER.compare(hot.get(i), cold.get(j)) >= 0)) a = hot.get(i++);
+            else a = cold.get(j++);
+            if (last != null && ORDER.compare(last, a) == 0) continue;
+            out.add(a);
+            last = a;
+        }
+        return out;
+    }
+
+    /** İki "eskiden yeniye" akışı birleştirir, aynı satırı bir kez verir. */
+    public static Iterator<AlarmSlice> oldestFirst(Iterator<AlarmSlice> cold, Iterator<AlarmSlice> hot) {
+        return new Iterator<>() {
+            AlarmSlice c = cold.hasNext() ? cold.next() : null;
+            AlarmSlice h = hot.hasNext() ? hot.next() : null;
+            AlarmSlice last, next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && (c != null || h != null)) {
+                    AlarmSlice a;
+                    if (h == null || (c != null && ORDER.compare(c, h) < 0)) {
+                        a = c;
+                        c = cold.hasNext() ? cold.next() : null;
+                    } else {
+                        a = h;
+                        h = hot.hasNext() ? hot.next() : null;
+                    }
+                    if (last != null && ORDER.compare(last, a) == 0) continue;
+                    last = next = a;
+                }
+                return next != null;
+            }
+
+            @Override
+            public AlarmSlice next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                AlarmSlice a = next;
+                next = null;
+                return a;
+            }
+        };
+    }
+
+    /** Arşiv segmenti + yeni satırlar, ikisi de artan; aynı id'de yeni satır kazanır. */
+    private static Iterator<ArchivedAlarm> mergeRows(Iterator<ArchivedAlarm> old, Iterator<ArchivedAlarm> fresh) {
+        Comparator<ArchivedAlarm> order = Comparator.comparing(ArchivedAlarm::createdAt)
+                .thenComparing(a -> a.id() == null ? "" : a.id());
+        return new Iterator<>() {
+            ArchivedAlarm o = old.hasNext() ? old.next() : null;
+            ArchivedAlarm n = fresh.hasNext() ? fresh.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return o != null || n != null;
+            }
+
+            @Override
+            public ArchivedAlarm next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int cmp = o == null ? 1 : n == null ? -1 : order.compare(o, n);
+                ArchivedAlarm a;
+                if (cmp < 0) {
+                    a = o;
+                    o = old.hasNext() ? old.next() : null;
+                } else {
+                    a = n;
+                    n = fresh.hasNext() ? fresh.next() : null;
+                    if (cmp == 0) o = old.hasNext() ? old.next() : null;
+                }
+                return a;
+            }
+        };
+    }
+
+    private static boolean olderThan(AlarmSlice a, Instant ts, String id) {
+        int c = a.createdAt().compareTo(ts);
+        return c < 0 || (c == 0 && (a.id() == null ? "" : a.id()).compareTo(id == null ? "" : id) < 0);
+    }
+}
@@ -0,0 +1,566 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ * Yerel yazma-önü günlüğü: DB'ye gidecek her satır önce buraya eklenir, {@code AlarmBatchWriter}
+ * buradan sırayla okuyup yazar ve yazdığı yeri checkpoint'e işler. DB yavaş ya da kapalıyken ingest
+ * yalnızca ekleme maliyetini öder; kayıtlar DB dönünce (ya da yeniden açılışta) checkpoint'ten itibaren
+ * yazılır. Upsert id ile olduğundan aynı kaydın yeniden yazılması zararsızdır.
+ *
+ * <p>Dosyalar: dir altında sabit boyutlu, bellek eşlemeli segmentler (wal-{başlangıç ofseti}.log) ve
+ * 8 baytlık checkpoint. Ofsetler mantıksaldır: segmentin başlangıcı + segment içi konum. Kayıt
+ * [uzunluk][crc32c][alanlar]; uzunluk 0 ya da sığmayan başlık segment sonu demektir. CRC'si tutmayan kayıt
+ * da (kurtarmada ve okurken aynı kuralla) segmentin geri kalanıyla birlikte atlanır. Eşlenmiş sayfalar
+ * süreç çökse de çekirdekte kalır; makine çökmesine karşı fsync syncInterval'de bir, toplu yapılır.
+ * Tamamı yazılmış (ve fsync'lenmiş) segmentler eşlemesi kaldırılıp silinir; bu dosya işi append kilidi
+ * dışında yapılır. Toplam boyut maxSize'ı aşacaksa yeni kayıt reddedilir.
+ */
+@Component
+public class AlarmJournal implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(AlarmJournal.class);
+
+    private static final Pattern FILE = Pattern.compile("wal-(\\d{20})\\.log");
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int HEADER = 8;               // uzunluk + crc
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    /** Eşlenmiş segment; writer yalnızca append kilidi altında, okuyucular mutlak get ile kullanır. */
+    private static final class Segment {
+        final long base;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buf;
+        final ByteBuffer writer;
+
+        Segment(long base, Path path, FileChannel channel, MappedByteBuffer buf) {
+            this.base = base;
+            this.path = path;
+            this.channel = channel;
+            this.buf = buf;
+            this.writer = buf.duplicate();
+        }
+
+        int capacity() {
+            return buf.capacity();
+        }
+
+        long end() {
+            return base + buf.capacity();
+        }
+    }
+
+    private final AlarmProps.Journal props;
+    private final Path dir;
+    /** Taban ofset -> segment. */
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final CRC32C crc = new CRC32C();       // append kilidi altında
+    private final CRC32C readCrc = new CRC32C();   // okuyan thread'de (açılışta kurtarma)
+
+    private FileChannel checkpointChannel;
+    private MappedByteBuffer checkpoint;
+
+    // yazan taraf: append() kilidi altında değişir
+    private Segment head;
+    private volatile long writePos;
+    private boolean readerWaiting;
+    private long lastRejectLog;
+
+    // okuyan taraf: tek thread (AlarmBatchWriter)
+    private Segment readSeg;
+    private long readPos;
+    private volatile long committed;
+
+    private volatile long synced;
+    private ScheduledExecutorService syncer;
+    private volatile boolean running;
+
+    private final Timer appendTimer;
+    private final Timer syncTimer;
+    private final Counter rejected;
+
+    public AlarmJournal(AlarmProps props, MeterRegistry registry) {
+        this.props = props.journal();
+        this.dir = Paths.get(this.props.dir());
+
+        this.appendTimer = Timer.builder("alarm.journal.append")
+                .description("Bir kaydın günlüğe eklenme süresi (ingest'in ödediği)")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.syncTimer = Timer.builder("alarm.journal.sync")
+                .description("Toplu fsync süresi")
+                .register(registry);
+        this.rejected = Counter.builder("alarm.journal.rejected")
+                .description("Günlük dolu olduğu için reddedilen kayıtlar")
+                .register(registry);
+        Gauge.builder("alarm.journal.lag.bytes", this, j -> j.writePos - j.committed)
+                .description("Günlükte olup henüz DB'ye yazılmamış bayt")
+                .register(registry);
+        Gauge.builder("alarm.journal.segments", segments, Map::size).register(registry);
+
+        if (this.props.enabled()) open();
+    }
+
+    public boolean enabled() {
+        return props.enabled();
+    }
+
+    // ---------- açılış / kurtarma ----------
+
+    private void open() {
+        try {
+            Files.createDirectories(dir);
+            checkpointChannel = FileChannel.open(dir.resolve(CHECKPOINT),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            checkpoint = checkpointChannel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            long cp = checkpoint.getLong(0);
+
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "wal-*.log")) {
+                for (Path p : ds) {
+                    Matcher m = FILE.matcher(p.getFileName().toString());
+                    if (!m.matches()) continue;
+                    if (Files.size(p) == 0) {
+                        Files.delete(p);   // oluşturulurken kesilmiş
+                        continue;
+                    }
+                    long base = Long.parseLong(m.group(1));
+                    segments.put(base, map(p, base, (int) Files.size(p)));
+                }
+            }
+
+            if (segments.isEmpty()) {
+                head = create(cp);
+                writePos = cp;
+            } else {
+                // checkpoint'ten ileri geçerli kayıtları izle; ilk bozuk/boş kayıt yazma konumudur
+                cp = Math.max(cp, first().base);
+                cp = Math.min(cp, segments.lastEntry().getValue().end());
+                long pos = cp;
+                Segment seg = floor(pos);
+                for (;;) {
+                    int n = (int) (pos - seg.base);
+                    int len = validAt(seg, n);
+                    if (len > 0) {
+                        pos += len;
+                        continue;
+                    }
+                    Segment next = higher(seg);
+                    if (next == null) break;
+                    if (corruptAt(seg, n)) {
+                        log.warn("Journal record at offset {} in {} is corrupt, skipping {} bytes to the next segment",
+                                pos, seg.path.getFileName(), seg.end() - pos);
+                    }
+                    seg = next;
+                    pos = next.base;
+                }
+                head = seg;
+                writePos = pos;
+            }
+            committed = cp;
+            synced = writePos;
+            readPos = cp;
+            readSeg = floor(cp);
+            purge();
+            log.info("Journal dir={} segments={} pending={} bytes", dir.toAbsolutePath(), segments.size(), writePos - cp);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Journal open failed: " + dir.toAbsolutePath(), ex);
+        }
+    }
+
+    /** n konumunda CRC'si tutan kaydın toplam boyu; yoksa (segment sonu ya da bozuk) 0. */
+    private int validAt(Segment s, int n) {
+        if (n + HEADER > s.capacity()) return 0;
+        int len = s.buf.getInt(n);
+        if (len <= 0 || len > s.capacity() - n - HEADER) return 0;
+        readCrc.reset();
+        readCrc.update(s.buf.slice(n + HEADER, len));
+        return (int) readCrc.getValue() == s.buf.getInt(n + 4) ? HEADER + len : 0;
+    }
+
+    /** validAt 0 döndüyse: segment sonu işareti değil, bozuk kayıt mı. */
+    private static boolean corruptAt(Segment s, int n) {
+        return n + HEADER <= s.capacity() && s.buf.getInt(n) != 0;
+    }
+
+    private Segment first() {
+        Map.Entry<Long, Segment> e = segments.firstEntry();
+        return e == null ? null : e.getValue();
+    }
+
+    private Segment floor(long pos) {
+        Map.Entry<Long, Segment> e = segments.floorEntry(pos);
+        return e == null ? first() : e.getValue();
+    }
+
+    private Segment higher(Segment s) {
+        Map.Entry<Long, Segment> e = segments.higherEntry(s.base);
+        return e == null ? null : e.getValue();
+    }
+
+    private Segment create(long base) throws IOException {
+        Path p = dir.resolve(String.format("wal-%020d.log", base));
+        Segment s = map(p, base, (int) props.segmentSize().toBytes());
+        segments.put(base, s);
+        return s;
+    }
+
+    private static Segment map(Path p, long base, int size) throws IOException {
+        FileChannel ch = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(base, p, ch, ch.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    // ---------- yazma (ingest thread'leri) ----------
+
+    /** Kaydı ekler; günlük kapalı ya da dolu ise false döner (kayıt yazılmadı). */
+    public boolean append(AlarmEntity e) {
+        long t0 = System.nanoTime();
+        synchronized (this) {
+            if (head == null) return false;
+            int n = (int) (writePos - head.base);
+            int len = encode(head.writer, n, e);
+            if (len < 0) {
+                if (!roll(n)) return false;
+                n = 0;
+                len = encode(head.writer, 0, e);
+                if (len < 0) {
+                    rejected.increment();
+                    log.warn("Journal record larger than segment, dropped id={}", e.getId());
+                    return false;
+                }
+            }
+            writePos = head.base + n + len;
+            if (readerWaiting) notifyAll();
+        }
+        appendTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        return true;
+    }
+
+    /** Segment sonu işaretini koyup yenisine geçer; maxSize aşılacaksa false. */
+    private boolean roll(int n) {
+        long limit = props.maxSize().toBytes();
+        if ((long) (segments.size() + 1) * props.segmentSize().toBytes() > limit) {
+            rejected.increment();
+            long now = System.currentTimeMillis();
+            if (now - lastRejectLog > 10_000) {
+                lastRejectLog = now;
+                log.warn("Journal full ({} segments, max {}), rejecting records until the database catches up",
+                        segments.size(), props.maxSize());
+            }
+            return false;
+        }
+        if (n + Integer.BYTES <= head.capacity()) head.buf.putInt(n, 0);
+        try {
+            head = create(head.end());
+        } catch (IOException ex) {
+            rejected.increment();
+            log.error("Journal segment create failed: {}", ex.toString());
+            return false;
+        }
+        return true;
+    }
+
+    /** Kaydı n'ye yazar; toplam boyu, sığmazsa -1 döner. */
+    private int encode(ByteBuffer b, int n, AlarmEntity e) {
+        try {
+            b.clear().position(n + HEADER);
+            putString(b, e.getId());
+            putString(b, e.getLevel());
+            putString(b, e.getType());
+            putString(b, e.getLocation());
+            putString(b, e.getMessage());
+            putString(b, e.getTarget());
+            b.putInt(e.getPriority() == null ? NULL_INT : e.getPriority());
+            putString(b, e.getStatus());
+            putInstant(b, e.getCreatedAt());
+            putInstant(b, e.getEndedAt());
+        } catch (BufferOverflowException full) {
+            return -1;
+        }
+        int len = b.position() - n - HEADER;
+        crc.reset();
+        crc.update(b.slice(n + HEADER, len));
+        b.putInt(n + 4, (int) crc.getValue());
+        b.putInt(n, len);
+        return HEADER + len;
+    }
+
+    private static void putString(ByteBuffer b, String s) {
+        if (s == null) {
+            b.putInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        b.putInt(bytes.length).put(bytes);
+    }
+
+    private static void putInstant(ByteBuffer b, Instant t) {
+        b.putLong(t == null ? NULL_TIME : t.getEpochSecond()).putInt(t == null ? 0 : t.getNano());
+    }
+
+    // ---------- okuma (AlarmBatchWriter thread'i) ----------
+
+    /** Okunmamış kayıt var mı. */
+    public boolean hasUnread() {
+        return readPos < writePos;
+    }
+
+    /** Yazılmış ama DB'ye işlendiği checkpoint'e geçmemiş bayt. */
+    public long pending() {
+        return writePos - committed;
+    }
+
+    /**
+     * AlarmBatchWriter'daki kuyruk boşaltmasıyla aynı: ilk kayıt için en çok waitNanos bekler, sonra max
+     * kayda ya da ilk kayıttan itibaren waitNanos dolana kadar toplar. Okunanlar {@link #commit()} ile
+     * işlenene kadar açılışta yeniden okunur.
+     */
+    public void poll(List<AlarmEntity> out, int max, long waitNanos) throws InterruptedException {
+        if (!await(System.nanoTime() + waitNanos)) return;
+        long deadline = System.nanoTime() + waitNanos;
+        while (out.size() < max) {
+            if (!hasUnread() && !await(deadline)) break;
+            out.add(readNext());
+        }
+    }
+
+    private boolean await(long deadline) throws InterruptedException {
+        if (hasUnread()) return true;
+        synchronized (this) {
+            try {
+                while (!hasUnread()) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0 || head == null) return false;
+                    readerWaiting = true;
+                    TimeUnit.NANOSECONDS.timedWait(this, left);
+                }
+                return true;
+            } finally {
+                readerWaiting = false;
+            }
+        }
+    }
+
+    /** Kurtarmayla aynı kural: geçersiz kayıtta segmentin geri kalanı atlanır (açılışta loglandı). */
+    private AlarmEntity readNext() {
+        for (;;) {
+            int n = (int) (readPos - readSeg.base);
+            int len = validAt(readSeg, n);
+            if (len == 0) {
+                Segment next = higher(readSeg);
+                if (next == null) throw new IllegalStateException("Journal read past end at " + readPos);
+                readSeg = next;
+                readPos = next.base;
+                continue;
+            }
+            AlarmEntity e = decode(readSeg.buf, n + HEADER);
+            readPos += len;
+            return e;
+        }
+    }
+
+    private static AlarmEntity decode(ByteBuffer b, int at) {
+        int[] p = {at};
+        AlarmEntity e = new AlarmEntity();
+        e.setId(getString(b, p));
+        e.setLevel(getString(b, p));
+        e.setType(getString(b, p));
+        e.setLocation(getString(b, p));
+        e.setMessage(getString(b, p));
+        e.setTarget(getString(b, p));
+        int priority = b.getInt(p[0]);
+        p[0] += Integer.BYTES;
+        e.setPriority(priority == NULL_INT ? null : priority);
+        e.setStatus(getString(b, p));
+        e.setCreatedAt(getInstant(b, p));
+        e.setEndedAt(getInstant(b, p));
+        return e;
+    }
+
+    private static String getString(ByteBuffer b, int[] p) {
+        int len = b.getInt(p[0]);
+        p[0] += Integer.BYTES;
+        if (len < 0) return null;
+        byte[] bytes = new byte[len];
+        b.get(p[0], bytes);
+        p[0] += len;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Instant getInstant(ByteBuffer b, int[] p) {
+        long sec = b.getLong(p[0]);
+        int nano = b.getInt(p[0] + Long.BYTES);
+        p[0] += Long.BYTES + Integer.BYTES;
+        return sec == NULL_TIME ? null : Instant.ofEpochSecond(sec, nano);
+    }
+
+    /** Şimdiye kadar okunanlar DB'ye yazıldı: checkpoint ilerler, tamamı yazılmış segmentler silinir. */
+    public void commit() {
+        committed = readPos;
+        checkpoint.putLong(0, readPos);
+        purge();
+    }
+
+    /** Kilit altında yalnızca haritadan çıkarır; kapatma, eşleme kaldırma ve silme ingest'i bekletmez. */
+    private void purge() {
+        for (Segment s : detachPurgeable()) {
+            try {
+                s.channel.close();
+                unmap(s.buf);
+                Files.deleteIfExists(s.path);
+            } catch (IOException ex) {
+                log.warn("Journal segment delete failed {}: {}", s.path, ex.toString());
+            }
+        }
+    }
+
+    /**
+     * Silinebilir baştaki segmentler: tamamı işlenmiş, okunmuyor ve fsync'i bitmiş (syncer son turunda
+     * synced'i bu segmentin sonuna taşımışsa bir daha dokunmaz; eşleme kaldırılmış belleğe force çökme olur).
+     */
+    private synchronized List<Segment> detachPurgeable() {
+        List<Segment> out = new ArrayList<>(1);
+        for (;;) {
+            Segment first = first();
+            if (first == null || first == head || first == readSeg || first.end() > committed || first.end() > synced) {
+                return out;
+            }
+            segments.remove(first.base);
+            out.add(first);
+        }
+    }
+
+    /**
+     * Eşlemeyi hemen kaldırır: yoksa silinen dosyanın diski GC buffer'ı toplayana kadar geri verilmez.
+     * Genel API olmadığından sun.misc.Unsafe.invokeCleaner; erişilemezse GC'ye bırakılır.
+     */
+    private static void unmap(MappedByteBuffer buf) {
+        if (INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buf);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            log.debug("Journal segment unmap failed: {}", ex.toString());
+        }
+    }
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method cleaner = null;
+        try {
+            Class<?> c = Class.forName("sun.misc.Unsafe");
+            Field f = c.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            unsafe = f.get(null);
+            cleaner = c.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            log.debug("Mapped buffer unmapping unavailable: {}", ex.toString());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = cleaner;
+    }
+
+    // ---------- fsync ----------
+
+    private void sync() {
+        long w = writePos;
+        long from = synced;
+        if (w == from) return;
+        long t0 = System.nanoTime();
+        for (Segment s : segments.values()) {
+            if (s.end() <= from || s.base >= w) continue;
+            int start = (int) (Math.max(from, s.base) - s.base);
+            int end = (int) (Math.min(w, s.end()) - s.base);
+            s.buf.force(start, end - start);
+        }
+        checkpoint.force();
+        synced = w;
+        syncTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+    }
+
+    // ---------- lifecycle ----------
+    @Override
+    public void start() {
+        if (!props.enabled()) return;
+        running = true;
+        syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alarm-journal-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        long ms = Math.max(1, props.syncInterval().toMillis());
+        syncer.scheduleWithFixedDelay(() -> {
+            try {
+                sync();
+            } catch (RuntimeException ex) {
+                log.warn("Journal sync failed: {}", ex.toString());
+            }
+        }, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (syncer == null) return;
+        syncer.shutdown();
+        try {
+            syncer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            head = null;   // sonrası reddedilir
+            notifyAll();
+        }
+        sync();
+        if (pending() > 0) log.info("Journal closed with {} bytes pending, replayed on next start", pending());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // AlarmBatchWriter'dan önce açılır, ondan sonra kapanır
+        return Integer.MIN_VALUE + 500;
+    }
+}
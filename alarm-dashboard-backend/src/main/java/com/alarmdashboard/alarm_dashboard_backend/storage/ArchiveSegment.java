@@ -0,0 +1,492 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Değişmez arşiv segmenti: bir günün satırları (createdAt, id) artan sırada, blok blok.
+ *
+ * <p>Dosya: [blok 0][blok 1]...[indeks][footer]. Blok, sütun sütun kodlanıp DEFLATE ile sıkıştırılır:
+ * createdAt mikrosaniye delta (varint), endedAt createdAt'e göre fark, priority varint; metin sütunları
+ * blok içi sözlükle (tekrar eden değer yalnızca numarasıyla yazılır). İndeks her blok için konum,
+ * uzunluk, satır sayısı ve en eski/en yeni zamanı tutar (küçük zaman indeksi): aralık ve imleç
+ * sorguları yalnızca kesişen blokları açar. Footer: indeks konumu, MAGIC, VERSION.
+ *
+ * <p>Okumalar konumlu (pread) olduğundan tek kanal thread'ler arasında paylaşılır. Kanal referans
+ * sayılıdır: arşivin kendi referansı + okuyan her sorgu ({@link #acquire}/{@link #release}). Yerine yenisi
+ * yazılan segment {@link #retire} ile bırakılır; kanal son okuyucu bitince kapanır ve dosya o zaman silinir.
+ */
+final class ArchiveSegment implements Closeable {
+
+    private static final int MAGIC = 0x41444253;   // "ADBS"
+    private static final int VERSION = 1;
+    private static final int FOOTER_BYTES = 16;
+    private static final int INDEX_ENTRY_BYTES = 8 + 4 + 4 + 4 + 8 + 8;
+
+    // Metin sütunları, kodlama sırasıyla
+    private static final int COLUMNS = 7;   // id, target, location, level, type, message, status
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final int[] rawLengths;
+    private final int[] rows;
+    private final long[] minMicros;
+    private final long[] maxMicros;
+    private final long totalRows;
+    // 1 = arşivin referansı; 0'a inince kanal kapanır
+    private final AtomicInteger refs = new AtomicInteger(1);
+    private volatile boolean retired;
+
+    private ArchiveSegment(Path path, FileChannel channel, long size, long[] offsets, int[] lengths, int[] rawLengths,
+                           int[] rows, long[] minMicros, long[] maxMicros) {
+        this.path = path;
+        this.channel = channel;
+        this.size = size;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.rawLengths = rawLengths;
+        this.rows = rows;
+        this.minMicros = minMicros;
+        this.maxMicros = maxMicros;
+        long n = 0;
+        for (int r : rows) n += r;
+        this.totalRows = n;
+    }
+
+    // ---------- yazma ----------
+
+    /** Satırları (createdAt, id artan sırada) yeni dosyaya yazar ve diske zorlar; yazılan satır sayısını döner. */
+    static long write(Path file, Iterator<ArchivedAlarm> source, int blockRows) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            Out index = new Out(256);
+            List<ArchivedAlarm> block = new ArrayList<>(blockRows);
+            Deflater deflater = new Deflater();
+            long position = 0, total = 0;
+            int blocks = 0;
+            try {
+                while (true) {
+                    boolean more = source.hasNext();
+                    if (more) block.add(source.next());
+                    if (block.size() == blockRows || (!more && !block.isEmpty())) {
+                        byte[] raw = encode(block);
+                        byte[] packed = deflate(deflater, raw);
+                        writeFully(ch, ByteBuffer.wrap(packed));
+                        index.writeLong(position);
+                        index.writeInt(packed.length);
+                        index.writeInt(raw.length);
+                        index.writeInt(block.size());
+                        index.writeLong(micros(block.get(0).createdAt()));
+                        index.writeLong(micros(block.get(block.size() - 1).createdAt()));
+                        position += packed.length;
+                        total += block.size();
+                        blocks++;
+                        block.clear();
+                    }
+                    if (!more) break;
+                }
+            } finally {
+                deflater.end();
+            }
+            ByteBuffer tail = ByteBuffer.allocate(4 + index.size() + FOOTER_BYTES);
+            tail.putInt(blocks).put(index.buf, 0, index.size());
+            tail.putLong(position).putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(ch, tail);
+            ch.force(true);
+            return total;
+        }
+    }
+
+    private static byte[] encode(List<ArchivedAlarm> block) {
+        Out out = new Out(block.size() * 96);
+        int n = block.size();
+        out.varint(n);
+
+        long prev = 0;
+        for (ArchivedAlarm a : block) {
+            long t = micros(a.createdAt());
+            out.zigzag(t - prev);
+            prev = t;
+        }
+        for (ArchivedAlarm a : block) {
+            out.varint(a.endedAt() == null ? 0 : zigzag(micros(a.endedAt()) - micros(a.createdAt())) + 1);
+        }
+        for (ArchivedAlarm a : block) {
+            out.varint(a.priority() == null ? 0 : zigzag(a.priority()) + 1);
+        }
+        for (int c = 0; c < COLUMNS; c++) {
+            Map<String, Integer> dict = new HashMap<>();
+            for (ArchivedAlarm a : block) {
+                String v = column(a, c);
+                if (v == null) {
+                    out.varint(0);
+                    continue;
+                }
+                Integer ref = dict.get(v);
+                if (ref != null) {
+                    out.varint(ref + 2L);
+                } else {
+                    dict.put(v, dict.size());
+                    byte[] utf8 = v.getBytes(StandardCharsets.UTF_8);
+                    out.varint(1);
+                    out.varint(utf8.length);
+                    out.write(utf8);
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static String column(ArchivedAlarm a, int c) {
+        return switch (c) {
+            case 0 -> a.id();
+            case 1 -> a.target();
+            case 2 -> a.location();
+            case 3 -> a.level();
+            case 4 -> a.type();
+            case 5 -> a.message();
+            default -> a.status();
+        };
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] chunk = new byte[16 * 1024];
+        while (!deflater.finished()) {
+            int len = deflater.deflate(chunk);
+            out.write(chunk, 0, len);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    // ---------- okuma ----------
+
+    static ArchiveSegment open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = ch.size();
+            if (size < FOOTER_BYTES + 4) throw new IOException("Truncated segment: " + file);
+            ByteBuffer footer = readAt(ch, size - FOOTER_BYTES, FOOTER_BYTES);
+            long indexAt = footer.getLong();
+            if (footer.getInt() != MAGIC) throw new IOException("Not an archive segment: " + file);
+            int version = footer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported segment version " + version + ": " + file);
+            if (indexAt < 0 || indexAt > size - FOOTER_BYTES - 4) throw new IOException("Corrupt segment index: " + file);
+
+            ByteBuffer index = readAt(ch, indexAt, (int) (size - FOOTER_BYTES - indexAt));
+            int blocks = index.getInt();
+            if (blocks < 0 || (long) blocks * INDEX_ENTRY_BYTES != index.remaining()) {
+                throw new IOException("Corrupt segment index: " + file);
+            }
+            long[] offsets = new long[blocks];
+            int[] lengths = new int[blocks], rawLengths = new int[blocks], rows = new int[blocks];
+            long[] min = new long[blocks], max = new long[blocks];
+            for (int b = 0; b < blocks; b++) {
+                offsets[b] = index.getLong();
+                lengths[b] = index.getInt();
+                rawLengths[b] = index.getInt();
+                rows[b] = index.getInt();
+                min[b] = index.getLong();
+                max[b] = index.getLong();
+                if (offsets[b] < 0 || lengths[b] < 0 || rawLengths[b] < 0 || offsets[b] + lengths[b] > indexAt) {
+                    throw new IOException("Corrupt segment index: " + file);
+                }
+            }
+            return new ArchiveSegment(file, ch, size, offsets, lengths, rawLengths, rows, min, max);
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long bytes() {
+        return size;
+    }
+
+    long rows() {
+        return totalRows;
+    }
+
+    int blocks() {
+        return offsets.length;
+    }
+
+    long minMicros(int block) {
+        return minMicros[block];
+    }
+
+    long maxMicros(int block) {
+        return maxMicros[block];
+    }
+
+    Instant oldest() {
+        return offsets.length == 0 ? null : instant(minMicros[0]);
+    }
+
+    Instant newest() {
+        return offsets.length == 0 ? null : instant(maxMicros[offsets.length - 1]);
+    }
+
+    /** Bloğun satırları, artan sırada. */
+    ArchivedAlarm[] block(int b) {
+        try {
+            ByteBuffer packed = readAt(channel, offsets[b], lengths[b]);
+            byte[] raw = new byte[rawLengths[b]];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(packed.array(), 0, lengths[b]);
+                int n = 0;
+                while (n < raw.length) {
+                    int k = inflater.inflate(raw, n, raw.length - n);
+                    // Girdi bitti / sözlük istiyor / akış erken bitti: blok indekstekinden kısa, ilerleme yok
+                    if (k == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new DataFormatException("block shorter than " + raw.length + " bytes");
+                    }
+                    n += k;
+                }
+            } finally {
+                inflater.end();
+            }
+            return decode(new In(raw));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (DataFormatException | RuntimeException ex) {
+            throw new UncheckedIOException(new IOException("Corrupt block " + b + " in " + path, ex));
+        }
+    }
+
+    /** Tüm satırlar, artan sırada, blok blok açılarak. */
+    Iterator<ArchivedAlarm> iterator() {
+        return new Iterator<>() {
+            int b = 0, i = 0;
+            ArchivedAlarm[] cur = new ArchivedAlarm[0];
+
+            @Override
+            public boolean hasNext() {
+                while (i >= cur.length) {
+                    if (b >= offsets.length) return false;
+                    cur = block(b++);
+                    i = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public ArchivedAlarm next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return cur[i++];
+            }
+        };
+    }
+
+    private static ArchivedAlarm[] decode(In in) {
+        int n = (int) in.varint();
+        long[] created = new long[n];
+        long prev = 0;
+        for (int i = 0; i < n; i++) created[i] = prev = prev + in.zigzag();
+        Instant[] ended = new Instant[n];
+        for (int i = 0; i < n; i++) {
+            long v = in.varint();
+            ended[i] = v == 0 ? null : instant(created[i] + unzigzag(v - 1));
+        }
+        Integer[] priority = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            long v = in.varint();
+            priority[i] = v == 0 ? null : (int) unzigzag(v - 1);
+        }
+        String[][] text = new String[COLUMNS][n];
+        for (int c = 0; c < COLUMNS; c++) {
+            List<String> dict = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                long code = in.varint();
+                if (code == 0) continue;
+                if (code == 1) {
+                    String v = in.utf8((int) in.varint());
+                    dict.add(v);
+                    text[c][i] = v;
+                } else {
+                    text[c][i] = dict.get((int) (code - 2));
+                }
+            }
+        }
+        ArchivedAlarm[] out = new ArchivedAlarm[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = new ArchivedAlarm(text[0][i], text[3][i], text[4][i], text[2][i], text[5][i], text[1][i],
+                    priority[i], text[6][i], instant(created[i]), ended[i]);
+        }
+        return out;
+    }
+
+    private static ByteBuffer readAt(FileChannel ch, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, position + buf.position()) < 0) throw new IOException("Unexpected end of segment");
+        }
+        return buf.flip();
+    }
+
+    /** Okuma için referans alır; segment kapanmışsa (yerine yenisi geçip son okuyucu bitmiş) false. */
+    boolean acquire() {
+        while (true) {
+            int r = refs.get();
+            if (r == 0) return false;
+            if (refs.compareAndSet(r, r + 1)) return true;
+        }
+    }
+
+    void release() {
+        if (refs.decrementAndGet() != 0) return;
+        try {
+            channel.close();
+            if (retired) Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** Yerine yenisi geçti: arşivin referansını bırakır; son okuyucu bitince kanal kapanır, dosya silinir. */
+    void retire() {
+        retired = true;
+        release();
+    }
+
+    /** Arşivin referansını bırakır (dosya kalır). */
+    @Override
+    public void close() {
+        release();
+    }
+
+    // ---------- zaman + varint ----------
+
+    static long micros(Instant t) {
+        return Math.addExact(Math.multiplyExact(t.getEpochSecond(), 1_000_000L), t.getNano() / 1_000);
+    }
+
+    static Instant instant(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /** Büyüyen bayt tamponu; yalnızca bu dosyanın ihtiyacı kadar. */
+    private static final class Out {
+        byte[] buf;
+        int len;
+
+        Out(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        private void ensure(int extra) {
+            if (len + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+        }
+
+        void write(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, buf, len, b.length);
+            len += b.length;
+        }
+
+        void varint(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[len++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[len++] = (byte) v;
+        }
+
+        void zigzag(long v) {
+            varint(ArchiveSegment.zigzag(v));
+        }
+
+        void writeInt(int v) {
+            ensure(4);
+            ByteBuffer.wrap(buf, len, 4).putInt(v);
+            len += 4;
+        }
+
+        void writeLong(long v) {
+            ensure(8);
+            ByteBuffer.wrap(buf, len, 8).putLong(v);
+            len += 8;
+        }
+
+        int size() {
+            return len;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, len);
+        }
+    }
+
+    private static final class In {
+        final byte[] buf;
+        int pos;
+
+        In(byte[] buf) {
+            this.buf = buf;
+        }
+
+        long varint() {
+            long v = 0;
+            int shift = 0;
+            while (true) {
+                byte b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return v;
+                shift += 7;
+            }
+        }
+
+        long zigzag() {
+            return unzigzag(varint());
+        }
+
+        String utf8(int n) {
+            String s = new String(buf, pos, n, StandardCharsets.UTF_8);
+            pos += n;
+            return s;
+        }
+    }
+}
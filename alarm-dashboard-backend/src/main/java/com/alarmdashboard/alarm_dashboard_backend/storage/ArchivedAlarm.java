@@ -0,0 +1,23 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmSlice;
+
+import java.time.Instant;
+
+/** alarms satırının arşivdeki hali: tablodaki tüm sütunlar. */
+public record ArchivedAlarm(
+        String id,
+        String level,
+        String type,
+        String location,
+        String message,
+        String target,
+        Integer priority,
+        String status,
+        Instant createdAt,
+        Instant endedAt
+) {
+    public AlarmSlice toSlice() {
+        return new AlarmSlice(id, target, location, level, message, createdAt);
+    }
+}
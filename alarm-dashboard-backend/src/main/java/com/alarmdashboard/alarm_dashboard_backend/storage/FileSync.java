@@ -0,0 +1,27 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Dizin fsync'i: rename/create/delete ancak üst dizin diske zorlanınca kalıcıdır. Dosya zorlanıp
+ * taşındıktan sonra bu yapılmazsa çökmede yeni ad kaybolabilir (eskisi silinmişse iki kopya birden).
+ * Windows dizini kanal olarak açtırmaz; orada NTFS meta veriyi zaten günlükler, atlanır.
+ */
+final class FileSync {
+
+    private static final boolean WINDOWS =
+            System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+
+    private FileSync() {}
+
+    static void directory(Path dir) throws IOException {
+        if (WINDOWS) return;
+        try (FileChannel ch = FileChannel.open(dir.toAbsolutePath(), StandardOpenOption.READ)) {
+            ch.force(true);
+        }
+    }
+}
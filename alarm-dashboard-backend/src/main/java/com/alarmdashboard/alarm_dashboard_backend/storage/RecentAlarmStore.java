@@ -1,59 +1,269 @@
 package com.alarmdashboard.alarm_dashboard_backend.storage;
 
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
 import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedDeque;
 
+/**
+ * Son alarmlar için sabit kapasiteli halka tampon.
+ * Tek yazar (append kilitli), çok okuyucu (kilitsiz): okuyucu head'i okur, slotları kopyalar,
+ * sonra head'i tekrar okuyup bu arada üzerine yazılmış olabilecek en eski slotları atar.
+ * Zaman damgaları paralel long[]'da tutulur; since() ikili arama ile sınırı bulur.
+ * summary() için saniyelik kovalarda artımlı sayaçlar (WindowedCounts) append ile güncellenir; summary
+ * yazar kilidini almaz, mühürlü kovaları ve tampondaki sınır dilimlerini kilitsiz okur.
+ * Kapanışlar (endedAt dolu olay) da sıra no alır, replay/bootstrap ile istemciye gider; sayılmaz.
+ * Sıra no (append'in dönüşü) yayında "seq" olarak gider; after() yeniden bağlanan istemciye
+ * yalnızca kaçırdıklarını verir. epoch süreç başına sabittir: yeniden başlayan sunucunun
+ * sıfırdan başlayan sıra no'ları eski istemci sıra no'larıyla karışmasın.
+ * Açılışta önceki çalışmanın olayları {@link #restore} ile (canlı olaylardan önce) geri yüklenir.
+ */
 @Component
 public class RecentAlarmStore {
-    private final Deque<AlarmEvent> buf = new ConcurrentLinkedDeque<>();
-    private final int maxSize = 10000; // güvenli üst sınır
-    private final long retentionMs = Duration.ofDays(35).toMillis();
+    private final int capacity;
+    private final int ring;               // capacity + 1: yazılmakta olan slot hiçbir zaman okunabilir aralıkta değil
+    private final long retentionMs;
 
-    public void append(AlarmEvent e) {
-        buf.addFirst(e);
-        prune();
+    private final AlarmEvent[] events;
+    private final long[] times;           // epoch ms, ekleme sırasına göre azalmayan
+
+    private final Object writeLock = new Object();
+    private volatile long head;           // bir sonraki yazılacak sıra no; en yeni = head-1
+    private volatile long tail;           // retention'a göre en eski geçerli sıra no
+    private long lastTime = Long.MIN_VALUE;
+
+    private final WindowedCounts counts = new WindowedCounts();
+
+    // Tamponun eksiksiz olduğu an: bu andan (hariç) sonraki tüm olaylar tamponda
+    private volatile long completeAfter;
+    private long evictedUpTo = Long.MIN_VALUE;   // tahliye edilen en yeni olayın zamanı
+
+    private final long epoch = System.currentTimeMillis();
+
+    public RecentAlarmStore(AlarmProps props) {
+        this.capacity = props.recent().capacity();
+        this.retentionMs = props.recent().retention().toMillis();
+        this.ring = capacity + 1;
+        this.events = new AlarmEvent[ring];
+        this.times = new long[ring];
+        // boş başlar: açılıştan önceki olayları bilmiyor
+        this.completeAfter = System.currentTimeMillis() - 1;
+    }
+
+    /** Olayı ekler, sıra no'sunu döner. */
+    public long append(AlarmEvent e) {
+        long now = System.currentTimeMillis();
+        // kapanış kendi anıyla; timestamp yoksa varış anı
+        Instant at = e.endedAt() != null ? e.endedAt() : e.timestamp();
+        return append(e, at != null ? at.toEpochMilli() : now, now);
+    }
+
+    /** Açılışta, canlı olaylardan önce: önceki çalışmanın olayı kendi tampon zamanıyla (epoch ms). */
+    public void restore(AlarmEvent e, long time) {
+        append(e, time, System.currentTimeMillis());
+    }
+
+    /** Geri yüklenenlerle birlikte after'dan (epoch ms, hariç) sonraki her olay tamponda. */
+    public void restoredAfter(long after) {
+        synchronized (writeLock) {
+            completeAfter = Math.max(after, evictedUpTo);
+        }
+    }
+
+    private long append(AlarmEvent e, long t, long now) {
+        synchronized (writeLock) {
+            // geriden gelen olay son zamana sabitlenir (ikili arama için)
+            if (t < lastTime) t = lastTime;
+            lastTime = t;
+
+            long seq = head;
+            int idx = slot(seq);
+            events[idx] = e;
+            times[idx] = t;
+            if (e.endedAt() == null) counts.add(seq, Math.floorDiv(t, 1000L), e.level(), e.location());
+            head = seq + 1;
+
+            prune(now);
+            return seq;
+        }
+    }
+
+    /**
+     * seq'ten sonra eklenen olaylar, eskiden yeniye. Aradakilerin hepsi tamponda değilse
+     * (kapasite/retention ile düştü), ilki notBefore'dan eskiyse ya da seq henüz verilmemişse null.
+     */
+    public Replay after(long seq, Instant notBefore) {
+        long h = head;
+        if (seq < -1 || seq >= h) return null;
+        long first = seq + 1;
+        if (first < Math.max(tail, h - capacity)) return null;
+        if (first < h && times[slot(first)] < notBefore.toEpochMilli()) return null;
+
+        List<AlarmEvent> out = new ArrayList<>((int) (h - first));
+        for (long s = first; s < h; s++) out.add(events[slot(s)]);
+        // okurken yazar ilerleyip en eski slotları ezdiyse ya da retention düşürdüyse güvenilmez
+        if (first < Math.max(tail, head - capacity)) return null;
+        return new Replay(out, h - 1);
+    }
+
+    /** Eskiden yeniye tüm içerik, tampon zamanları ve kapsama sınırı (snapshot için; yazarı kısa süre bekletir). */
+    public Contents contents() {
+        synchronized (writeLock) {
+            long lo = Math.max(tail, head - capacity);
+            int n = (int) (head - lo);
+            AlarmEvent[] ev = new AlarmEvent[n];
+            long[] ts = new long[n];
+            for (int i = 0; i < n; i++) {
+                int idx = slot(lo + i);
+                ev[i] = events[idx];
+                ts[i] = times[idx];
+            }
+            return new Contents(ev, ts, completeAfter);
+        }
+    }
+
+    /** Son eklenen olayın sıra no'su; boşsa -1. */
+    public long lastSeq() {
+        return head - 1;
     }
 
+    public long epoch() {
+        return epoch;
+    }
+
+    /** since ve sonrası, en yeniden eskiye. */
     public List<AlarmEvent> since(Instant since) {
-        List<AlarmEvent> out = new ArrayList<>();
-        for (AlarmEvent e : buf) {
-            if (e.timestamp() != null && !e.timestamp().isBefore(since)) out.add(e);
-            else break;
+        long from = since.toEpochMilli();
+        long h = head;
+        long lo = Math.max(tail, h - capacity);
+        long first = lowerBound(from, lo, h);
+
+        List<AlarmEvent> out = new ArrayList<>((int) Math.max(0, h - first));
+        for (long s = h - 1; s >= first; s--) {
+            AlarmEvent e = events[slot(s)];
+            if (e != null) out.add(e);
         }
-        return out;
+        return trimOverwritten(out, h, first);
     }
 
+    /**
+     * Pencere içindeki olayların sayımı: pencereye tümüyle giren mühürlü kovalar toplanır (O(kova)); en yeni
+     * (yazılmakta olan) kova ve pencere başının düştüğü kova tampondan tek tek sayılır. Sonuç tam taramayla
+     * aynıdır. Yazar kilidi alınmaz; okunan slotlar bu arada ezildiyse yeniden denenir, üst üste
+     * ezilirse (pencere tamponun tamamına yakın, yazar çok hızlı) son deneme kilit altında yapılır.
+     */
     public Summary summary(Duration window) {
-        Instant since = Instant.now().minus(window);
-        Map<String,Integer> bySeverity = new LinkedHashMap<>();
-        Map<String,Integer> byLocation = new LinkedHashMap<>();
-        int total = 0;
-        for (AlarmEvent e : buf) {
-            if (e.timestamp() == null || e.timestamp().isBefore(since)) break;
-            total++;
-            bySeverity.merge(e.level(), 1, Integer::sum);
-            byLocation.merge(e.location(), 1, Integer::sum);
+        return summary(window, System.currentTimeMillis());
+    }
+
+    Summary summary(Duration window, long now) {
+        long from = now - window.toMillis();
+        for (int attempt = 0; attempt < 3; attempt++) {
+            WindowedCounts.Totals t = count(from);
+            if (t != null) return summary(window, t);
+        }
+        synchronized (writeLock) {
+            return summary(window, count(from));
+        }
+    }
+
+    private static Summary summary(Duration window, WindowedCounts.Totals t) {
+        return new Summary(window.toString(), t.total, t.severityMap(), t.locationMap());
+    }
+
+    /** Tampon zamanı from ve sonrası olan olayların sayımı; okunan slotlar ezildiyse null. */
+    private WindowedCounts.Totals count(long from) {
+        WindowedCounts.Bucket b = counts.newest();      // head'den önce: zincirdeki kovalar h'den öncesini sayar
+        long h = head;
+        long a = lowerBound(from, Math.max(tail, h - capacity), h);
+        WindowedCounts.Totals t = new WindowedCounts.Totals();
+        long end = h;
+        if (b != null) {
+            // en yeni kova hâlâ yazılıyor olabilir
+            scan(t, Math.max(a, b.firstSeq), end);
+            end = Math.min(end, b.firstSeq);
+            b = b.older;
+        }
+        for (; b != null && end > a; b = b.older) {
+            if (b.firstSeq >= a) t.addAll(b);
+            else scan(t, a, end);
+            end = b.firstSeq;
         }
-        return new Summary(window.toString(), total, bySeverity, byLocation);
+        if (end > a) scan(t, a, end);                    // zincir tahliyeyle koptu
+        return a < head - capacity ? null : t;
+    }
+
+    private void scan(WindowedCounts.Totals t, long from, long to) {
+        for (long s = from; s < to; s++) {
+            AlarmEvent e = events[slot(s)];
+            if (e.endedAt() == null) t.add(e.level(), e.location());
+        }
+    }
+
+    /** since'ten bu yana olan her olay tamponda mı? (soğuk açılışta ya da tahliye sonrası değil) */
+    public boolean covers(Instant since) {
+        return since.toEpochMilli() > completeAfter;
     }
 
-    private void prune() {
-        // boyuta göre
-        while (buf.size() > maxSize) buf.removeLast();
+    public int size() {
+        long h = head;
+        return (int) (h - Math.max(tail, h - capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // ---------- internals ----------
+    private int slot(long seq) {
+        return (int) (seq % ring);
+    }
+
+    /** [lo, hi) aralığında times >= from olan ilk sıra no (yoksa hi). */
+    private long lowerBound(long from, long lo, long hi) {
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (times[slot(mid)] < from) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Okuma sırasında yazar ilerlediyse, kopyalanan en eski slotlar yeni olaylarla ezilmiş olabilir.
+     * head'i tekrar okuyup güvenli aralığın [h2 - capacity, h2) dışında kalanları listeden at.
+     */
+    private List<AlarmEvent> trimOverwritten(List<AlarmEvent> newestFirst, long h, long first) {
+        long h2 = head;
+        long safeFrom = h2 - capacity;
+        if (first >= safeFrom) return newestFirst;
+        int keep = (int) Math.max(0, h - safeFrom);
+        return keep >= newestFirst.size() ? newestFirst : new ArrayList<>(newestFirst.subList(0, keep));
+    }
+
+    private void prune(long now) {
+        // boyuta göre: halka zaten eziyor, tail'i öne al
+        long t = Math.max(tail, head - capacity);
         // zamana göre
-        Instant cutoff = Instant.now().minusMillis(retentionMs);
-        while (!buf.isEmpty()) {
-            AlarmEvent last = buf.peekLast();
-            if (last == null || last.timestamp() == null || last.timestamp().isBefore(cutoff)) buf.removeLast();
-            else break;
+        long cutoff = now - retentionMs;
+        while (t < head && times[slot(t)] < cutoff) t++;
+        if (t > tail) {
+            counts.evictBefore(t);
+            evictedUpTo = times[slot(t - 1)];
+            completeAfter = Math.max(completeAfter, evictedUpTo);
         }
+        tail = t;
     }
 
+    /** contents() sonucu: aynı sıralı olaylar ve zamanları; completeAfter: covers() sınırı. */
+    public record Contents(AlarmEvent[] events, long[] times, long completeAfter) {}
+
+    /** after() sonucu: kaçırılan olaylar (eskiden yeniye) ve içlerindeki son sıra no. */
+    public record Replay(List<AlarmEvent> events, long lastSeq) {}
+
     // küçük DTO
     public record Summary(
             String window,
@@ -61,4 +271,4 @@ public class RecentAlarmStore {
             Map<String,Integer> bySeverity,
             Map<String,Integer> byLocation
     ) {}
-}
\ No newline at end of file
+}
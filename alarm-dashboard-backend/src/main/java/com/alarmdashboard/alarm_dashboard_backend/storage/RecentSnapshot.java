@@ -0,0 +1,232 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * RecentAlarmStore içeriğinin ikili dökümü (açılışta hızlı geri yükleme için).
+ *
+ * <p>Biçim: MAGIC, VERSION, yazılma anı, completeAfter, olay sayısı; sonra olay başına tampon zamanı
+ * (önceki olaya göre zigzag varint, ms), id, sözlüklü level/type/location/message (0 = null,
+ * 1 = yeni değer, k = k-2. değer; ArchiveSegment ile aynı), olayın kendi timestamp'i (0 = null,
+ * 1 + zigzag(saniye - tampon saniyesi), nano), kapanış anı (0 = null, 1 + zigzag(ms - tampon zamanı); sürüm 2);
+ * en sonda gövdenin CRC32'si. Dosya geçici adla yazılıp
+ * diske zorlandıktan sonra yerine taşınır; ardından dizin de zorlanır (yeni ad çökmede kaybolmasın).
+ */
+public final class RecentSnapshot {
+    private static final int MAGIC = 0x41445253;     // "ADRS"
+    private static final int VERSION = 2;           // 1: kapanış anı yok
+
+    /** Okunan döküm: eskiden yeniye olaylar, tampon zamanları (epoch ms). */
+    public record Loaded(AlarmEvent[] events, long[] times, long completeAfter, Instant writtenAt) {}
+
+    private RecentSnapshot() {
+    }
+
+    public static void write(Path file, RecentAlarmStore.Contents c) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileOutputStream fos = new FileOutputStream(tmp.toFile())) {
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(fos, crc), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(c.completeAfter());
+            out.writeInt(c.events().length);
+
+            Map<String, Integer> dict = new HashMap<>();
+            long prev = 0;
+            for (int i = 0; i < c.events().length; i++) {
+                AlarmEvent e = c.events()[i];
+                long t = c.times()[i];
+                varint(out, zigzag(t - prev));
+                prev = t;
+                literal(out, e.id());
+                ref(out, dict, e.level());
+                ref(out, dict, e.type());
+                ref(out, dict, e.location());
+                ref(out, dict, e.message());
+                Instant ts = e.timestamp();
+                if (ts == null) {
+                    varint(out, 0);
+                } else {
+                    varint(out, 1 + zigzag(ts.getEpochSecond() - Math.floorDiv(t, 1000L)));
+                    varint(out, ts.getNano());
+                }
+                Instant ended = e.endedAt();
+                varint(out, ended == null ? 0 : 1 + zigzag(ended.toEpochMilli() - t));
+            }
+            out.flush();
+            new DataOutputStream(fos).writeInt((int) crc.getValue());
+            fos.getChannel().force(true);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (parent != null) FileSync.directory(parent);
+    }
+
+    /** Dosyayı okur; biçim ya da CRC tutmazsa IOException. */
+    public static Loaded read(Path file) throws IOException {
+        long size = Files.size(file);
+        try (InputStream raw = Files.newInputStream(file)) {
+            CRC32 crc = new CRC32();
+            InputStream buffered = new BufferedInputStream(raw, 1 << 16);
+            DataInputStream in = new DataInputStream(new CheckedInputStream(buffered, crc));
+            if (in.readInt() != MAGIC) throw new IOException("Not a recent-alarm snapshot: " + file);
+            int version = in.readInt();
+            if (version < 1 || version > VERSION) throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            Instant writtenAt = Instant.ofEpochMilli(in.readLong());
+            long completeAfter = in.readLong();
+            int n = in.readInt();
+            if (n < 0 || n > size) throw new IOException("Corrupt snapshot: " + file);
+
+            AlarmEvent[] events = new AlarmEvent[n];
+            long[] times = new long[n];
+            List<String> dict = new ArrayList<>();
+            long prev = 0;
+            for (int i = 0; i < n; i++) {
+                long t = prev + unzigzag(varint(in));
+                prev = t;
+                String id = literal(in, size);
+                String level = ref(in, dict, size);
+                String type = ref(in, dict, size);
+                String location = ref(in, dict, size);
+                String message = ref(in, dict, size);
+                long tsCode = varint(in);
+                Instant ts = null;
+                if (tsCode != 0) {
+                    long sec = Math.floorDiv(t, 1000L) + unzigzag(tsCode - 1);
+                    ts = Instant.ofEpochSecond(sec, varint(in));
+                }
+                Instant ended = null;
+                if (version >= 2) {
+                    long endCode = varint(in);
+                    if (endCode != 0) ended = Instant.ofEpochMilli(t + unzigzag(endCode - 1));
+                }
+                events[i] = new AlarmEvent(id, level, type, location, message, ts, ended);
+                times[i] = t;
+            }
+            int expected = (int) crc.getValue();
+            // CRC gövdeye dahil değil: sayaçtan geçmeden oku
+            if (new DataInputStream(buffered).readInt() != expected) throw new IOException("Snapshot CRC mismatch: " + file);
+            return new Loaded(events, times, completeAfter, writtenAt);
+        } catch (RuntimeException ex) {
+            // bozuk gövde: geçersiz sözlük numarası, zaman taşması...
+            throw new IOException("Corrupt snapshot: " + file, ex);
+        }
+    }
+
+    // ---------- kodlama ----------
+
+    private static void literal(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            varint(out, 0);
+            return;
+        }
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        varint(out, utf8.length + 1L);
+        out.write(utf8);
+    }
+
+    private static String literal(DataInputStream in, long max) throws IOException {
+        long len = varint(in);
+        if (len == 0) return null;
+        return utf8(in, len - 1, max);
+    }
+
+    private static void ref(DataOutputStream out, Map<String, Integer> dict, String s) throws IOException {
+        if (s == null) {
+            varint(out, 0);
+            return;
+        }
+        Integer k = dict.get(s);
+        if (k != null) {
+            varint(out, k + 2L);
+            return;
+        }
+        dict.put(s, dict.size());
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        varint(out, 1);
+        varint(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String ref(DataInputStream in, List<String> dict, long max) throws IOException {
+        long code = varint(in);
+        if (code == 0) return null;
+        if (code > 1) {
+            if (code - 2 >= dict.size()) throw new IOException("Corrupt snapshot: unknown value " + code);
+            return dict.get((int) (code - 2));
+        }
+        String s = utf8(in, varint(in), max);
+        dict.add(s);
+        return s;
+    }
+
+    /** Dosyadan uzun olamayacak uzunluğu tahsisten önce eler (bozuk uzunluk bellek tüketmesin). */
+    private static String utf8(DataInputStream in, long len, long max) throws IOException {
+        if (len < 0 || len > max) throw new IOException("Corrupt snapshot: length " + len);
+        byte[] utf8 = new byte[(int) len];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void varint(OutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static long varint(InputStream in) throws IOException {
+        long v = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.read();
+            if (b < 0) throw new EOFException();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+            shift += 7;
+        }
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -0,0 +1,95 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedef yolu -> TargetPath sözlüğü. Sahadaki farklı hedef sayısı küçük ve sabit olduğundan
+ * her yol bir kez ayrıştırılır; ingest ve sorgu aynı (paylaşılan) parçaları kullanır.
+ * İsabet kilitsizdir (yalnızca son kullanım anı güncellenir). Kapasite aşılınca en uzun süredir
+ * kullanılmayan ~%10 tek seferde atılır (yaklaşık LRU); bunu aynı anda tek bir thread yapar.
+ */
+@Component
+public class TargetDictionary {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final class Entry {
+        final TargetPath path;
+        volatile long lastUsed;
+
+        Entry(TargetPath path, long now) {
+            this.path = path;
+            this.lastUsed = now;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public TargetDictionary(AlarmProps props) {
+        this(props.targets().capacity());
+    }
+
+    public TargetDictionary(int capacity) {
+        this.capacity = Math.max(16, capacity);
+    }
+
+    public TargetPath of(String raw) {
+        String key = raw == null ? "" : raw;
+        long now = System.nanoTime();
+        Entry e = entries.get(key);
+        if (e != null) {
+            e.lastUsed = now;
+            return e.path;
+        }
+
+        misses.increment();
+        Entry created = new Entry(TargetPath.parse(key), now);
+        Entry prev = entries.putIfAbsent(key, created);
+        if (prev != null) return prev.path;
+        if (entries.size() > capacity) evict();
+        return created.path;
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) return;
+        try {
+            int excess = entries.size() - capacity + capacity / 10;
+            if (excess <= 0) return;
+            long[] stamps = entries.values().stream().mapToLong(x -> x.lastUsed).sorted().toArray();
+            long cutoff = stamps[Math.min(excess, stamps.length) - 1];
+            int before = entries.size();
+            entries.values().removeIf(x -> x.lastUsed <= cutoff);
+            evictions.add(Math.max(0, before - entries.size()));
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,40 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import java.util.Arrays;
+
+/**
+ * ETP hedef yolunun (ETP/SİSTEM/SINIF/CİHAZ/NOKTA) bir kez ayrıştırılmış hali.
+ * İki okuma var, ikisi de eski davranışla birebir:
+ * - ingest (MqttAlarmMapper): büyük harfe çevrilmiş yoldan type = sondan 2., location = sondan 3.,
+ *   shortName = son üç parça;
+ * - sorgu (AlarmRow): yolun boş olmayan parçalarından system = 2., device = 3., point = 4.
+ */
+public record TargetPath(
+        String normalized,
+        String system,
+        String device,
+        String point,
+        String type,
+        String location,
+        String shortName
+) {
+    public static TargetPath parse(String raw) {
+        String slashed = (raw == null ? "" : raw).replace('\\', '/');
+        String normalized = slashed.toUpperCase();
+
+        String[] parts = Arrays.stream(slashed.split("/")).filter(s -> !s.isBlank()).toArray(String[]::new);
+        String system = parts.length >= 2 ? parts[1] : "";
+        String device = parts.length >= 3 ? parts[2] : "";
+        String point  = parts.length >= 4 ? parts[3] : (parts.length >= 3 ? parts[2] : "");
+
+        String[] p = normalized.split("/");
+        int n = p.length;
+        String type     = n >= 2 ? p[n - 2] : n >= 1 ? p[n - 1] : null;
+        String location = n >= 3 ? p[n - 3] : n >= 2 ? p[n - 2] : null;
+        String shortName = n >= 3 ? p[n - 3] + "/" + p[n - 2] + "/" + p[n - 1]
+                : n >= 2 ? p[n - 2] + "/" + p[n - 1]
+                : normalized;
+
+        return new TargetPath(normalized, system, device, point, type, location, shortName);
+    }
+}
@@ -0,0 +1,96 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import java.util.*;
+
+/**
+ * Saniyelik kovalarda seviye ve lokasyon sayaçları; yalnızca olay içeren saniyeler için kova açılır.
+ * Her kova o saniyede eklenen olayları ve ilk olayın sıra no'sunu tutar. Yazılan tek kova en yenisidir:
+ * yenisi açılınca öncekinin sayaçları bir daha değişmez, bu yüzden okuyucular kilitsiz okur
+ * ({@link #newest()} volatile, kovalar yeniden eskiye bağlı). Tahliye sayaç düşürmez: okuyucu, tampondan
+ * düşmüş sıra no'ları da içeren kovayı tampondan tek tek sayar; tümüyle düşen kovalar zincirden koparılır.
+ * Adlar kova başına tutulur, tampondan çıkan ad kovasıyla birlikte gider (büyüyen küresel sözlük yok).
+ * Yazma tarafı thread-safe değil: RecentAlarmStore yazar kilidi altında kullanır.
+ */
+class WindowedCounts {
+
+    static final class Bucket {
+        final long second;
+        final long firstSeq;
+        int total;
+        final Map<String, int[]> bySeverity = new HashMap<>(4);
+        final Map<String, int[]> byLocation = new HashMap<>(8);
+        volatile Bucket older;
+
+        Bucket(long second, long firstSeq, Bucket older) {
+            this.second = second;
+            this.firstSeq = firstSeq;
+            this.older = older;
+        }
+    }
+
+    private volatile Bucket newest;
+    private final ArrayDeque<Bucket> live = new ArrayDeque<>();   // yazara özel, eskiden yeniye
+
+    /** Olayı en yeni kovaya ekler; saniyeler azalmayan, sıra no'ları artan sırada gelmeli. */
+    void add(long seq, long second, String level, String location) {
+        Bucket b = newest;
+        if (b == null || b.second != second) {
+            b = new Bucket(second, seq, b);
+            live.addLast(b);
+            newest = b;      // yayın: önceki kovanın sayaçları artık sabit
+        }
+        b.total++;
+        b.bySeverity.computeIfAbsent(level, k -> new int[1])[0]++;
+        b.byLocation.computeIfAbsent(location, k -> new int[1])[0]++;
+    }
+
+    /** Olayları tümüyle tail'den (sıra no, hariç değil) önce kalan kovaları bırakır. */
+    void evictBefore(long tail) {
+        while (live.size() > 1) {
+            Bucket oldest = live.pollFirst();
+            Bucket next = live.peekFirst();
+            if (next.firstSeq > tail) {
+                live.addFirst(oldest);
+                return;
+            }
+            next.older = null;
+        }
+    }
+
+    /** En yeni kova (hâlâ yazılıyor olabilir); okuyucu buradan older ile geriye yürür. */
+    Bucket newest() {
+        return newest;
+    }
+
+    int bucketCount() {
+        return live.size();
+    }
+
+    /** Toplayıcı: kovalardan ve tampondan tek tek sayılanların birleşimi. */
+    static final class Totals {
+        int total;
+        private final Map<String, Integer> bySeverity = new LinkedHashMap<>();
+        private final Map<String, Integer> byLocation = new LinkedHashMap<>();
+
+        void add(String level, String location) {
+            total++;
+            bySeverity.merge(level, 1, Integer::sum);
+            byLocation.merge(location, 1, Integer::sum);
+        }
+
+        /** Mühürlü (artık yazılmayan) kovanın tamamı. */
+        void addAll(Bucket b) {
+            total += b.total;
+            b.bySeverity.forEach((k, n) -> bySeverity.merge(k, n[0], Integer::sum));
+            b.byLocation.forEach((k, n) -> byLocation.merge(k, n[0], Integer::sum));
+        }
+
+        Map<String, Integer> severityMap() {
+            return bySeverity;
+        }
+
+        Map<String, Integer> locationMap() {
+            return byLocation;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /topic/alarms.batch: olaylar kısa bir pencerede (ya da maxSize dolana kadar) toplanıp
+ * tek STOMP frame'inde dizi olarak gider. Pencere içinde aynı hedeften gelen olaylar
+ * birleştirilir, yalnızca sonuncusu kalır. Abonesi yoksa hiçbir şey biriktirilmez.
+ * Dizi, olayların /topic/alarms için zaten üretilmiş JSON'larından birleştirilir ({@link AlarmJsonCache}).
+ */
+@Component
+public class AlarmBatchPublisher implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(AlarmBatchPublisher.class);
+
+    public static final String BATCH_TOPIC = "/topic/alarms.batch";
+
+    private final SimpMessageSendingOperations messaging;
+    private final SubscriptionRegistry subscriptions;
+    private final AlarmJsonCache json;
+    private final AlarmProps.Batch props;
+
+    private final Object lock = new Object();
+    private Map<String, AlarmEvent> pending = new LinkedHashMap<>();   // hedef -> son olay
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public AlarmBatchPublisher(SimpMessageSendingOperations messaging,
+                               SubscriptionRegistry subscriptions,
+                               AlarmJsonCache json,
+                               AlarmProps props) {
+        this.messaging = messaging;
+        this.subscriptions = subscriptions;
+        this.json = json;
+        this.props = props.batch();
+    }
+
+    public void offer(AlarmEvent evt) {
+        if (!running || !subscriptions.hasSubscribers(BATCH_TOPIC)) return;
+
+        Map<String, AlarmEvent> full = null;
+        synchronized (lock) {
+            pending.put(targetOf(evt), evt);
+            if (pending.size() >= props.maxSize()) {
+                full = pending;
+                pending = new LinkedHashMap<>();
+            }
+        }
+        if (full != null) send(full);
+    }
+
+    private void flush() {
+        Map<String, AlarmEvent> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        send(batch);
+    }
+
+    private void send(Map<String, AlarmEvent> batch) {
+        List<AlarmEvent> events = new ArrayList<>(batch.values());
+        try {
+            var h = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            h.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            h.setLeaveMutable(true);
+            messaging.send(BATCH_TOPIC, MessageBuilder.createMessage(json.array(events), h.getMessageHeaders()));
+        } catch (Exception ex) {
+            log.warn("Batch send failed ({} events): {}", events.size(), ex.getMessage());
+        }
+    }
+
+    private static String targetOf(AlarmEvent evt) {
+        String id = evt.id();
+        if (id == null) return "";
+        int at = id.indexOf('@');
+        return at > 0 ? id.substring(0, at) : id;
+    }
+
+    // ---------- lifecycle ----------
+    @Override
+    public void start() {
+        if (!props.enabled()) return;
+        long periodMs = Math.max(1, props.window().toMillis());
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ws-batch");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::flush, periodMs, periodMs, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) scheduler.shutdownNow();
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,155 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEntity;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import com.alarmdashboard.alarm_dashboard_backend.repository.AlarmRepository;
+import com.alarmdashboard.alarm_dashboard_backend.service.AlarmLifecycle;
+import com.alarmdashboard.alarm_dashboard_backend.storage.RecentAlarmStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Abonelik bootstrap'ı için son pencerenin JSON'u; olay parçaları yayınla paylaşılır ({@link AlarmJsonCache}). Liste RecentAlarmStore'dan okunur;
+ * tampon pencereyi kapsamıyorsa (soğuk açılış) DB'ye düşülür. Serileştirilmiş sonuç
+ * cacheTtl boyunca tüm oturumlarla paylaşılır: yeniden bağlanma fırtınası tek sorgu + tek serileştirme.
+ * Filtreli abonelikler (/topic/alarms/{location}/{level}) aynı listenin desene uyan kısmını alır;
+ * desen başına JSON da aynı ömürle paylaşılır. Yeniden bağlanan istemci son gördüğü sıra no'yu
+ * verirse replay() yalnızca sonrasını (tampondan) döner; boşluk tamponda değilse tam bootstrap.
+ * /topic/alarms.compact aboneleri aynı pencerenin sıkı kodlanmış satırlarını alır; satırlar aynı ömürle
+ * paylaşılır, sözlük gönderim anında eklenir (bkz. {@link CompactAlarmCodec#withDictionary}).
+ */
+@Component
+public class AlarmBootstrapCache {
+    private static final Logger log = LoggerFactory.getLogger(AlarmBootstrapCache.class);
+
+    private final RecentAlarmStore store;
+    private final AlarmRepository repo;
+    private final AlarmJsonCache json;
+    private final CompactAlarmCodec compact;
+    private final Duration window;
+    private final long ttlMs;
+
+    /** Gönderilecek JSON ve içerdiği en yeni olayın sıra no'su (istemci bir sonraki resume'da bunu verir). */
+    public record Payload(byte[] json, long seq) {}
+
+    private List<AlarmEvent> events = List.of();
+    private long builtSeq = -1;
+    private byte[] cached;
+    private final Map<String, byte[]> filtered = new HashMap<>();   // desen -> JSON, her yenilemede boşalır
+    private CompactAlarmCodec.Rows compactRows;                      // ilk sıkı abonelikte, her yenilemede boşalır
+    private long builtAt;
+
+    public AlarmBootstrapCache(RecentAlarmStore store, AlarmRepository repo, AlarmJsonCache json,
+                               CompactAlarmCodec compact, AlarmProps props) {
+        this.store = store;
+        this.repo = repo;
+        this.json = json;
+        this.compact = compact;
+        this.window = props.bootstrap().window();
+        this.ttlMs = props.bootstrap().cacheTtl().toMillis();
+    }
+
+    /** Son pencerenin AlarmEvent[] JSON'u; aynı anda gelen çağrılar tek bir hesaplamayı bekler. */
+    public synchronized Payload snapshot() {
+        refresh();
+        return new Payload(cached, builtSeq);
+    }
+
+    /** Aynı pencere, yalnızca abonelik desenine uyan olaylar (yayındaki eşleşmeyle aynı kural). */
+    public synchronized Payload snapshot(String pattern) {
+        refresh();
+        return new Payload(filtered.computeIfAbsent(pattern,
+                p -> write(events.stream().filter(e -> AlarmDestinations.matches(p, e)).toList())), builtSeq);
+    }
+
+    /** Aynı pencere, sıkı biçimde: {"k":[satırların kullandığı tanımlar], "a":[satırlar]}. */
+    public Payload compactSnapshot() {
+        CompactAlarmCodec.Rows rows;
+        long seq;
+        synchronized (this) {
+            refresh();
+            if (compactRows == null) compactRows = compact.rows(events);
+            rows = compactRows;
+            seq = builtSeq;
+        }
+        return new Payload(compact.withDictionary(rows), seq);
+    }
+
+    /**
+     * seq'ten sonraki olaylar (eskiden yeniye), pattern null değilse desene uyanlar. Boşluk tampondan
+     * düşmüşse ya da bootstrap penceresinden eskiyse null: çağıran tam snapshot'a düşer.
+     * Oturuma özeldir, paylaşılmaz; boyutu kaçırılan olay sayısıyla orantılı.
+     */
+    public Payload replay(long seq, String pattern) {
+        RecentAlarmStore.Replay r = store.after(seq, Instant.now().minus(window));
+        if (r == null) return null;
+        List<AlarmEvent> missed = pattern == null ? r.events()
+                : r.events().stream().filter(e -> AlarmDestinations.matches(pattern, e)).toList();
+        return new Payload(write(missed), r.lastSeq());
+    }
+
+    /** replay()'in sıkı biçimdeki karşılığı (filtresiz). */
+    public Payload compactReplay(long seq) {
+        RecentAlarmStore.Replay r = store.after(seq, Instant.now().minus(window));
+        if (r == null) return null;
+        return new Payload(compact.withDictionary(compact.rows(r.events())), r.lastSeq());
+    }
+
+    private void refresh() {
+        long now = System.currentTimeMillis();
+        if (cached != null && now - builtAt < ttlMs) return;
+
+        Instant since = Instant.ofEpochMilli(now).minus(window);
+        // okumadan önce: sonradan eklenen olay listeye girse bile resume onu tekrar verir (id ile tekilleşir), kaçırmaz
+        long seq = store.lastSeq();
+        List<AlarmEvent> events;
+        if (store.covers(since)) {
+            events = store.since(since);
+        } else {
+            // Entity -> Event (frontend şeması)
+            events = repo.findSince(since).stream().map(AlarmBootstrapCache::toEvent).toList();
+            log.debug("Bootstrap from DB (store not warm), {} rows", events.size());
+        }
+
+        this.events = events;
+        builtSeq = seq;
+        cached = write(events);
+        filtered.clear();
+        compactRows = null;
+        builtAt = now;
+    }
+
+    private byte[] write(List<AlarmEvent> events) {
+        return json.array(events);
+    }
+
+    static AlarmEvent toEvent(AlarmEntity e) {
+        String level    = nz(e.getLevel(), "INFO");
+        String type     = nz(e.getType(),  "INFO");
+        String location = nz(e.getLocation(), "Unknown");
+        String message  = nz(e.getMessage(), "");
+
+        Instant ts = (e.getCreatedAt() != null ? e.getCreatedAt() : Instant.now());
+        String id  = nz(e.getId(), null);
+        if (id == null || id.isBlank()) {
+            String target = nz(e.getTarget(), "alarm");
+            id = target + "@" + ts;
+        }
+        // kapanmış satır kapanış olayı olarak gider (istemci açık göstermesin)
+        Instant endedAt = null;
+        if (AlarmLifecycle.CLEARED.equals(e.getStatus())) endedAt = e.getEndedAt() != null ? e.getEndedAt() : ts;
+        return new AlarmEvent(id, level, type, location, message, ts, endedAt);
+    }
+
+    private static String nz(String v, String def) {
+        return (v == null || v.isBlank()) ? def : v;
+    }
+}
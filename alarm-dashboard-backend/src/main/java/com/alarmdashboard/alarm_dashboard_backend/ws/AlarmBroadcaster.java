@@ -0,0 +1,178 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import com.alarmdashboard.alarm_dashboard_backend.storage.RecentAlarmStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tek yayın noktası: her olay /topic/alarms'a (eski istemciler) ve filtreli abone varsa
+ * /topic/alarms/{location}/{level}'a gider (bkz. {@link AlarmDestinations}), ayrıca
+ * toplu /topic/alarms.batch yayınına eklenir. Kapanan alarmlar aynı yoldan kapanış olayı (endedAt dolu)
+ * olarak ve ayrıca /topic/alarms.cleared'a, tekrar filtresinin özetleri /topic/alarms.flaps'e gider. Sıkı biçimi seçen oturumlar aynı olayları
+ * /topic/alarms.compact'tan alır (bkz. {@link CompactAlarmCodec}); abonesi yoksa kodlanmaz.
+ * Olay JSON'a bir kez çevrilir ({@link AlarmJsonCache}); düz ve filtreli topic aynı gövdeyi taşır,
+ * broker onu her aboneye kopyalamadan verir.
+ * Canlı frame'ler "seq" (RecentAlarmStore sıra no'su) ve "epoch" başlıklarını taşır; istemci
+ * yeniden abone olurken bunları geri gönderirse yalnızca kaçırdıkları gelir (bkz. AlarmSubscribeListener).
+ */
+@Service
+public class AlarmBroadcaster {
+
+    public static final String TOPIC = "/topic/alarms";
+    public static final String COMPACT_TOPIC = "/topic/alarms.compact";
+    public static final String CLEARED_TOPIC = "/topic/alarms.cleared";
+    public static final String FLAPS_TOPIC = "/topic/alarms.flaps";
+
+    public static final String SEQ_HEADER = "seq";
+    public static final String EPOCH_HEADER = "epoch";
+
+    /** /topic/alarms.cleared mesajı: kapanan satırın id'si ve kapanış anı. */
+    public record Cleared(String id, String level, String location, Instant endedAt) {}
+
+    /** /topic/alarms.flaps mesajı: id'li alarm için son olaydan önce "suppressed kez tekrarlandı". */
+    public record Flapped(String id, String level, String location, boolean cleared, int suppressed, Instant at) {}
+
+    private final SimpMessageSendingOperations messaging;
+    private final AlarmBatchPublisher batch;
+    private final SubscriptionRegistry subscriptions;
+    private final AlarmJsonCache json;
+    private final CompactAlarmCodec compact;
+    private final boolean compactEnabled;
+    private final String epoch;
+    private final Timer sendTimer;
+    private final Timer filteredSendTimer;
+    private final Timer compactSendTimer;
+    private final Queue<Message<byte[]>> compactOutbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean compactDraining = new AtomicBoolean();
+
+    public AlarmBroadcaster(SimpMessageSendingOperations messaging, AlarmBatchPublisher batch,
+                            SubscriptionRegistry subscriptions, AlarmJsonCache json, CompactAlarmCodec compact,
+                            RecentAlarmStore recent, AlarmProps props, MeterRegistry registry) {
+        this.messaging = messaging;
+        this.batch = batch;
+        this.subscriptions = subscriptions;
+        this.json = json;
+        this.compact = compact;
+        this.compactEnabled = props.compact().enabled();
+        this.epoch = String.valueOf(recent.epoch());
+        this.sendTimer = Timer.builder("alarm.ws.send")
+                .description("/topic/alarms için broker'a teslim")
+                .tag("topic", TOPIC)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.filteredSendTimer = Timer.builder("alarm.ws.send")
+                .description("/topic/alarms/{location}/{level} için broker'a teslim")
+                .tag("topic", AlarmDestinations.PREFIX + "{location}/{level}")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.compactSendTimer = Timer.builder("alarm.ws.send")
+                .description(COMPACT_TOPIC + " için kodlama + broker'a teslim")
+                .tag("topic", COMPACT_TOPIC)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    /** seq: olayın RecentAlarmStore'daki sıra no'su. */
+    public void broadcast(AlarmEvent evt, long seq) {
+        boolean plain = subscriptions.hasSubscribers(TOPIC);
+        boolean filtered = subscriptions.hasFilteredSubscribers();
+        boolean compacted = compactEnabled && subscriptions.hasSubscribers(COMPACT_TOPIC);
+        if (!plain && !filtered && !compacted) {
+            batch.offer(evt);
+            return;
+        }
+        // kapanışlar yavaş istemci politikasıyla atılamaz
+        AlarmEvent droppable = evt.endedAt() == null ? evt : null;
+        if (plain || filtered) {
+            byte[] body = json.json(evt);
+            if (plain) {
+                long t0 = System.nanoTime();
+                messaging.send(TOPIC, MessageBuilder.createMessage(body, frameHeaders(seq, droppable)));
+                sendTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            }
+            if (filtered) {
+                // Eşleşen oturumları broker'ın hedef önbelleği bulur; abonesi olmayan hedefe gönderim ucuz
+                long t0 = System.nanoTime();
+                messaging.send(AlarmDestinations.of(evt), MessageBuilder.createMessage(body, frameHeaders(seq, droppable)));
+                filteredSendTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (compacted) {
+            long t0 = System.nanoTime();
+            // Kodlama sırası = broker'a veriliş sırası: yeni sözlük kodunun tanımı onu kullanan frame'lerden önce
+            // gider. Kilit altında yalnızca kodlanıp sıraya girer; broker'a gönderim kilidin dışında
+            synchronized (compact) {
+                CompactAlarmCodec.Frame frame = compact.frame(evt);
+                // sözlük tanımı taşıyan frame yavaş istemcinin kuyruğundan atılamaz
+                compactOutbox.add(MessageBuilder.createMessage(frame.body(),
+                        frameHeaders(seq, frame.defines() ? null : droppable)));
+            }
+            drainCompact();
+            compactSendTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+        batch.offer(evt);
+    }
+
+    /**
+     * Sıradaki sıkı frame'leri kodlanma sırasıyla gönderir. Aynı anda tek thread boşaltır; o sırada gelen
+     * lane'ler frame'ini sıraya bırakıp döner (broker'ı beklemez), boşaltan onlarınkini de gönderir.
+     */
+    private void drainCompact() {
+        while (!compactOutbox.isEmpty() && compactDraining.compareAndSet(false, true)) {
+            try {
+                Message<byte[]> m;
+                while ((m = compactOutbox.poll()) != null) messaging.send(COMPACT_TOPIC, m);
+            } finally {
+                compactDraining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Gönderim başına yeni başlık: template hedefi değiştirilebilir başlığa yazar. droppable verilirse
+     * seviye ve hedef, yavaş istemci politikası için (SessionOutbox) iç başlık olarak eklenir.
+     */
+    private MessageHeaders frameHeaders(long seq, AlarmEvent droppable) {
+        var h = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        h.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        h.setNativeHeader(SEQ_HEADER, String.valueOf(seq));
+        h.setNativeHeader(EPOCH_HEADER, epoch);
+        if (droppable != null) {
+            if (droppable.level() != null) h.setHeader(SessionOutbox.LEVEL_HEADER, droppable.level());
+            String id = droppable.id();
+            if (id != null) {
+                int at = id.indexOf('@');
+                h.setHeader(SessionOutbox.TARGET_HEADER, at < 0 ? id : id.substring(0, at));
+            }
+        }
+        h.setLeaveMutable(true);
+        return h.getMessageHeaders();
+    }
+
+    public void cleared(AlarmEvent evt, Instant endedAt) {
+        if (!subscriptions.hasSubscribers(CLEARED_TOPIC)) return;
+        messaging.convertAndSend(CLEARED_TOPIC, new Cleared(evt.id(), evt.level(), evt.location(), endedAt));
+    }
+
+    public void flapped(AlarmEvent evt, boolean cleared, int suppressed) {
+        if (!subscriptions.hasSubscribers(FLAPS_TOPIC)) return;
+        messaging.convertAndSend(FLAPS_TOPIC,
+                new Flapped(evt.id(), evt.level(), evt.location(), cleared, suppressed, Instant.now()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filtreli yayın hedefleri: /topic/alarms/{location}/{level}. İstemci tam hedefe ya da
+ * simple broker'ın desenleriyle abone olur (ör. tek konumun tüm seviyeleri ya da tüm konumların
+ * CRITICAL'ları: /topic/alarms/{location}/* , /topic/alarms/*&#47;CRITICAL).
+ * Eşleştirme broker'ın hedef önbelleğinde yapılır: her hedef için eşleşen oturumlar bir kez
+ * hesaplanıp abone/çık anında güncellenir, olay başına oturum taranmaz.
+ *
+ * <p>Parça kodlaması: '%', '/', '*', '?', '{', '}' yüzde-kodlanır (%25, %2F, ...); boşluk ve
+ * Türkçe karakterler olduğu gibi kalır.
+ */
+public final class AlarmDestinations {
+
+    public static final String PREFIX = AlarmBroadcaster.TOPIC + "/";
+
+    private static final PathMatcher MATCHER = new AntPathMatcher();
+
+    // konum -> seviye -> hedef; farklı konum sayısı küçük, üst sınır aşılırsa baştan kurulur
+    private static final int MAX_LOCATIONS = 4096;
+    private static final Map<String, Map<String, String>> CACHE = new ConcurrentHashMap<>();
+
+    private AlarmDestinations() {}
+
+    public static String of(AlarmEvent evt) {
+        String location = nz(evt.location(), "Unknown");
+        String level = nz(evt.level(), "INFO");
+        Map<String, String> byLevel = CACHE.get(location);
+        if (byLevel == null) {
+            if (CACHE.size() >= MAX_LOCATIONS) CACHE.clear();
+            byLevel = CACHE.computeIfAbsent(location, k -> new ConcurrentHashMap<>());
+        }
+        String dest = byLevel.get(level);
+        if (dest == null) {
+            dest = PREFIX + segment(location) + "/" + segment(level);
+            byLevel.put(level, dest);
+        }
+        return dest;
+    }
+
+    public static boolean isFiltered(String destination) {
+        return destination != null && destination.startsWith(PREFIX);
+    }
+
+    /** Abonelik deseni (ya da tam hedef) bu olayı kapsıyor mu; broker ile aynı kural. */
+    public static boolean matches(String pattern, AlarmEvent evt) {
+        return MATCHER.match(pattern, of(evt));
+    }
+
+    static String segment(String s) {
+        StringBuilder sb = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String esc = switch (c) {
+                case '%' -> "%25";
+                case '/' -> "%2F";
+                case '*' -> "%2A";
+                case '?' -> "%3F";
+                case '{' -> "%7B";
+                case '}' -> "%7D";
+                default -> null;
+            };
+            if (esc != null && sb == null) sb = new StringBuilder(s.length() + 8).append(s, 0, i);
+            if (sb != null) {
+                if (esc != null) sb.append(esc);
+                else sb.append(c);
+            }
+        }
+        return sb == null ? s : sb.toString();
+    }
+
+    private static String nz(String s, String def) {
+        return (s == null || s.isBlank()) ? def : s;
+    }
+}
@@ -0,0 +1,94 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Olay başına tek serileştirme: AlarmEvent'in JSON'u ilk ihtiyaçta üretilir ve aynı byte[] canlı
+ * topic'lere (/topic/alarms, filtreli hedef), bootstrap'a, resume replay'ine ve toplu topic'e
+ * olduğu gibi verilir. Liste gövdeleri ("[a,b,...]") bu parçaların birleştirilmesidir; Jackson'a girmez.
+ * Kapasite RecentAlarmStore ile aynıdır (tampondaki olaylar sığar), aşılınca en eski giriş düşer.
+ * Anahtar olayın değeridir: eşit olaylar eşit JSON üretir.
+ */
+@Component
+public class AlarmJsonCache {
+
+    private final ObjectMapper om;
+    private final Map<AlarmEvent, byte[]> cache;
+    private final AlarmEvent[] order;       // FIFO tahliye; order kilidiyle
+    private int next;
+    private final Counter hits;
+    private final Counter misses;
+
+    public AlarmJsonCache(ObjectMapper om, AlarmProps props, MeterRegistry registry) {
+        this.om = om;
+        int capacity = props.recent().capacity();
+        this.cache = new ConcurrentHashMap<>(capacity * 2);
+        this.order = new AlarmEvent[capacity];
+        this.hits = Counter.builder("alarm.ws.encode")
+                .description("WS gövdesi için olay JSON'u (hit: hazır, miss: serileştirildi)")
+                .tag("cache", "hit")
+                .register(registry);
+        this.misses = Counter.builder("alarm.ws.encode")
+                .description("WS gövdesi için olay JSON'u (hit: hazır, miss: serileştirildi)")
+                .tag("cache", "miss")
+                .register(registry);
+    }
+
+    /** Olayın JSON'u; dönen dizi paylaşılır, değiştirilmemeli. */
+    public byte[] json(AlarmEvent e) {
+        byte[] b = cache.get(e);
+        if (b != null) {
+            hits.increment();
+            return b;
+        }
+        misses.increment();
+        b = serialize(e);
+        synchronized (order) {
+            if (cache.putIfAbsent(e, b) == null) {
+                AlarmEvent old = order[next];
+                if (old != null) cache.remove(old);
+                order[next] = e;
+                next = (next + 1) % order.length;
+            }
+        }
+        return b;
+    }
+
+    /** AlarmEvent[] JSON'u, olay parçalarından (objectMapper.writeValueAsBytes(events) ile aynı). */
+    public byte[] array(List<AlarmEvent> events) {
+        byte[][] parts = new byte[events.size()][];
+        int len = 2 + Math.max(0, parts.length - 1);
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = json(events.get(i));
+            len += parts[i].length;
+        }
+        byte[] out = new byte[len];
+        out[0] = '[';
+        int p = 1;
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) out[p++] = ',';
+            System.arraycopy(parts[i], 0, out, p, parts[i].length);
+            p += parts[i].length;
+        }
+        out[p] = ']';
+        return out;
+    }
+
+    private byte[] serialize(AlarmEvent e) {
+        try {
+            return om.writeValueAsBytes(e);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Alarm serialization failed", ex);
+        }
+    }
+}
@@ -1,22 +1,108 @@
 package com.alarmdashboard.alarm_dashboard_backend.ws;
 
+import com.alarmdashboard.alarm_dashboard_backend.cluster.ClusterBus;
+import com.alarmdashboard.alarm_dashboard_backend.cluster.ClusterEvent;
 import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.stereotype.Service;
+import com.alarmdashboard.alarm_dashboard_backend.service.AlarmLifecycle;
 import com.alarmdashboard.alarm_dashboard_backend.storage.RecentAlarmStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
 
+/**
+ * Yayın işlerinin tek giriş noktası: olay RecentAlarmStore'a eklenir ve bu düğümün istemcilerine
+ * yayınlanır. Küme modunda (realtime.cluster.mode) aynı yayın ClusterBus ile diğer düğümlere gider;
+ * onlar da kendi store'larına ekleyip kendi istemcilerine yayınlar ve aktif dizinlerini güncel tutar
+ * (lider değişince yeni lider kaldığı yerden devam eder). Yayınlanmayan tekrarlar da gider: diğer düğümlerin
+ * aktif dizininde seviye, sayaç ve lastSeen liderle aynı kalır.
+ */
 @Service
 public class AlarmPublisher {
-    private final SimpMessagingTemplate template;
+    private final AlarmBroadcaster broadcaster;
     private final RecentAlarmStore recent;
+    private final AlarmLifecycle lifecycle;
+    private final ClusterBus bus;     // null: tek düğüm
+    private final Counter sent, received, dropped;
 
-    public AlarmPublisher(SimpMessagingTemplate template, RecentAlarmStore recent) {
-        this.template = template;
+    public AlarmPublisher(AlarmBroadcaster broadcaster, RecentAlarmStore recent, AlarmLifecycle lifecycle,
+                          ObjectProvider<ClusterBus> busProvider, MeterRegistry registry) {
+        this.broadcaster = broadcaster;
         this.recent = recent;
+        this.lifecycle = lifecycle;
+        this.bus = busProvider.getIfAvailable();
+        this.sent = clusterCounter(registry, "out");
+        this.received = clusterCounter(registry, "in");
+        this.dropped = clusterCounter(registry, "dropped");
+        if (bus != null) bus.subscribe(this::onRemote);
     }
 
     public void publish(AlarmEvent event) {
-        recent.append(event);
-        template.convertAndSend("/topic/alarms", event);
+        long seq = recent.append(event);
+        broadcaster.broadcast(event, seq);
+        if (bus != null) send(ClusterEvent.raised(bus.nodeId(), event));
+    }
+
+    /** Açık alarmın tekrarı: içerik değiştiyse yerelde yayınlanır; diğer düğümler her tekrarı aktif dizinlerine uygular. */
+    public void repeated(AlarmEvent event, boolean changed, Instant seenAt, long count) {
+        if (changed) broadcaster.broadcast(event, recent.append(event));
+        if (bus != null) send(ClusterEvent.repeated(bus.nodeId(), event, seenAt, count));
+    }
+
+    /** Kapanış: store'a ve /topic/alarms'a kapanış olayı olarak (resume ile de gelir), ayrıca /topic/alarms.cleared'a. */
+    public void cleared(AlarmEvent event, Instant endedAt) {
+        closeLocally(event, endedAt);
+        if (bus != null) send(ClusterEvent.cleared(bus.nodeId(), event, endedAt));
+    }
+
+    public void flapped(AlarmEvent event, boolean cleared, int suppressed) {
+        broadcaster.flapped(event, cleared, suppressed);
+        if (bus != null) send(ClusterEvent.flapped(bus.nodeId(), event, cleared, suppressed));
+    }
+
+    private void send(ClusterEvent event) {
+        if (bus.publish(event)) sent.increment();
+        else dropped.increment();
+    }
+
+    /** Başka düğümde işlenmiş yayın: yalnızca yerel iş (store + WS), DB'ye yazılmaz, bus'a geri gitmez. */
+    private void onRemote(ClusterEvent event) {
+        received.increment();
+        AlarmEvent evt = event.event();
+        switch (event.kind()) {
+            case RAISED -> {
+                // Kanonik id (hedef@raise anı) aynı kaldığı için apply() lideri birebir izler
+                if (lifecycle.enabled()) lifecycle.apply(evt, false);
+                long seq = recent.append(evt);
+                broadcaster.broadcast(evt, seq);
+            }
+            case REPEATED -> {
+                if (lifecycle.enabled() && lifecycle.mirror(evt, event.seenAt(), event.count())) {
+                    long seq = recent.append(evt);
+                    broadcaster.broadcast(evt, seq);
+                }
+            }
+            case CLEARED -> {
+                if (lifecycle.enabled()) lifecycle.apply(evt, true);
+                closeLocally(evt, event.endedAt());
+            }
+            case FLAPPED -> broadcaster.flapped(evt, event.cleared(), event.suppressed());
+        }
+    }
+
+    private void closeLocally(AlarmEvent event, Instant endedAt) {
+        AlarmEvent closed = event.closedAt(endedAt);
+        long seq = recent.append(closed);
+        broadcaster.broadcast(closed, seq);
+        broadcaster.cleared(event, endedAt);
+    }
+
+    private static Counter clusterCounter(MeterRegistry registry, String direction) {
+        return Counter.builder("alarm.cluster.messages")
+                .description("Düğümler arası yayınlar, yöne göre")
+                .tag("direction", direction)
+                .register(registry);
     }
 }
@@ -1,79 +1,101 @@
 package com.alarmdashboard.alarm_dashboard_backend.ws;
 
-import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEntity;
-import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
-import com.alarmdashboard.alarm_dashboard_backend.repository.AlarmRepository;
+import com.alarmdashboard.alarm_dashboard_backend.storage.RecentAlarmStore;
 import org.springframework.context.ApplicationListener;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
-import java.time.Duration;
-import java.time.Instant;
-import java.util.List;
-
+/**
+ * /topic/alarms (ya da filtreli /topic/alarms/...) aboneliğinde oturuma /user/queue/alarms-bootstrap
+ * gönderir. SUBSCRIBE son görülen canlı frame'in "epoch" ve "seq" başlıklarını taşıyorsa yalnızca
+ * kaçırılanlar gider (resume=replay); taşımıyorsa, epoch başka bir sunucu sürecine aitse ya da
+ * boşluk tamponda değilse son pencerenin tamamı (resume=full). /topic/alarms.compact aboneliğinde aynısı
+ * sıkı biçimde /user/queue/alarms-bootstrap.compact'a gider.
+ */
 @Component
 public class AlarmSubscribeListener implements ApplicationListener<SessionSubscribeEvent> {
 
+    public static final String RESUME_HEADER = "resume";
+
+    private static final String BOOTSTRAP_QUEUE = "/queue/alarms-bootstrap";
+    private static final String COMPACT_BOOTSTRAP_QUEUE = "/queue/alarms-bootstrap.compact";
+
     private final SimpMessageSendingOperations messaging;
-    private final AlarmRepository repo;
+    private final AlarmBootstrapCache bootstrap;
+    private final String epoch;
 
-    public AlarmSubscribeListener(SimpMessageSendingOperations messaging, AlarmRepository repo) {
+    public AlarmSubscribeListener(SimpMessageSendingOperations messaging, AlarmBootstrapCache bootstrap,
+                                  RecentAlarmStore recent) {
         this.messaging = messaging;
-        this.repo = repo;
+        this.bootstrap = bootstrap;
+        this.epoch = String.valueOf(recent.epoch());
     }
 
     @Override
     public void onApplicationEvent(SessionSubscribeEvent event) {
         var acc = SimpMessageHeaderAccessor.wrap(event.getMessage());
-        if (!"/topic/alarms".equals(acc.getDestination())) return;
+        String destination = acc.getDestination();
+        String pattern;
+        boolean compacted = false;
+        if (AlarmBroadcaster.TOPIC.equals(destination)) {
+            pattern = null;
+        } else if (AlarmBroadcaster.COMPACT_TOPIC.equals(destination)) {
+            pattern = null;
+            compacted = true;
+        } else if (AlarmDestinations.isFiltered(destination)) {
+            pattern = destination;
+        } else {
+            return;
+        }
 
         String sessionId = acc.getSessionId();
 
-        // Son 10 dakika
-        Instant since = Instant.now().minus(Duration.ofMinutes(10));
-        List<AlarmEntity> recent = repo.findSince(since);
+        // Yeniden bağlanma: yalnızca kaçırılanlar (tampondan, oturuma özel)
+        AlarmBootstrapCache.Payload payload = null;
+        Long lastSeen = resumeFrom(acc);
+        if (lastSeen != null) {
+            payload = compacted ? bootstrap.compactReplay(lastSeen) : bootstrap.replay(lastSeen, pattern);
+        }
+        String mode = payload != null ? "replay" : "full";
 
-        // Entity -> Event (frontend şeması)
-        List<AlarmEvent> payload = recent.stream()
-                .map(this::toEvent)
-                .toList();
+        // Son 10 dakika: hazır serileştirilmiş JSON (bellekten, gerekirse DB'den), oturumlar arası paylaşılır
+        if (payload == null) {
+            payload = compacted ? bootstrap.compactSnapshot()
+                    : pattern == null ? bootstrap.snapshot() : bootstrap.snapshot(pattern);
+        }
 
-        // Yalnızca bu WS oturumuna gönder
-        messaging.convertAndSendToUser(
-                sessionId,
-                "/queue/alarms-bootstrap",
-                payload,
-                headersForSession(sessionId)
+        // Yalnızca bu WS oturumuna gönder (byte[] olduğu gibi gider, converter'a girmez)
+        messaging.send(
+                "/user/" + sessionId + (compacted ? COMPACT_BOOTSTRAP_QUEUE : BOOTSTRAP_QUEUE),
+                MessageBuilder.createMessage(payload.json(), headersForSession(sessionId, payload.seq(), mode))
         );
     }
 
-    private MessageHeaders headersForSession(String sessionId) {
+    /** Aynı süreçten (epoch) geçerli bir seq varsa onu döner. */
+    private Long resumeFrom(SimpMessageHeaderAccessor acc) {
+        String seq = acc.getFirstNativeHeader(AlarmBroadcaster.SEQ_HEADER);
+        if (seq == null || !epoch.equals(acc.getFirstNativeHeader(AlarmBroadcaster.EPOCH_HEADER))) return null;
+        try {
+            return Long.parseLong(seq.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private MessageHeaders headersForSession(String sessionId, long seq, String mode) {
         var h = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
         h.setSessionId(sessionId);
+        h.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        h.setNativeHeader(AlarmBroadcaster.SEQ_HEADER, String.valueOf(seq));
+        h.setNativeHeader(AlarmBroadcaster.EPOCH_HEADER, epoch);
+        h.setNativeHeader(RESUME_HEADER, mode);
         h.setLeaveMutable(true);
         return h.getMessageHeaders();
     }
-
-    private AlarmEvent toEvent(AlarmEntity e) {
-        String level    = nz(e.getLevel(), "INFO");
-        String type     = nz(e.getType(),  "INFO");
-        String location = nz(e.getLocation(), "Unknown");
-        String message  = nz(e.getMessage(), "");
-
-        Instant ts = (e.getCreatedAt() != null ? e.getCreatedAt() : Instant.now());
-        String id  = nz(e.getId(), null);
-        if (id == null || id.isBlank()) {
-            String target = nz(e.getTarget(), "alarm");
-            id = target + "@" + ts;
-        }
-        return new AlarmEvent(id, level, type, location, message, ts);
-    }
-
-    private static String nz(String v, String def) {
-        return (v == null || v.isBlank()) ? def : v;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,238 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /topic/alarms.compact gövdeleri: alan adları yok, zaman epoch ms, hedef/level/type/location süreç
+ * boyunca sabit küçük tamsayılarla (sözlük) gider. Sözlük tüm oturumlarca paylaşılır ve yalnızca büyür:
+ * bir değer ilk kodlandığı frame'de tanımlanır ("d"); bootstrap yalnızca kendi satırlarının kullandığı
+ * kodları taşır ("k"), böylece boyutu sürecin ömrüyle değil penceredeki satırlarla orantılıdır. İstemci
+ * bilmediği bir kod görürse (abonelik anında kaçan tanım) {@link #definitions} ile ister.
+ * SockJS aktarımları metin olduğundan gövde yine JSON'dur (ikili CBOR/Smile frame'i taşınamaz).
+ *
+ * <p>Gövde: {"d":[ilkKod, değer, ...], "k":[kod, değer, kod, değer, ...], "a":[satır, ...]}; "d" ardışık
+ * yeni tanımlar (canlı frame), "k" seçilmiş tanımlar (bootstrap, tanım yanıtı); boşsa yazılmaz.
+ * Satır: [hedef, t, level, type, location, message(, ek(, bitiş))] — tamsayı sözlük kodu, string düz değer,
+ * null: değer yok. id çoğunlukla "hedef@timestamp"tır (Instant.toString); o durumda ek yazılmaz ya da
+ * timestamp'in milisaniye altı nanosaniyesidir (sayı), id ve timestamp bundan kurulur. Değilse ek
+ * id'nin "@" sonrası (hedef yoksa tamamı, string). bitiş yalnızca kapanış olayında yazılır (epoch ms; ek yoksa
+ * ek yerine null). Sözlük maxEntries'e ulaşınca yeni değerler düz string gider.
+ */
+@Component
+public class CompactAlarmCodec {
+
+    // Türetilen id'nin zaman kısmı: 0000-9999 yılları (dört haneli; istemcinin toISOString'i ile aynı biçim)
+    private static final long MAX_DERIVED_MILLIS = 253_402_300_800_000L;
+
+    private static final byte[] DEFINITIONS_FIELD = "{\"k\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ROWS_FIELD = "\"a\":".getBytes(StandardCharsets.US_ASCII);
+
+    private final JsonFactory json;
+    private final int maxEntries;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    public CompactAlarmCodec(ObjectMapper om, AlarmProps props, MeterRegistry registry) {
+        this.json = om.getFactory();
+        this.maxEntries = props.compact().dictionarySize();
+        Gauge.builder("alarm.ws.compact.dictionary", this, CompactAlarmCodec::size)
+                .description("Sıkı WS biçiminin paylaşılan sözlüğündeki değer sayısı")
+                .register(registry);
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    /** Canlı frame gövdesi; defines: gövde yeni sözlük tanımı ("d") taşıyor. */
+    public record Frame(byte[] body, boolean defines) {}
+
+    /**
+     * Tek olaylık canlı frame; bu olayla ilk kez kodlanan değerlerin tanımları dahil.
+     * Çağıran, frame'leri kodlandıkları sırayla broker'a vermelidir (tanım, onu kullanan frame'den önce).
+     */
+    public synchronized Frame frame(AlarmEvent e) {
+        int base = values.size();
+        Row row = code(e);
+        boolean defines = values.size() > base;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator g = json.createGenerator(out)) {
+            g.writeStartObject();
+            if (defines) {
+                g.writeArrayFieldStart("d");
+                g.writeNumber(base);
+                for (int i = base; i < values.size(); i++) g.writeString(values.get(i));
+                g.writeEndArray();
+            }
+            g.writeArrayFieldStart("a");
+            write(g, row);
+            g.writeEndArray();
+            g.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new Frame(out.toByteArray(), defines);
+    }
+
+    /** Kodlanmış satırların JSON dizisi ve kullandıkları sözlük kodları (artan, tekil). */
+    public record Rows(byte[] json, int[] codes) {}
+
+    /** Satırların JSON dizisi (tanımsız); {@link #withDictionary} ile gövdeye dönüşür. */
+    public synchronized Rows rows(List<AlarmEvent> events) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + events.size() * 48);
+        BitSet used = new BitSet();
+        try (JsonGenerator g = json.createGenerator(out)) {
+            g.writeStartArray();
+            for (AlarmEvent e : events) {
+                Row row = code(e);
+                mark(used, row.target());
+                mark(used, row.level());
+                mark(used, row.type());
+                mark(used, row.location());
+                write(g, row);
+            }
+            g.writeEndArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new Rows(out.toByteArray(), used.stream().toArray());
+    }
+
+    private static void mark(BitSet used, Object v) {
+        if (v instanceof Integer k) used.set(k);
+    }
+
+    /**
+     * Bootstrap gövdesi: rows'un kullandığı kodların tanımları + satırlar. Sözlük yalnızca büyüdüğünden
+     * ve kod değişmediğinden rows daha önce kodlanmış (paylaşılan) olsa da tanımlar geçerlidir.
+     */
+    public byte[] withDictionary(Rows rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows.json().length + 16 + rows.codes().length * 24);
+        if (rows.codes().length > 0) {
+            out.writeBytes(DEFINITIONS_FIELD);
+            out.writeBytes(definitionArray(rows.codes()));
+            out.write(',');
+        } else {
+            out.write('{');
+        }
+        out.writeBytes(ROWS_FIELD);
+        out.writeBytes(rows.json());
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    /** İstenen kodların tanım gövdesi ({"k":[...]}); bilinmeyen kodlar atlanır. */
+    public byte[] definitions(int[] codes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + codes.length * 24);
+        out.writeBytes(DEFINITIONS_FIELD);
+        out.writeBytes(definitionArray(codes));
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    /** [kod, değer, kod, değer, ...] */
+    private byte[] definitionArray(int[] codes) {
+        String[] defined = new String[codes.length];
+        synchronized (this) {
+            for (int i = 0; i < codes.length; i++) {
+                if (codes[i] >= 0 && codes[i] < values.size()) defined[i] = values.get(codes[i]);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + codes.length * 24);
+        try (JsonGenerator g = json.createGenerator(out)) {
+            g.writeStartArray();
+            for (int i = 0; i < codes.length; i++) {
+                if (defined[i] == null) continue;
+                g.writeNumber(codes[i]);
+                g.writeString(defined[i]);
+            }
+            g.writeEndArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    // ---------- kodlama ----------
+
+    /**
+     * Kodlanmış satır: Object alanlar Integer (sözlük kodu), String ya da null. extra: null (id türetilir),
+     * Integer (id türetilir, timestamp'in milisaniye altı nanosaniyesi) ya da String (id'nin kendisi/"@" sonrası).
+     */
+    private record Row(Object target, Long t, Object level, Object type, Object location, String message, Object extra,
+                       Long endedAt) {}
+
+    private Row code(AlarmEvent e) {
+        String id = e.id();
+        int at = id == null ? -1 : id.indexOf('@');
+        String target = at < 0 ? null : id.substring(0, at);
+        Instant ts = e.timestamp();
+        Long t = ts == null ? null : ts.toEpochMilli();
+        Object extra;
+        if (target != null && t != null && derivable(id, at, ts, t)) {
+            int subMillis = ts.getNano() % 1_000_000;
+            extra = subMillis == 0 ? null : subMillis;
+        } else {
+            extra = target != null ? id.substring(at + 1) : id;
+        }
+        Long endedAt = e.endedAt() == null ? null : e.endedAt().toEpochMilli();
+        return new Row(ref(target), t, ref(e.level()), ref(e.type()), ref(e.location()), e.message(), extra, endedAt);
+    }
+
+    /** id == hedef + "@" + timestamp.toString() mi (istemci aynı metni t ve milisaniye altından kurar). */
+    private static boolean derivable(String id, int at, Instant ts, long t) {
+        if (t < 0 || t >= MAX_DERIVED_MILLIS) return false;
+        String iso = ts.toString();
+        return id.length() == at + 1 + iso.length() && id.startsWith(iso, at + 1);
+    }
+
+    private Object ref(String s) {
+        if (s == null) return null;
+        Integer k = codes.get(s);
+        if (k != null) return k;
+        if (values.size() >= maxEntries) return s;
+        k = values.size();
+        codes.put(s, k);
+        values.add(s);
+        return k;
+    }
+
+    private static void write(JsonGenerator g, Row r) throws IOException {
+        g.writeStartArray();
+        value(g, r.target());
+        if (r.t() == null) g.writeNull();
+        else g.writeNumber(r.t());
+        value(g, r.level());
+        value(g, r.type());
+        value(g, r.location());
+        value(g, r.message());
+        if (r.extra() != null || r.endedAt() != null) value(g, r.extra());
+        if (r.endedAt() != null) g.writeNumber(r.endedAt());
+        g.writeEndArray();
+    }
+
+    private static void value(JsonGenerator g, Object v) throws IOException {
+        if (v == null) g.writeNull();
+        else if (v instanceof Integer k) g.writeNumber(k);
+        else g.writeString((String) v);
+    }
+}
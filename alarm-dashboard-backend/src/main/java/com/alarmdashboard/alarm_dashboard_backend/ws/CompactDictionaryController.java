@@ -0,0 +1,49 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.storage.RecentAlarmStore;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Sıkı biçimde bilinmeyen kod: istemci /app/alarms.compact.define'a kod listesini gönderir, tanımlar
+ * yalnızca o oturuma /user/queue/alarms-dictionary.compact ile gelir ({"k":[kod, değer, ...]}).
+ * Abonelik anında kaçan tanım böylece yeniden bağlanmadan tamamlanır; istemci bekleyen frame'leri
+ * yanıt gelince çözer. Yanıt "epoch" başlığını taşır: başka sürecin kodları uygulanmaz.
+ */
+@Controller
+public class CompactDictionaryController {
+
+    private static final int MAX_CODES = 1024;
+    private static final String QUEUE = "/queue/alarms-dictionary.compact";
+
+    private final SimpMessageSendingOperations messaging;
+    private final CompactAlarmCodec compact;
+    private final String epoch;
+
+    public CompactDictionaryController(SimpMessageSendingOperations messaging, CompactAlarmCodec compact,
+                                       RecentAlarmStore recent) {
+        this.messaging = messaging;
+        this.compact = compact;
+        this.epoch = String.valueOf(recent.epoch());
+    }
+
+    @MessageMapping("/alarms.compact.define")
+    public void define(@Payload List<Integer> codes, @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        int[] wanted = codes.stream().filter(c -> c != null && c >= 0).limit(MAX_CODES).mapToInt(Integer::intValue).toArray();
+        var h = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        h.setSessionId(sessionId);
+        h.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        h.setNativeHeader(AlarmBroadcaster.EPOCH_HEADER, epoch);
+        h.setLeaveMutable(true);
+        messaging.send("/user/" + sessionId + QUEUE, MessageBuilder.createMessage(compact.definitions(wanted), h.getMessageHeaders()));
+    }
+}
@@ -0,0 +1,286 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.AlarmProps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * İstemciye giden MESSAGE frame'leri için oturum başına sınırlı kuyruk (clientOutboundChannel interceptor'ı).
+ * Oturumun aynı anda yalnızca bir frame'i gönderimdedir; o yazılınca sıradaki bırakılır. Böylece oturum
+ * başına sıra korunur (sıkı biçimin sözlük tanımları, seq) ve yavaş bir istemcinin birikmesi yalnızca kendi
+ * kuyruğunda, sınırlı kalır; diğer oturumların gönderimini beklemez.
+ *
+ * <p>Kuyruk queueSize'ı aşınca ya da en eski frame maxLag'den yaşlanınca slowConsumer politikası uygulanır:
+ * DROP_INFO (yerini daha yenisi almış INFO frame'leri atılır) → COLLAPSE (abonelik + hedef başına en yeni
+ * frame kalır) → DISCONNECT (oturum kapanır, istemci yeniden bağlanır). Her adım yetmezse sonrakine geçilir.
+ * Hedefin kuyruktaki en yeni frame'i hiçbir adımda atılmaz (son durumu kaybolmaz). Yalnızca yayıncının
+ * {@link #LEVEL_HEADER}/{@link #TARGET_HEADER} koyduğu frame'ler atılabilir; bootstrap, .batch, .cleared
+ * gibi frame'ler kuyrukta kalır. Atılan frame sayısı, oturuma giden bir sonraki frame'in "dropped"
+ * başlığında bildirilir; atılanların seq'i geçildiğinden resume onları getirmez, istemci tam bootstrap'la
+ * (resume=full) yeniden eşitlenir.
+ *
+ * <p>Gönderimdeki frame giden kanalın bir iş parçacığını (alarm.outbound.sender-threads) soket yazımı
+ * bitene kadar tutar; oturum başına en çok bir tane. senderThreads kadar oturum aynı anda soketinde
+ * beklerse diğer oturumların frame'leri de bekler. Takılan yazımı Spring'in sendTimeLimit'i (kalp atışı
+ * frame'leri de denetler) ya da biriken frame'lerle politika oturumu kapatarak sonlandırır.
+ */
+@Component
+public class SessionOutbox implements ExecutorChannelInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(SessionOutbox.class);
+
+    /** Yayıncının frame'e koyduğu, istemciye gitmeyen başlıklar (broker abone mesajlarına kopyalar). */
+    public static final String LEVEL_HEADER = "alarmLevel";
+    public static final String TARGET_HEADER = "alarmTarget";
+    /** Önceki teslimden bu yana bu oturum için atılan frame sayısı (STOMP başlığı). */
+    public static final String DROPPED_HEADER = "dropped";
+
+    private static final String RELEASED_HEADER = "alarmOutboxReleased";
+    private static final CloseStatus SLOW_CONSUMER =
+            CloseStatus.SESSION_NOT_RELIABLE.withReason("Slow consumer, reconnect and resume");
+
+    private final AlarmProps.Outbound props;
+    private final long maxLagNanos;
+    private final MeterRegistry registry;
+    private final Map<String, Outbox> sessions = new ConcurrentHashMap<>();
+    private final Counter droppedInfo;
+    private final Counter collapsed;
+    private final Counter disconnects;
+
+    private record Pending(Message<?> message, long at) {}
+
+    private static final class Outbox {
+        final WebSocketSession session;
+        final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        boolean inFlight;
+        boolean closing;
+        int dropped;            // son teslimden bu yana atılan
+        Gauge gauge;
+
+        Outbox(WebSocketSession session) {
+            this.session = session;
+        }
+
+        synchronized int depth() {
+            return queue.size() + (inFlight ? 1 : 0);
+        }
+    }
+
+    public SessionOutbox(AlarmProps props, MeterRegistry registry) {
+        this.props = props.outbound();
+        this.maxLagNanos = this.props.maxLag().toNanos();
+        this.registry = registry;
+        this.droppedInfo = Counter.builder("alarm.ws.slow.dropped")
+                .description("Yavaş oturumların kuyruğundan atılan frame'ler")
+                .tag("reason", "info")
+                .register(registry);
+        this.collapsed = Counter.builder("alarm.ws.slow.dropped")
+                .description("Yavaş oturumların kuyruğundan atılan frame'ler")
+                .tag("reason", "collapsed")
+                .register(registry);
+        this.disconnects = Counter.builder("alarm.ws.slow.disconnects")
+                .description("Kuyruğu politikayla hafifletilemediği için kapatılan oturumlar")
+                .register(registry);
+        Gauge.builder("alarm.ws.session.queue.max", this, SessionOutbox::maxDepth)
+                .description("Oturum kuyruklarının en derini (frame)")
+                .register(registry);
+    }
+
+    // ---------- oturumlar ----------
+
+    /** WebSocket handler'ını sarar: bağlanan oturumu kaydeder, kapananın kuyruğunu bırakır. */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                opened(session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                try {
+                    super.afterConnectionClosed(session, closeStatus);
+                } finally {
+                    closed(session.getId());
+                }
+            }
+        };
+    }
+
+    private void opened(WebSocketSession session) {
+        Outbox box = new Outbox(session);
+        if (props.perSessionMetrics()) {
+            box.gauge = Gauge.builder("alarm.ws.session.queue", box, Outbox::depth)
+                    .description("Oturumun gönderilmeyi bekleyen frame'leri")
+                    .tag("session", session.getId())
+                    .register(registry);
+        }
+        sessions.put(session.getId(), box);
+    }
+
+    private void closed(String sessionId) {
+        Outbox box = sessions.remove(sessionId);
+        if (box == null) return;
+        synchronized (box) {
+            box.closing = true;
+            box.queue.clear();
+        }
+        if (box.gauge != null) registry.remove(box.gauge);
+    }
+
+    public int maxDepth() {
+        int max = 0;
+        for (Outbox box : sessions.values()) max = Math.max(max, box.depth());
+        return max;
+    }
+
+    // ---------- kanal ----------
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        Map<String, Object> headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) return message;
+        if (headers.containsKey(RELEASED_HEADER)) return message;
+        Outbox box = sessions.get(SimpMessageHeaderAccessor.getSessionId(headers));
+        if (box == null) return message;
+
+        long now = System.nanoTime();
+        Message<?> next;
+        boolean disconnect = false;
+        synchronized (box) {
+            if (box.closing) return null;
+            box.queue.addLast(new Pending(message, now));
+            if (lagging(box, now) && !relieve(box, now)) {
+                disconnect = true;
+                box.closing = true;
+                box.queue.clear();
+            }
+            next = disconnect ? null : take(box);
+        }
+        if (disconnect) close(box);
+        else if (next != null) channel.send(next);
+        return null;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        if (!message.getHeaders().containsKey(RELEASED_HEADER)) return;
+        Outbox box = sessions.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        if (box == null) return;
+        Message<?> next;
+        synchronized (box) {
+            box.inFlight = false;
+            next = box.closing ? null : take(box);
+        }
+        if (next != null) channel.send(next);
+    }
+
+    /** Gönderimde frame yoksa sıradakini bırakır (kilit altında). */
+    private Message<?> take(Outbox box) {
+        if (box.inFlight) return null;
+        Pending p = box.queue.pollFirst();
+        if (p == null) return null;
+        box.inFlight = true;
+        MessageHeaderAccessor acc = MessageHeaderAccessor.getMutableAccessor(p.message());
+        acc.setHeader(RELEASED_HEADER, Boolean.TRUE);
+        if (box.dropped > 0 && acc instanceof NativeMessageHeaderAccessor nat) {
+            nat.setNativeHeader(DROPPED_HEADER, String.valueOf(box.dropped));
+            box.dropped = 0;
+        }
+        return MessageBuilder.createMessage(p.message().getPayload(), acc.getMessageHeaders());
+    }
+
+    // ---------- yavaş istemci ----------
+
+    private boolean lagging(Outbox box, long now) {
+        Pending oldest = box.queue.peekFirst();
+        return box.queue.size() > props.queueSize() || (oldest != null && now - oldest.at() > maxLagNanos);
+    }
+
+    /** Politikaya göre kuyruğu hafifletir; yetmezse false (oturum kapatılır). */
+    private boolean relieve(Outbox box, long now) {
+        AlarmProps.SlowConsumer policy = props.slowConsumer();
+        if (policy == AlarmProps.SlowConsumer.DROP_INFO) {
+            dropInfo(box);
+            if (!lagging(box, now)) return true;
+        }
+        if (policy != AlarmProps.SlowConsumer.DISCONNECT) {
+            collapse(box);
+            return !lagging(box, now);
+        }
+        return false;
+    }
+
+    /** Yerini aynı abonelikte aynı hedefin daha yeni bir frame'i almış INFO frame'lerini atar. */
+    private void dropInfo(Outbox box) {
+        Set<String> seen = new HashSet<>();
+        int n = 0;
+        for (Iterator<Pending> it = box.queue.descendingIterator(); it.hasNext(); ) {
+            Map<String, Object> h = it.next().message().getHeaders();
+            Object target = h.get(TARGET_HEADER);
+            if (target == null) continue;
+            if (!seen.add(key(h, target)) && "INFO".equals(h.get(LEVEL_HEADER))) {
+                it.remove();
+                n++;
+            }
+        }
+        box.dropped += n;
+        droppedInfo.increment(n);
+    }
+
+    /** Aynı abonelikte aynı hedefin eski frame'lerini atar; en yenisi kalır. */
+    private void collapse(Outbox box) {
+        Set<String> seen = new HashSet<>();
+        int n = 0;
+        for (Iterator<Pending> it = box.queue.descendingIterator(); it.hasNext(); ) {
+            Map<String, Object> h = it.next().message().getHeaders();
+            Object target = h.get(TARGET_HEADER);
+            if (target == null) continue;
+            if (!seen.add(key(h, target))) {
+                it.remove();
+                n++;
+            }
+        }
+        box.dropped += n;
+        collapsed.increment(n);
+    }
+
+    private static String key(Map<String, Object> headers, Object target) {
+        return SimpMessageHeaderAccessor.getSubscriptionId(headers) + '\u0000' + target;
+    }
+
+    private void close(Outbox box) {
+        disconnects.increment();
+        log.warn("Closing slow WebSocket session {} ({}): outbound queue over {} frames or {} behind",
+                box.session.getId(), box.session.getRemoteAddress(), props.queueSize(), props.maxLag());
+        try {
+            box.session.close(SLOW_CONSUMER);
+        } catch (Exception ex) {
+            log.debug("Close of slow session {} failed: {}", box.session.getId(), ex.toString());
+        }
+    }
+}
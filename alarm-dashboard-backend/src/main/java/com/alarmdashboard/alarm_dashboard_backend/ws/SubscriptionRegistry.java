@@ -0,0 +1,71 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hangi hedefe kaç STOMP aboneliği olduğunu izler; yayıncılar abonesi olmayan
+ * hedefler için serileştirme yapmasın diye. UNSUBSCRIBE yalnızca abonelik id'si taşıdığından
+ * oturum başına id -> hedef eşlemesi tutulur. Filtreli hedefler (/topic/alarms/...) desen
+ * olabildiğinden ayrıca toplam olarak sayılır.
+ */
+@Component
+public class SubscriptionRegistry {
+
+    private final Map<String, Map<String, String>> bySession = new ConcurrentHashMap<>();
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+    private final AtomicInteger filtered = new AtomicInteger();
+
+    public int count(String destination) {
+        return counts.getOrDefault(destination, 0);
+    }
+
+    public boolean hasSubscribers(String destination) {
+        return count(destination) > 0;
+    }
+
+    /** /topic/alarms/{location}/{level} (ya da deseni) aboneliği var mı. */
+    public boolean hasFilteredSubscribers() {
+        return filtered.get() > 0;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        var acc = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String session = acc.getSessionId(), subId = acc.getSubscriptionId(), dest = acc.getDestination();
+        if (session == null || subId == null || dest == null) return;
+
+        String prev = bySession.computeIfAbsent(session, k -> new ConcurrentHashMap<>()).put(subId, dest);
+        if (prev != null) decrement(prev);
+        counts.merge(dest, 1, Integer::sum);
+        if (AlarmDestinations.isFiltered(dest)) filtered.incrementAndGet();
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        var acc = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subs = bySession.get(acc.getSessionId());
+        if (subs == null || acc.getSubscriptionId() == null) return;
+        String dest = subs.remove(acc.getSubscriptionId());
+        if (dest != null) decrement(dest);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subs = bySession.remove(event.getSessionId());
+        if (subs != null) subs.values().forEach(this::decrement);
+    }
+
+    private void decrement(String dest) {
+        counts.computeIfPresent(dest, (k, n) -> n <= 1 ? null : n - 1);
+        if (AlarmDestinations.isFiltered(dest)) filtered.decrementAndGet();
+    }
+}
@@ -0,0 +1,29 @@
+package com.alarmdashboard.alarm_dashboard_backend.config;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Testler ve benchmark'lar için AlarmProps: uygulamadaki gibi Binder ile bağlanır, verilmeyen her alan
+ * varsayılanını alır. Yeni bir alt grup eklemek çağıranları değiştirmez.
+ * TestAlarmProps.of("recent.capacity=10000", "recent.warm-start=false")
+ */
+public final class TestAlarmProps {
+
+    private TestAlarmProps() {}
+
+    /** "anahtar=değer" çiftleri, "alarm." öneki olmadan. */
+    public static AlarmProps of(String... entries) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (String entry : entries) {
+            int eq = entry.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("key=value expected: " + entry);
+            map.put("alarm." + entry.substring(0, eq).trim(), entry.substring(eq + 1).trim());
+        }
+        return new Binder(new MapConfigurationPropertySource(map))
+                .bindOrCreate("alarm", AlarmProps.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.alarmdashboard.alarm_dashboard_backend.service;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.TestAlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlapFilterTest {
+
+    private record Delivered(String id, boolean clear, int suppressed, boolean released) {}
+
+    private static AlarmEvent event(String id) {
+        return new AlarmEvent(id, "WARN", "FAN", "L1", "m", Instant.now());
+    }
+
+    private static FlapFilter filter() {
+        return new FlapFilter(TestAlarmProps.of("flap.burst=1", "flap.hold-off=200ms"), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void suppressedTailIsReleasedOnceWithCount() throws Exception {
+        FlapFilter f = filter();
+        List<Delivered> out = new CopyOnWriteArrayList<>();
+        CountDownLatch released = new CountDownLatch(1);
+        f.onRelease((evt, clear, suppressed, rel) -> {
+            out.add(new Delivered(evt.id(), clear, suppressed, rel));
+            if (rel) released.countDown();
+        });
+        f.start();
+        try {
+            f.submit("T", event("a"), false);
+            f.submit("T", event("b"), false);
+            f.submit("T", event("c"), true);
+            assertThat(released.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(out).containsExactly(
+                    new Delivered("a", false, 0, false),
+                    new Delivered("c", true, 1, true));
+        } finally {
+            f.stop();
+        }
+    }
+
+    @Test
+    void releaseRunsWithoutHoldingTheTargetLock() throws Exception {
+        FlapFilter f = filter();
+        CountDownLatch inRelease = new CountDownLatch(1);
+        CountDownLatch submitted = new CountDownLatch(1);
+        List<Delivered> out = new CopyOnWriteArrayList<>();
+        f.onRelease((evt, clear, suppressed, rel) -> {
+            out.add(new Delivered(evt.id(), clear, suppressed, rel));
+            if (rel) {
+                inRelease.countDown();
+                try {
+                    // aynı hedefe gelen olay, teslim sürerken kilitte beklememeli
+                    submitted.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        f.start();
+        try {
+            f.submit("T", event("a"), false);
+            f.submit("T", event("b"), false);
+            assertThat(inRelease.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread other = new Thread(() -> {
+                f.submit("T", event("c"), false);
+                submitted.countDown();
+            });
+            other.start();
+            other.join(5_000);
+            assertThat(other.isAlive()).isFalse();
+        } finally {
+            submitted.countDown();
+            f.stop();
+        }
+        // c, teslimi süren b'den sonra gelir (aynı hedef için sıra korunur)
+        assertThat(out).extracting(Delivered::id).startsWith("a", "b");
+    }
+}
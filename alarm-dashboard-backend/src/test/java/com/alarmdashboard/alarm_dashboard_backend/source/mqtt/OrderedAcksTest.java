@@ -0,0 +1,56 @@
+package com.alarmdashboard.alarm_dashboard_backend.source.mqtt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderedAcksTest {
+
+    private final OrderedAcks acks = new OrderedAcks();
+    private final List<Integer> acked = new ArrayList<>();
+
+    private OrderedAcks.Completion arrive(int id) {
+        return acks.register(() -> acked.add(id));
+    }
+
+    @Test
+    void releasesAcksInArrivalOrder() {
+        OrderedAcks.Completion m1 = arrive(1);
+        OrderedAcks.Completion m2 = arrive(2);
+        OrderedAcks.Completion m3 = arrive(3);
+
+        m3.acknowledge();
+        m2.acknowledge();
+        assertThat(acked).isEmpty();
+        assertThat(acks.pending()).isEqualTo(3);
+
+        m1.acknowledge();
+        assertThat(acked).containsExactly(1, 2, 3);
+        assertThat(acks.pending()).isZero();
+    }
+
+    @Test
+    void skippedMessageIsNotAckedAndDoesNotBlockLaterOnes() {
+        OrderedAcks.Completion m1 = arrive(1);
+        OrderedAcks.Completion m2 = arrive(2);
+        m2.acknowledge();
+        m1.skip();
+        m1.acknowledge();   // ikinci çağrı sayılmaz
+        assertThat(acked).containsExactly(2);
+    }
+
+    @Test
+    void failedAckDoesNotStopTheRelease() {
+        OrderedAcks.Completion lost = acks.register(() -> {
+            throw new IllegalStateException("connection lost");
+        });
+        OrderedAcks.Completion next = arrive(2);
+        next.acknowledge();
+        lost.acknowledge();
+        assertThat(acked).containsExactly(2);
+        assertThat(acks.pending()).isZero();
+    }
+}
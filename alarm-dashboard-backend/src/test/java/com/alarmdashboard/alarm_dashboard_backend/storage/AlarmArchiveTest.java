@@ -0,0 +1,120 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.TestAlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmFilter;
+import com.alarmdashboard.alarm_dashboard_backend.dto.AlarmSlice;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlarmArchiveTest {
+
+    private static final LocalDate DAY = LocalDate.parse("2026-01-05");
+    private static final Instant T0 = Instant.parse("2026-01-05T08:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private AlarmArchive archive(String... extra) {
+        List<String> entries = new ArrayList<>(List.of("archive.enabled=true", "archive.dir=" + dir, "archive.block-rows=8"));
+        entries.addAll(List.of(extra));
+        return new AlarmArchive(TestAlarmProps.of(entries.toArray(String[]::new)));
+    }
+
+    private static List<ArchivedAlarm> rows(int from, int to) {
+        List<ArchivedAlarm> out = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Instant at = T0.plusSeconds(i);
+            out.add(new ArchivedAlarm("id-" + i, "INFO", "FAN", "L", "m" + i, "T/" + i, null, "CLEARED", at, at.plusSeconds(1)));
+        }
+        return out;
+    }
+
+    private static List<String> ids(Iterable<AlarmSlice> rows) {
+        List<String> out = new ArrayList<>();
+        rows.forEach(a -> out.add(a.id()));
+        return out;
+    }
+
+    private static List<String> ids(int from, int to) {
+        return rows(from, to).stream().map(ArchivedAlarm::id).toList();
+    }
+
+    @Test
+    void followerSeesSegmentsWrittenAfterItStarted() throws IOException {
+        AlarmArchive leader = archive();
+        AlarmArchive follower = archive();
+        assertThat(follower.newest()).isNull();
+
+        leader.append(DAY, rows(0, 20).iterator());
+        assertThat(follower.newest()).isEqualTo(T0.plusSeconds(19));
+        assertThat(ids(follower.history(AlarmFilter.NONE, null, null, 100))).hasSize(20);
+
+        leader.append(DAY, rows(20, 30).iterator());
+        assertThat(ids(follower.history(AlarmFilter.NONE, null, null, 100))).hasSize(30);
+        assertThat(follower.partitions()).isEqualTo(1);
+    }
+
+    @Test
+    void rescansOnlyWhenDirectoryChangesOrIntervalPasses() throws IOException {
+        AlarmArchive leader = archive();
+        AlarmArchive follower = archive("archive.rescan-interval=1h");
+        leader.append(DAY, rows(0, 20).iterator());
+        assertThat(follower.newest()).isEqualTo(T0.plusSeconds(19));
+
+        // Dizin değişmemiş görünürse (mtime aynı) süre dolmadan listelenmez
+        FileTime before = Files.getLastModifiedTime(dir);
+        leader.append(DAY.plusDays(1), rows(86_400, 86_410).iterator());
+        Files.setLastModifiedTime(dir, before);
+        assertThat(follower.newest()).isEqualTo(T0.plusSeconds(19));
+
+        Files.setLastModifiedTime(dir, FileTime.fromMillis(before.toMillis() + 1_000));
+        assertThat(follower.newest()).isEqualTo(T0.plusSeconds(86_409));
+        assertThat(follower.partitions()).isEqualTo(2);
+    }
+
+    @Test
+    void scanKeepsReadingRetiredGenerationUntilClosed() throws IOException {
+        AlarmArchive a = archive();
+        a.append(DAY, rows(0, 40).iterator());
+
+        List<String> seen = new ArrayList<>();
+        try (AlarmArchive.Scan scan = a.scan(AlarmFilter.NONE, T0, T0.plusSeconds(3600))) {
+            for (int i = 0; i < 10; i++) seen.add(scan.next().id());
+            // Gün yeni nesille yeniden yazılır, eski segment emekliye ayrılır
+            a.append(DAY, rows(40, 50).iterator());
+            scan.forEachRemaining(r -> seen.add(r.id()));
+        }
+        assertThat(seen).isEqualTo(ids(0, 40));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.map(p -> p.getFileName().toString())).containsExactly("alarms-2026-01-05-g2.seg");
+        }
+        try (AlarmArchive.Scan scan = a.scan(AlarmFilter.NONE, T0, T0.plusSeconds(3600))) {
+            List<String> all = new ArrayList<>();
+            scan.forEachRemaining(r -> all.add(r.id()));
+            assertThat(all).isEqualTo(ids(0, 50));
+        }
+    }
+
+    @Test
+    void abandonedScanReleasesOnClose() throws IOException {
+        AlarmArchive a = archive();
+        a.append(DAY, rows(0, 40).iterator());
+        try (AlarmArchive.Scan scan = a.scan(AlarmFilter.NONE, T0, T0.plusSeconds(3600))) {
+            scan.next();
+        }
+        a.append(DAY, rows(40, 41).iterator());
+        assertThat(dir.resolve("alarms-2026-01-05-g1.seg")).doesNotExist();
+    }
+}
@@ -0,0 +1,176 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.TestAlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlarmJournalTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-05T08:00:00.123456789Z");
+
+    @TempDir
+    Path dir;
+
+    private final List<AlarmJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        opened.forEach(AlarmJournal::stop);
+    }
+
+    private AlarmJournal journal(String... extra) {
+        List<String> entries = new ArrayList<>(List.of("journal.enabled=true", "journal.dir=" + dir,
+                "journal.segment-size=4KB", "journal.max-size=1MB", "journal.sync-interval=1ms"));
+        entries.addAll(List.of(extra));
+        AlarmJournal j = new AlarmJournal(TestAlarmProps.of(entries.toArray(String[]::new)), new SimpleMeterRegistry());
+        j.start();
+        opened.add(j);
+        return j;
+    }
+
+    private static AlarmEntity entity(int i) {
+        AlarmEntity e = new AlarmEntity();
+        e.setId(String.format("ETP/P%04d@%d", i, i));
+        e.setLevel(i % 2 == 0 ? "CRITICAL" : "INFO");
+        e.setType(i % 3 == 0 ? null : "FAN");
+        e.setLocation("Bölge " + (i % 4));
+        e.setMessage("mesaj " + (i % 10));
+        e.setTarget(String.format("ETP/P%04d", i));
+        e.setPriority(i % 5 == 0 ? null : i % 5);
+        e.setStatus(i % 7 == 0 ? "CLEARED" : "ACTIVE");
+        e.setCreatedAt(T0.plusSeconds(i));
+        e.setEndedAt(i % 7 == 0 ? T0.plusSeconds(i + 1) : null);
+        return e;
+    }
+
+    private static List<AlarmEntity> drain(AlarmJournal j) throws InterruptedException {
+        List<AlarmEntity> out = new ArrayList<>();
+        List<AlarmEntity> batch = new ArrayList<>();
+        while (j.hasUnread()) {
+            j.poll(batch, 64, 0);
+            out.addAll(batch);
+            batch.clear();
+        }
+        return out;
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith("wal-")).sorted().toList();
+        }
+    }
+
+    private static void assertSame(List<AlarmEntity> actual, int from, int to) {
+        assertThat(actual).hasSize(to - from);
+        for (int i = from; i < to; i++) {
+            assertThat(actual.get(i - from)).usingRecursiveComparison().isEqualTo(entity(i));
+        }
+    }
+
+    @Test
+    void rollsOverSegmentsAndReadsInOrder() throws Exception {
+        AlarmJournal j = journal();
+        for (int i = 0; i < 300; i++) assertThat(j.append(entity(i))).isTrue();
+        assertThat(segments(dir).size()).isGreaterThan(5);
+
+        assertSame(drain(j), 0, 300);
+        j.commit();
+        // Tamamı işlenmiş segmentler fsync'ten sonra silinir; yalnızca yazılan segment kalır
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (segments(dir).size() > 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+            j.commit();
+        }
+        assertThat(segments(dir)).hasSize(1);
+        assertThat(j.pending()).isZero();
+    }
+
+    @Test
+    void replaysUncommittedRecordsAfterRestart() throws Exception {
+        AlarmJournal j = journal();
+        for (int i = 0; i < 120; i++) j.append(entity(i));
+        List<AlarmEntity> first = new ArrayList<>();
+        j.poll(first, 50, 0);
+        j.commit();
+        j.poll(first, 10, 0);   // okundu ama commit edilmedi: yeniden okunmalı
+        j.stop();
+
+        AlarmJournal reopened = journal();
+        assertSame(drain(reopened), 50, 120);
+        reopened.append(entity(120));
+        assertSame(drain(reopened), 120, 121);
+    }
+
+    @Test
+    void tornTailIsTruncatedAndAppendsContinueFromIt() throws Exception {
+        AlarmJournal j = journal("journal.segment-size=64KB");
+        for (int i = 0; i < 9; i++) j.append(entity(i + 1000));
+        long last = j.pending();   // commit yok: onuncu kaydın konumu
+        j.append(entity(1009));
+        j.stop();
+
+        // Son kaydın gövdesine çöp: yarım yazılmış kayıt gibi CRC tutmaz
+        Path wal = segments(dir).get(0);
+        try (FileChannel ch = FileChannel.open(wal, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{0x5A, 0x5A, 0x5A}), last + 12);
+        }
+
+        AlarmJournal reopened = journal("journal.segment-size=64KB");
+        assertThat(reopened.pending()).isEqualTo(last);
+        assertSame(drain(reopened), 1000, 1009);
+        reopened.append(entity(2000));
+        assertSame(drain(reopened), 2000, 2001);
+    }
+
+    @Test
+    void corruptRecordInEarlierSegmentIsSkippedByRecoveryAndReader() throws Exception {
+        AlarmJournal j = journal();
+        for (int i = 0; i < 3; i++) j.append(entity(i));
+        long fourth = j.pending();
+        for (int i = 3; i < 200; i++) j.append(entity(i));
+        j.stop();
+
+        List<Path> wals = segments(dir);
+        assertThat(wals.size()).isGreaterThan(3);
+        try (FileChannel ch = FileChannel.open(wals.get(0), StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{0x5A, 0x5A, 0x5A}), fourth + 12);
+        }
+
+        // İlk segmentin bozuk kayıttan sonrası kayıp; sonraki segmentler okunur, okuyucu takılmaz
+        AlarmJournal reopened = journal();
+        List<AlarmEntity> read = drain(reopened);
+        assertSame(read.subList(0, 3), 0, 3);
+        String id = read.get(3).getId();
+        int resume = Integer.parseInt(id.substring(id.indexOf('@') + 1));
+        assertThat(resume).isGreaterThan(3);
+        assertSame(read.subList(3, read.size()), resume, 200);
+
+        reopened.append(entity(500));
+        assertSame(drain(reopened), 500, 501);
+    }
+
+    @Test
+    void rejectsWhenFullWithoutLosingAcceptedRecords() throws Exception {
+        AlarmJournal j = journal("journal.max-size=8KB");
+        int accepted = 0;
+        while (j.append(entity(accepted))) accepted++;
+        assertThat(accepted).isPositive();
+        assertSame(drain(j), 0, accepted);
+    }
+}
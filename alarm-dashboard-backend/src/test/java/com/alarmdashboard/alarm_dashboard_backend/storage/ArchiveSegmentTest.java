@@ -0,0 +1,132 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArchiveSegmentTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-05T00:00:00.123456Z");
+
+    @TempDir
+    Path dir;
+
+    private static List<ArchivedAlarm> rows(int n) {
+        List<ArchivedAlarm> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Instant at = T0.plusMillis(i * 250L).plusNanos(i % 7 * 1_000L);
+            out.add(new ArchivedAlarm(
+                    "id-" + i,
+                    i % 3 == 0 ? "CRITICAL" : "INFO",
+                    i % 5 == 0 ? null : "FAN",
+                    "Bölge " + (i % 4),
+                    "mesaj " + (i % 11) + (i % 13 == 0 ? " ğüşiöç" : ""),
+                    "ETP/LVMV/P" + (i % 9),
+                    i % 6 == 0 ? null : i % 6 - 3,
+                    i % 2 == 0 ? "CLEARED" : "ACTIVE",
+                    at,
+                    i % 4 == 0 ? null : at.plusSeconds(i)));
+        }
+        return out;
+    }
+
+    private static List<ArchivedAlarm> readAll(ArchiveSegment seg) {
+        List<ArchivedAlarm> out = new ArrayList<>();
+        seg.iterator().forEachRemaining(out::add);
+        return out;
+    }
+
+    @Test
+    void roundTripsAllColumnsAcrossBlocks() throws IOException {
+        Path file = dir.resolve("a.seg");
+        List<ArchivedAlarm> rows = rows(1000);
+        assertThat(ArchiveSegment.write(file, rows.iterator(), 64)).isEqualTo(1000);
+
+        try (ArchiveSegment seg = ArchiveSegment.open(file)) {
+            assertThat(seg.rows()).isEqualTo(1000);
+            assertThat(seg.blocks()).isEqualTo(16);
+            assertThat(seg.oldest()).isEqualTo(rows.get(0).createdAt());
+            assertThat(seg.newest()).isEqualTo(rows.get(999).createdAt());
+            assertThat(readAll(seg)).isEqualTo(rows);
+            for (int b = 0; b < seg.blocks(); b++) {
+                ArchivedAlarm[] block = seg.block(b);
+                assertThat(seg.minMicros(b)).isEqualTo(ArchiveSegment.micros(block[0].createdAt()));
+                assertThat(seg.maxMicros(b)).isEqualTo(ArchiveSegment.micros(block[block.length - 1].createdAt()));
+            }
+        }
+    }
+
+    @Test
+    void emptySegmentHasNoBlocks() throws IOException {
+        Path file = dir.resolve("empty.seg");
+        assertThat(ArchiveSegment.write(file, List.<ArchivedAlarm>of().iterator(), 64)).isZero();
+        try (ArchiveSegment seg = ArchiveSegment.open(file)) {
+            assertThat(seg.blocks()).isZero();
+            assertThat(seg.oldest()).isNull();
+            assertThat(readAll(seg)).isEmpty();
+        }
+    }
+
+    @Test
+    void rejectsTruncatedAndForeignFiles() throws IOException {
+        Path file = dir.resolve("a.seg");
+        ArchiveSegment.write(file, rows(100).iterator(), 32);
+
+        Path truncated = dir.resolve("t.seg");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 5));
+        assertThatThrownBy(() -> ArchiveSegment.open(truncated)).isInstanceOf(IOException.class);
+
+        Path foreign = dir.resolve("f.seg");
+        Files.write(foreign, new byte[64]);
+        assertThatThrownBy(() -> ArchiveSegment.open(foreign)).hasMessageContaining("Not an archive segment");
+    }
+
+    @Test
+    @Timeout(5)
+    void corruptBlockFailsInsteadOfSpinning() throws IOException {
+        Path file = dir.resolve("a.seg");
+        ArchiveSegment.write(file, rows(200).iterator(), 100);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // İlk bloğun ortası: Deflate akışı erken biter ya da geçersiz olur
+            ch.write(ByteBuffer.wrap(new byte[]{3, 0, 0, 0, 0, 0, 0, 0}), 40);
+        }
+        try (ArchiveSegment seg = ArchiveSegment.open(file)) {
+            assertThatThrownBy(() -> seg.block(0))
+                    .isInstanceOf(UncheckedIOException.class)
+                    .hasMessageContaining("Corrupt block 0");
+            assertThat(seg.block(1)).hasSize(100);
+        }
+    }
+
+    @Test
+    void retiredSegmentStaysReadableUntilLastReaderReleases() throws IOException {
+        Path file = dir.resolve("a.seg");
+        ArchiveSegment.write(file, rows(10).iterator(), 4);
+        ArchiveSegment seg = ArchiveSegment.open(file);
+
+        assertThat(seg.acquire()).isTrue();
+        seg.retire();
+        assertThat(seg.block(2)).hasSize(2);
+        assertThat(file).exists();
+
+        seg.release();
+        assertThat(seg.acquire()).isFalse();
+        assertThat(file).doesNotExist();
+    }
+}
@@ -0,0 +1,108 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.TestAlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** summary() kovalı sayımının since() üzerinden tam taramayla eşdeğerliği. */
+class RecentAlarmStoreSummaryTest {
+
+    private static final String[] LEVELS = {"CRITICAL", "WARN", "INFO"};
+
+    /** Eski summary'nin tanımı: pencere başından itibaren tampondaki her olay tek tek sayılır. */
+    private static RecentAlarmStore.Summary reference(RecentAlarmStore s, Duration window, long now) {
+        Map<String, Integer> bySeverity = new HashMap<>();
+        Map<String, Integer> byLocation = new HashMap<>();
+        List<AlarmEvent> events = s.since(Instant.ofEpochMilli(now - window.toMillis())).stream()
+                .filter(e -> e.endedAt() == null)
+                .toList();
+        for (AlarmEvent e : events) {
+            bySeverity.merge(e.level(), 1, Integer::sum);
+            byLocation.merge(e.location(), 1, Integer::sum);
+        }
+        return new RecentAlarmStore.Summary(window.toString(), events.size(), bySeverity, byLocation);
+    }
+
+    @Test
+    void matchesFullScanOnRandomStreams() {
+        Random rnd = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            int capacity = 1 + rnd.nextInt(300);
+            int retentionMin = 1 + rnd.nextInt(90);
+            RecentAlarmStore s = new RecentAlarmStore(TestAlarmProps.of(
+                    "recent.capacity=" + capacity, "recent.retention=" + retentionMin + "m"));
+            long now = System.currentTimeMillis();
+            long t = now - Duration.ofHours(2).toMillis();
+            int n = rnd.nextInt(1000);
+            for (int i = 0; i < n; i++) {
+                // çoğunlukla aynı saniyede yığılma, ara sıra sıçrama ve geriden gelen olay
+                int r = rnd.nextInt(10);
+                if (r < 6) t += rnd.nextInt(300);
+                else if (r < 9) t += rnd.nextInt(60_000);
+                long at = r == 9 ? t - rnd.nextInt(5_000) : t;
+                AlarmEvent e = new AlarmEvent("T" + i, LEVELS[rnd.nextInt(LEVELS.length)], "FAN",
+                        "L" + rnd.nextInt(20), "m", Instant.ofEpochMilli(Math.min(at, now)));
+                // kapanışlar tampona girer ama sayılmaz
+                s.append(rnd.nextInt(8) == 0 ? e.closedAt(Instant.ofEpochMilli(now)) : e);
+                if (rnd.nextInt(50) == 0) assertSame(s, Duration.ofSeconds(1 + rnd.nextInt(7200)), now);
+            }
+            for (Duration w : List.of(Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofMinutes(10),
+                    Duration.ofHours(1), Duration.ofHours(3), Duration.ofMillis(1 + rnd.nextInt(7_200_000)))) {
+                assertSame(s, w, now);
+            }
+        }
+    }
+
+    private static void assertSame(RecentAlarmStore s, Duration window, long now) {
+        RecentAlarmStore.Summary actual = s.summary(window, now);
+        RecentAlarmStore.Summary expected = reference(s, window, now);
+        assertThat(actual.totalActive()).as("total %s", window).isEqualTo(expected.totalActive());
+        assertThat(actual.bySeverity()).as("severity %s", window).isEqualTo(expected.bySeverity());
+        assertThat(actual.byLocation()).as("location %s", window).isEqualTo(expected.byLocation());
+    }
+
+    @Test
+    void bucketsOfEvictedEventsAreReleased() {
+        WindowedCounts counts = new WindowedCounts();
+        for (long seq = 0; seq < 10_000; seq++) {
+            counts.add(seq, seq / 10, "INFO", "L" + seq);
+            counts.evictBefore(Math.max(0, seq - 99));
+        }
+        // 100 olay saniyede 10'ar: 10 dolu + sınırdaki kısmi kova
+        assertThat(counts.bucketCount()).isLessThanOrEqualTo(11);
+        int chain = 0;
+        for (WindowedCounts.Bucket b = counts.newest(); b != null; b = b.older) chain++;
+        assertThat(chain).isEqualTo(counts.bucketCount());
+    }
+
+    @Test
+    void summaryDuringConcurrentAppendsStaysWithinCapacity() throws Exception {
+        int capacity = 500;
+        RecentAlarmStore s = new RecentAlarmStore(TestAlarmProps.of("recent.capacity=" + capacity, "recent.retention=1h"));
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; !stop.get(); i++) {
+                s.append(new AlarmEvent("T" + i, LEVELS[i % 3], "FAN", "L" + (i % 7), "m", Instant.now()));
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                RecentAlarmStore.Summary sum = s.summary(Duration.ofMinutes(10));
+                assertThat(sum.totalActive()).isBetween(0, capacity);
+                assertThat(sum.bySeverity().values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(sum.totalActive());
+                assertThat(sum.byLocation().values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(sum.totalActive());
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.TestAlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentAlarmStoreTest {
+
+    private static final Instant T0 = Instant.now().minus(Duration.ofMinutes(5));
+
+    private static RecentAlarmStore store(int capacity, String retention) {
+        return new RecentAlarmStore(TestAlarmProps.of("recent.capacity=" + capacity, "recent.retention=" + retention));
+    }
+
+    private static AlarmEvent event(int i, Instant at) {
+        return new AlarmEvent("T" + i + "@" + at, i % 2 == 0 ? "CRITICAL" : "INFO", "FAN", "L" + (i % 3), "m" + i, at);
+    }
+
+    private static List<String> ids(List<AlarmEvent> events) {
+        return events.stream().map(AlarmEvent::id).toList();
+    }
+
+    @Test
+    void seqsAreConsecutiveFromZero() {
+        RecentAlarmStore s = store(4, "1h");
+        assertThat(s.lastSeq()).isEqualTo(-1);
+        for (int i = 0; i < 6; i++) assertThat(s.append(event(i, T0.plusSeconds(i)))).isEqualTo(i);
+        assertThat(s.lastSeq()).isEqualTo(5);
+    }
+
+    @Test
+    void wrapsAroundKeepingNewestCapacityEvents() {
+        RecentAlarmStore s = store(4, "1h");
+        List<AlarmEvent> all = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            AlarmEvent e = event(i, T0.plusSeconds(i));
+            all.add(e);
+            s.append(e);
+        }
+        assertThat(s.size()).isEqualTo(4);
+        assertThat(ids(s.since(T0))).containsExactly(
+                all.get(10).id(), all.get(9).id(), all.get(8).id(), all.get(7).id());
+        RecentAlarmStore.Contents c = s.contents();
+        assertThat(c.events()).extracting(AlarmEvent::id).containsExactly(
+                all.get(7).id(), all.get(8).id(), all.get(9).id(), all.get(10).id());
+        assertThat(c.times()).isSorted();
+    }
+
+    @Test
+    void sinceUsesEventTimeBoundary() {
+        RecentAlarmStore s = store(10, "1h");
+        for (int i = 0; i < 5; i++) s.append(event(i, T0.plusSeconds(i * 10L)));
+        assertThat(ids(s.since(T0.plusSeconds(20)))).containsExactly(
+                event(4, T0.plusSeconds(40)).id(), event(3, T0.plusSeconds(30)).id(), event(2, T0.plusSeconds(20)).id());
+        assertThat(s.since(T0.plusSeconds(41))).isEmpty();
+    }
+
+    @Test
+    void lateEventIsClampedToLastTime() {
+        RecentAlarmStore s = store(10, "1h");
+        s.append(event(0, T0.plusSeconds(30)));
+        s.append(event(1, T0));               // geriden gelen
+        assertThat(s.since(T0.plusSeconds(30))).hasSize(2);
+        assertThat(s.contents().times()).containsExactly(
+                T0.plusSeconds(30).toEpochMilli(), T0.plusSeconds(30).toEpochMilli());
+    }
+
+    @Test
+    void afterReplaysOnlyMissedEvents() {
+        RecentAlarmStore s = store(8, "1h");
+        for (int i = 0; i < 6; i++) s.append(event(i, T0.plusSeconds(i)));
+
+        RecentAlarmStore.Replay r = s.after(3, T0);
+        assertThat(r.lastSeq()).isEqualTo(5);
+        assertThat(ids(r.events())).containsExactly(event(4, T0.plusSeconds(4)).id(), event(5, T0.plusSeconds(5)).id());
+
+        RecentAlarmStore.Replay upToDate = s.after(5, T0);
+        assertThat(upToDate.events()).isEmpty();
+        assertThat(upToDate.lastSeq()).isEqualTo(5);
+
+        assertThat(s.after(-1, T0).events()).hasSize(6);
+        assertThat(s.after(6, T0)).as("henüz verilmemiş seq").isNull();
+        assertThat(s.after(3, T0.plusSeconds(5))).as("ilk kaçırılan notBefore'dan eski").isNull();
+    }
+
+    @Test
+    void afterFailsOnceMissedEventsWereOverwritten() {
+        RecentAlarmStore s = store(4, "1h");
+        for (int i = 0; i < 10; i++) s.append(event(i, T0.plusSeconds(i)));
+        // 6..9 tamponda: 5'ten sonrası tam, 4'ten sonrası eksik
+        assertThat(s.after(5, T0).events()).hasSize(4);
+        assertThat(s.after(4, T0)).isNull();
+    }
+
+    @Test
+    void retentionEvictsOldEventsAndMovesCoverage() {
+        RecentAlarmStore s = store(100, "1m");
+        Instant now = Instant.now();
+        s.append(event(0, now.minus(Duration.ofMinutes(10))));
+        s.append(event(1, now.minus(Duration.ofMinutes(5))));
+        s.append(event(2, now));
+        assertThat(s.size()).isEqualTo(1);
+        assertThat(ids(s.since(now.minus(Duration.ofHours(1))))).containsExactly(event(2, now).id());
+        assertThat(s.covers(now.minus(Duration.ofMinutes(6)))).isFalse();
+        assertThat(s.after(0, Instant.EPOCH)).isNull();
+        assertThat(s.after(1, Instant.EPOCH).events()).hasSize(1);
+    }
+
+    @Test
+    void summaryMatchesContentsAfterEviction() {
+        RecentAlarmStore s = store(5, "1h");
+        Instant now = Instant.now();
+        for (int i = 0; i < 12; i++) s.append(event(i, now.minusSeconds(12 - i)));
+        RecentAlarmStore.Summary sum = s.summary(Duration.ofMinutes(10));
+        assertThat(sum.totalActive()).isEqualTo(5);
+        assertThat(sum.bySeverity().values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(5);
+        assertThat(sum.byLocation().values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(5);
+    }
+
+    @Test
+    void restoredEventsPrecedeLiveOnesAndCoverageFollowsRestore() {
+        RecentAlarmStore s = store(10, "1h");
+        Instant now = Instant.now();
+        s.restore(event(0, now.minusSeconds(30)), now.minusSeconds(30).toEpochMilli());
+        s.restore(event(1, now.minusSeconds(20)), now.minusSeconds(20).toEpochMilli());
+        s.restoredAfter(now.minusSeconds(40).toEpochMilli());
+        s.append(event(2, now));
+        assertThat(s.lastSeq()).isEqualTo(2);
+        assertThat(s.covers(now.minusSeconds(35))).isTrue();
+        assertThat(s.covers(now.minusSeconds(45))).isFalse();
+        assertThat(ids(s.since(now.minusSeconds(60)))).hasSize(3).first().isEqualTo(event(2, now).id());
+    }
+}
@@ -0,0 +1,104 @@
+package com.alarmdashboard.alarm_dashboard_backend.storage;
+
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecentSnapshotTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-05T08:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private static RecentAlarmStore.Contents contents(int n) {
+        AlarmEvent[] events = new AlarmEvent[n];
+        long[] times = new long[n];
+        for (int i = 0; i < n; i++) {
+            Instant ts = i % 9 == 0 ? null : T0.plusSeconds(i).plusNanos(i * 1_001L);
+            Instant ended = i % 4 == 0 ? T0.plusMillis(i * 1_500L + 250) : null;
+            events[i] = new AlarmEvent("ETP/P" + i + "@" + i,
+                    i % 3 == 0 ? "CRITICAL" : "INFO",
+                    i % 5 == 0 ? null : "FAN_FAILURE",
+                    "Tünel-" + (i % 4),
+                    i % 7 == 0 ? null : "mesaj ğüşiöç " + (i % 6),
+                    ts, ended);
+            // Tampon zamanı olay zamanından hem ileri hem geri olabilir
+            times[i] = T0.toEpochMilli() + i * 1_000L + (i % 2 == 0 ? 40 : -40);
+        }
+        return new RecentAlarmStore.Contents(events, times, T0.toEpochMilli() - 60_000);
+    }
+
+    @Test
+    void roundTripsEventsTimesAndClosures() throws IOException {
+        Path file = dir.resolve("sub/recent.snap");
+        RecentAlarmStore.Contents c = contents(500);
+        RecentSnapshot.write(file, c);
+
+        RecentSnapshot.Loaded s = RecentSnapshot.read(file);
+        assertThat(s.events()).containsExactly(c.events());
+        assertThat(s.times()).containsExactly(c.times());
+        assertThat(s.completeAfter()).isEqualTo(c.completeAfter());
+        assertThat(s.writtenAt()).isBeforeOrEqualTo(Instant.now());
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    void overwritesPreviousSnapshot() throws IOException {
+        Path file = dir.resolve("recent.snap");
+        RecentSnapshot.write(file, contents(50));
+        RecentSnapshot.write(file, contents(3));
+        assertThat(RecentSnapshot.read(file).events()).hasSize(3);
+    }
+
+    @Test
+    void emptyStoreRoundTrips() throws IOException {
+        Path file = dir.resolve("recent.snap");
+        RecentSnapshot.write(file, new RecentAlarmStore.Contents(new AlarmEvent[0], new long[0], 0));
+        assertThat(RecentSnapshot.read(file).events()).isEmpty();
+    }
+
+    @Test
+    void detectsFlippedBytesAnywhereInTheBody() throws IOException {
+        Path file = dir.resolve("recent.snap");
+        RecentSnapshot.write(file, contents(100));
+        byte[] good = Files.readAllBytes(file);
+
+        for (int at = 8; at < good.length; at += 37) {
+            byte[] bad = good.clone();
+            bad[at] ^= 0x40;
+            Files.write(file, bad);
+            assertThatThrownBy(() -> RecentSnapshot.read(file)).as("flip at %d", at).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void rejectsTruncatedForeignAndNewerFiles() throws IOException {
+        Path file = dir.resolve("recent.snap");
+        RecentSnapshot.write(file, contents(100));
+        byte[] good = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(good, good.length - 3));
+        assertThatThrownBy(() -> RecentSnapshot.read(file)).isInstanceOf(IOException.class);
+
+        Files.write(file, new byte[good.length]);
+        assertThatThrownBy(() -> RecentSnapshot.read(file)).hasMessageContaining("Not a recent-alarm snapshot");
+
+        byte[] newer = good.clone();
+        newer[7] = 99;   // VERSION
+        Files.write(file, newer);
+        assertThatThrownBy(() -> RecentSnapshot.read(file)).hasMessageContaining("Unsupported snapshot version");
+    }
+}
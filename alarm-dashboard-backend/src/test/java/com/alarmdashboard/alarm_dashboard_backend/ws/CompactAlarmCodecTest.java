@@ -0,0 +1,83 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.TestAlarmProps;
+import com.alarmdashboard.alarm_dashboard_backend.model.AlarmEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactAlarmCodecTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-05T08:00:00.123Z");
+
+    private final ObjectMapper om = new ObjectMapper();
+    private final CompactAlarmCodec codec = new CompactAlarmCodec(om, TestAlarmProps.of(), new SimpleMeterRegistry());
+
+    private static AlarmEvent event(String target, String level, String location, int i) {
+        Instant at = T0.plusSeconds(i);
+        return new AlarmEvent(target + "@" + at, level, "FAN", location, "m" + i, at);
+    }
+
+    /** "k" çiftleri kod -> değer. */
+    private static Map<Integer, String> definitions(JsonNode body) {
+        Map<Integer, String> out = new HashMap<>();
+        JsonNode k = body.path("k");
+        for (int i = 0; i + 1 < k.size(); i += 2) out.put(k.get(i).asInt(), k.get(i + 1).asText());
+        return out;
+    }
+
+    @Test
+    void bootstrapDefinesOnlyCodesItsRowsUse() throws IOException {
+        // Süreç boyunca birçok hedef kodlanmış olsun
+        for (int i = 0; i < 500; i++) codec.frame(event("ETP/OLD/P" + i, "INFO", "L" + (i % 3), i));
+
+        List<AlarmEvent> window = new ArrayList<>();
+        for (int i = 0; i < 4; i++) window.add(event("ETP/NEW/P" + (i % 2), "CRITICAL", "L1", 1000 + i));
+        JsonNode body = om.readTree(codec.withDictionary(codec.rows(window)));
+
+        Map<Integer, String> defs = definitions(body);
+        assertThat(defs.values()).containsExactlyInAnyOrder("ETP/NEW/P0", "ETP/NEW/P1", "CRITICAL", "FAN", "L1");
+        assertThat(body.has("d")).isFalse();
+        for (JsonNode row : body.get("a")) {
+            for (int col : new int[]{0, 2, 3, 4}) {
+                if (row.get(col).isInt()) assertThat(defs).containsKey(row.get(col).asInt());
+            }
+        }
+    }
+
+    @Test
+    void emptyWindowHasNoDefinitions() throws IOException {
+        JsonNode body = om.readTree(codec.withDictionary(codec.rows(List.of())));
+        assertThat(body.has("k")).isFalse();
+        assertThat(body.get("a").size()).isZero();
+    }
+
+    @Test
+    void definitionsAnswerKnownCodesAndSkipUnknown() throws IOException {
+        JsonNode frame = om.readTree(codec.frame(event("ETP/A/P1", "WARN", "T2", 0)).body());
+        int target = frame.get("a").get(0).get(0).asInt();
+
+        Map<Integer, String> defs = definitions(om.readTree(codec.definitions(new int[]{target, 99_999})));
+        assertThat(defs).containsExactly(Map.entry(target, "ETP/A/P1"));
+    }
+
+    @Test
+    void frameReportsWhetherItDefinesNewCodes() throws IOException {
+        CompactAlarmCodec.Frame first = codec.frame(event("ETP/B/P1", "WARN", "T3", 0));
+        CompactAlarmCodec.Frame again = codec.frame(event("ETP/B/P1", "WARN", "T3", 1));
+        assertThat(first.defines()).isTrue();
+        assertThat(om.readTree(first.body()).has("d")).isTrue();
+        assertThat(again.defines()).isFalse();
+        assertThat(om.readTree(again.body()).has("d")).isFalse();
+    }
+}
@@ -0,0 +1,229 @@
+package com.alarmdashboard.alarm_dashboard_backend.ws;
+
+import com.alarmdashboard.alarm_dashboard_backend.config.TestAlarmProps;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionOutboxTest {
+
+    private final List<Message<?>> sent = new ArrayList<>();
+    private final MessageChannel channel = (m, timeout) -> sent.add(m);
+    private final Map<String, CloseStatus> closed = new ConcurrentHashMap<>();
+    private final List<ExecutorService> executors = new ArrayList<>();
+    private int handled;
+
+    @AfterEach
+    void stop() {
+        executors.forEach(ExecutorService::shutdownNow);
+    }
+
+    private SessionOutbox outbox(String... extra) throws Exception {
+        SessionOutbox outbox = new SessionOutbox(TestAlarmProps.of(extra), new SimpleMeterRegistry());
+        var handler = outbox.decorate(new AbstractWebSocketHandler() {});
+        for (String id : List.of("s1", "s2", "s3")) handler.afterConnectionEstablished(session(id));
+        return outbox;
+    }
+
+    private WebSocketSession session(String id) {
+        return (WebSocketSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebSocketSession.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getId", "toString" -> id;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "close" -> {
+                        closed.put(id, args == null ? CloseStatus.NORMAL : (CloseStatus) args[0]);
+                        yield null;
+                    }
+                    case "isOpen" -> !closed.containsKey(id);
+                    default -> null;
+                });
+    }
+
+    /** Yayıncının frame'i; target null ise atılamaz (kapanış, sözlük tanımı gibi). */
+    private static Message<byte[]> frame(String session, int seq, String target, String level) {
+        SimpMessageHeaderAccessor h = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        h.setSessionId(session);
+        h.setSubscriptionId("sub-0");
+        h.setNativeHeader("seq", String.valueOf(seq));
+        if (target != null) {
+            h.setHeader(SessionOutbox.TARGET_HEADER, target);
+            h.setHeader(SessionOutbox.LEVEL_HEADER, level);
+        }
+        h.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], h.getMessageHeaders());
+    }
+
+    private static int seq(Message<?> m) {
+        return Integer.parseInt(NativeMessageHeaderAccessor.getFirstNativeHeader("seq", m.getHeaders()));
+    }
+
+    private static String dropped(Message<?> m) {
+        return NativeMessageHeaderAccessor.getFirstNativeHeader(SessionOutbox.DROPPED_HEADER, m.getHeaders());
+    }
+
+    /** Gönderimdeki sıradaki frame'i yazılmış sayar; oturumun sıradaki frame'i bırakılır. */
+    private void handleNext(SessionOutbox outbox) {
+        outbox.afterMessageHandled(sent.get(handled++), channel, null, null);
+    }
+
+    /** Kuyruklar boşalana kadar yazar, teslim sırasını döner. */
+    private List<Integer> deliverAll(SessionOutbox outbox) {
+        while (handled < sent.size()) handleNext(outbox);
+        return sent.stream().map(SessionOutboxTest::seq).toList();
+    }
+
+    @Test
+    void keepsOneFrameInFlightPerSessionInOrder() throws Exception {
+        SessionOutbox outbox = outbox();
+        for (int i = 0; i < 5; i++) assertThat(outbox.preSend(frame("s1", i, "T/" + i, "CRITICAL"), channel)).isNull();
+        outbox.preSend(frame("s2", 100, "T/x", "INFO"), channel);
+        assertThat(sent).extracting(SessionOutboxTest::seq).containsExactly(0, 100);
+        assertThat(outbox.maxDepth()).isEqualTo(5);
+
+        handleNext(outbox);
+        assertThat(sent).extracting(SessionOutboxTest::seq).containsExactly(0, 100, 1);
+
+        assertThat(deliverAll(outbox)).containsExactly(0, 100, 1, 2, 3, 4);
+        assertThat(outbox.maxDepth()).isZero();
+
+        // MESSAGE dışındakiler (kalp atışı vb.) kuyruğa girmez
+        Message<byte[]> heartbeat = MessageBuilder.createMessage(new byte[0],
+                SimpMessageHeaderAccessor.create(SimpMessageType.HEARTBEAT).getMessageHeaders());
+        assertThat(outbox.preSend(heartbeat, channel)).isSameAs(heartbeat);
+    }
+
+    @Test
+    void dropInfoKeepsEachTargetsNewestFrame() throws Exception {
+        SessionOutbox outbox = outbox("outbound.queue-size=4", "outbound.slow-consumer=DROP_INFO");
+        outbox.preSend(frame("s1", 0, "T/a", "INFO"), channel);       // gönderimde
+        outbox.preSend(frame("s1", 1, "T/a", "INFO"), channel);       // yerini 3 alır: atılır
+        outbox.preSend(frame("s1", 2, "T/a", "CRITICAL"), channel);
+        outbox.preSend(frame("s1", 3, "T/a", "INFO"), channel);       // INFO'ya düşüş: en yeni, kalır
+        outbox.preSend(frame("s1", 4, null, null), channel);          // kapanış
+        outbox.preSend(frame("s1", 5, "T/b", "INFO"), channel);       // tek frame'i, kalır
+
+        assertThat(deliverAll(outbox)).containsExactly(0, 2, 3, 4, 5);
+        assertThat(dropped(sent.get(1))).isEqualTo("1");
+        assertThat(dropped(sent.get(2))).isNull();
+        assertThat(closed).isEmpty();
+    }
+
+    @Test
+    void dropInfoEscalatesToCollapse() throws Exception {
+        SessionOutbox outbox = outbox("outbound.queue-size=2", "outbound.slow-consumer=DROP_INFO");
+        outbox.preSend(frame("s1", 0, "T/a", "CRITICAL"), channel);
+        outbox.preSend(frame("s1", 1, "T/a", "CRITICAL"), channel);
+        outbox.preSend(frame("s1", 2, "T/a", "WARN"), channel);
+        outbox.preSend(frame("s1", 3, "T/b", "CRITICAL"), channel);
+
+        assertThat(deliverAll(outbox)).containsExactly(0, 2, 3);
+        assertThat(dropped(sent.get(1))).isEqualTo("1");
+    }
+
+    @Test
+    void collapseKeepsNewestFramePerTargetAndUndroppableFrames() throws Exception {
+        SessionOutbox outbox = outbox("outbound.queue-size=3", "outbound.slow-consumer=COLLAPSE");
+        outbox.preSend(frame("s1", 0, "T/a", "INFO"), channel);
+        outbox.preSend(frame("s1", 1, "T/a", "CRITICAL"), channel);
+        outbox.preSend(frame("s1", 2, null, null), channel);
+        outbox.preSend(frame("s1", 3, "T/a", "WARN"), channel);
+        outbox.preSend(frame("s1", 4, "T/b", "INFO"), channel);
+        outbox.preSend(frame("s1", 5, "T/a", "INFO"), channel);
+
+        assertThat(deliverAll(outbox)).containsExactly(0, 2, 4, 5);
+        assertThat(dropped(sent.get(1))).isEqualTo("2");
+    }
+
+    @Test
+    void closesSessionWhenPolicyCannotRelieveQueue() throws Exception {
+        SessionOutbox outbox = outbox("outbound.queue-size=2", "outbound.slow-consumer=COLLAPSE");
+        outbox.preSend(frame("s1", 0, null, null), channel);
+        for (int i = 1; i <= 3; i++) outbox.preSend(frame("s1", i, null, null), channel);
+
+        assertThat(closed).containsOnlyKeys("s1");
+        assertThat(closed.get("s1").getCode()).isEqualTo(CloseStatus.SESSION_NOT_RELIABLE.getCode());
+        handleNext(outbox);
+        outbox.preSend(frame("s1", 4, null, null), channel);
+        assertThat(sent).hasSize(1);
+    }
+
+    @Test
+    @Timeout(10)
+    void stalledSessionsHoldAtMostOneSenderThreadEach() throws Exception {
+        SessionOutbox outbox = outbox();
+        ExecutorService pool = Executors.newFixedThreadPool(2);   // sender-threads=2
+        executors.add(pool);
+        ExecutorSubscribableChannel out = new ExecutorSubscribableChannel(pool);
+        out.addInterceptor(outbox);
+
+        Set<String> stalled = ConcurrentHashMap.newKeySet();
+        CountDownLatch unblock = new CountDownLatch(1);
+        Map<String, List<Integer>> written = new ConcurrentHashMap<>();
+        out.subscribe(m -> {
+            String session = SimpMessageHeaderAccessor.getSessionId(m.getHeaders());
+            written.computeIfAbsent(session, k -> Collections.synchronizedList(new ArrayList<>())).add(seq(m));
+            if (stalled.contains(session)) {
+                try {
+                    unblock.await();   // soketi dolmuş istemci: yazım bloklar
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        // Tek yavaş oturum bir iş parçacığı tutar, diğer oturum teslim almaya devam eder
+        stalled.add("s1");
+        for (int i = 0; i < 5; i++) out.send(frame("s1", i, "T/" + i, "CRITICAL"));
+        for (int i = 0; i < 3; i++) out.send(frame("s3", i, "T/" + i, "CRITICAL"));
+        await(() -> written.getOrDefault("s3", List.of()).size() == 3);
+        assertThat(written.get("s1")).containsExactly(0);
+
+        // sender-threads kadar oturum takılınca diğerleri de bekler (tavan)
+        stalled.add("s2");
+        out.send(frame("s2", 0, "T/0", "CRITICAL"));
+        await(() -> written.containsKey("s2"));
+        out.send(frame("s3", 3, "T/3", "CRITICAL"));
+        Thread.sleep(200);
+        assertThat(written.get("s3")).hasSize(3);
+
+        unblock.countDown();
+        await(() -> written.get("s1").size() == 5 && written.get("s3").size() == 4);
+        assertThat(written.get("s1")).containsExactly(0, 1, 2, 3, 4);
+        assertThat(written.get("s3")).containsExactly(0, 1, 2, 3);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -48,11 +48,8 @@ export class App {
           this.realtimeStarted = true;
 
           const token = localStorage.getItem('token') || undefined;
-          this.socket.connect(token); 
-
-          this.snapshot
-            .loadRecentAndHydrate(evts => this.store.hydrate(evts), 10)
-            .catch(err => console.warn('[SNAPSHOT recent] failed', err));
+          // son pencere (10 dk) WS bootstrap'ı ile gelir
+          this.socket.connect(token);
 
           this.snapshot
             .loadMonthSinceFirstDay(evts => this.store.hydrate(evts))
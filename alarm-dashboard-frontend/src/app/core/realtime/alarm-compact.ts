@@ -0,0 +1,79 @@
+/**
+ * /topic/alarms.compact, /user/queue/alarms-bootstrap.compact ve /user/queue/alarms-dictionary.compact
+ * gövdelerini çözer.
+ * Gövde: { d?: [ilkKod, değer, ...], k?: [kod, değer, kod, değer, ...], a?: satır[] }
+ * d: ardışık yeni tanımlar (canlı frame); k: seçilmiş tanımlar (bootstrap yalnızca satırlarının kodlarını,
+ * tanım yanıtı istenenleri taşır).
+ * Satır: [hedef, t(epoch ms), level, type, location, message, ek?] — sayı: sözlük kodu, string: düz değer.
+ * ek yok/sayı → id = hedef@timestamp (sayı: milisaniye altı nanosaniye); string → id'nin "@" sonrası.
+ * Kapanış satırında 8. alan bitiş anıdır (epoch ms; ek yoksa ek null).
+ * Sözlük sunucu süreci boyunca geçerlidir; epoch değişince yeni sözlük gerekir.
+ */
+export class CompactDecoder {
+  private dict: string[] = [];
+  private epoch?: string;
+
+  /**
+   * Gövdeyi çözer; satırlardan biri sözlükte olmayan kod kullanıyorsa hiçbirini vermez ve eksik kodları
+   * döner (abonelik anında kaçan tanım): istemci bunları ister, frame'i yanıt gelince yeniden çözer.
+   */
+  decode(body: string, epoch: string | undefined, out: (raw: any) => void): number[] | undefined {
+    this.useEpoch(epoch);
+    const msg = JSON.parse(body);
+    this.define(msg);
+    const rows: any[] = msg.a ?? [];
+    const missing = new Set<number>();
+    for (const row of rows) {
+      for (const i of [0, 2, 3, 4]) {
+        if (typeof row[i] === 'number' && this.dict[row[i]] === undefined) missing.add(row[i]);
+      }
+    }
+    if (missing.size) return [...missing];
+    for (const row of rows) out(this.row(row));
+    return undefined;
+  }
+
+  /** Tanım yanıtı (/user/queue/alarms-dictionary.compact); başka sürecin tanımları uygulanmaz. */
+  definitions(body: string, epoch: string | undefined) {
+    if (epoch !== this.epoch) return;
+    this.define(JSON.parse(body));
+  }
+
+  private useEpoch(epoch: string | undefined) {
+    if (epoch !== this.epoch) {
+      this.dict = [];
+      this.epoch = epoch;
+    }
+  }
+
+  private define(msg: any) {
+    const d = msg.d;
+    if (Array.isArray(d)) {
+      for (let i = 1; i < d.length; i++) this.dict[d[0] + i - 1] = d[i];
+    }
+    const k = msg.k;
+    if (Array.isArray(k)) {
+      for (let i = 0; i + 1 < k.length; i += 2) this.dict[k[i]] = k[i + 1];
+    }
+  }
+
+  private row(r: any[]): any {
+    const v = (x: any) => (typeof x === 'number' ? this.dict[x] : x);
+    const target = v(r[0]);
+    const extra = r[6];
+    const timestamp = r[1] == null ? undefined : iso(r[1], typeof extra === 'number' ? extra : 0);
+    let id: string | undefined;
+    if (typeof extra === 'string') id = target == null ? extra : `${target}@${extra}`;
+    else if (target != null && timestamp) id = `${target}@${timestamp}`;
+    const endedAt = r[7] == null ? undefined : new Date(r[7]).toISOString();
+    return { id, timestamp, level: v(r[2]), type: v(r[3]), location: v(r[4]), message: r[5], endedAt };
+  }
+}
+
+/** Java Instant.toString ile aynı metin: kesir 0, 3, 6 ya da 9 hane. */
+function iso(ms: number, subMillisNanos: number): string {
+  const base = new Date(ms).toISOString();          // ...T09:15:10.123Z
+  let frac = base.slice(20, 23) + String(subMillisNanos).padStart(6, '0');
+  while (frac.endsWith('000')) frac = frac.slice(0, -3);
+  return base.slice(0, 19) + (frac ? '.' + frac : '') + 'Z';
+}
@@ -8,6 +8,8 @@ export interface AlarmEvent {
   timestamp: string;   // ISO-8601 (payload)
   arrivedAt?: string;  // ISO-8601 (UI pencereleri bunu kullanır)
   createdAt?: string;  // ISO-8601
+  endedAt?: string;    // ISO-8601; doluysa alarm kapandı (CLEAR)
+  status?: 'ACTIVE' | 'CLEARED';
 
   // UI için türetilmiş (path'ten çıkarılır)
   system?: string;     // EmergencyCall / LVMV / Lighting ...
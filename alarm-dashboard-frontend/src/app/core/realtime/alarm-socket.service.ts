@@ -3,12 +3,33 @@ import { Client, IMessage } from '@stomp/stompjs';
 import * as SockJS from 'sockjs-client';
 import { AlarmStoreService } from './alarm-store.service';
 import { AlarmEvent } from './alarm-event';
+import { CompactDecoder } from './alarm-compact';
+import { environment } from '../../../environments/environment';
 
 @Injectable({ providedIn: 'root' })
 export class AlarmSocketService {
   private client?: Client;
   private bootstrapped = false;
 
+  // Kesintisiz alınmış en büyük sıra no (bundan küçük/eşit her frame görüldü) ve sunucu süreci; yeniden
+  // bağlanınca geri gönderilir. Ingest lane'leri yayını seq sırasından biraz saptırabildiğinden watermark'ın
+  // ötesinde gelenler ayrıca tutulur; resume watermark'tan yapılır, tekrar gelenleri store id ile tekilleştirir.
+  private lastSeq?: number;
+  private epoch?: string;
+  private readonly ahead = new Set<number>();
+  private resyncing = false;   // frame atıldı: bağlantı kapanana kadar gelenler watermark'ı ilerletmez
+  private static readonly MAX_AHEAD = 1000;   // aşılırsa boşluk kalıcıdır (frame kayboldu): yeniden abone ol
+
+  // environment.compactWire: alan adsız, sözlüklü /topic/alarms.compact (JSON yerine)
+  private readonly compact = environment.compactWire;
+  private readonly decoder = new CompactDecoder();
+  // Bilinmeyen kod yüzünden bekleyen canlı frame'ler (sırayla) ve istenmiş kodlar; tanım yanıtı gelince çözülür
+  private held: IMessage[] = [];
+  private asked = new Set<number>();
+  private defineTimer?: ReturnType<typeof setTimeout>;
+  private static readonly MAX_HELD = 1000;
+  private static readonly DEFINE_TIMEOUT_MS = 5000;
+
   constructor(private store: AlarmStoreService) {}
 
   /** Uygulama başına 1 kez bağlan; tekrar çağrılırsa no-op */
@@ -26,25 +47,67 @@ export class AlarmSocketService {
 
     this.client.onConnect = () => {
       this.bootstrapped = true;
+      this.resetHeld();   // bekleyenler resume ile yeniden gelir
+      this.resyncing = false;
+      const resuming = this.lastSeq !== undefined && this.epoch !== undefined;
 
-      // Bootstrap kapalı: ilk liste HTTP snapshot ile gelecek.
-      // this.client!.subscribe('/user/queue/alarms-bootstrap', ...);
+      const suffix = this.compact ? '.compact' : '';
 
-      // CANLI
-      this.client!.subscribe('/topic/alarms', (msg: IMessage) => {
-        try {
-          const raw = JSON.parse(msg.body);
-          const ev = this.normalize(raw);
+      // İlk bağlantıda son pencerenin tamamı gelir (resume=full). Yeniden bağlanmada sunucu yalnızca
+      // kaçırılanları (resume=replay) ya da boşluk eskiyse son pencerenin tamamını gönderir; store id ile
+      // tekilleştirir. Liste tek seferde store'a verilir.
+      this.client!.subscribe('/user/queue/alarms-bootstrap' + suffix, (msg: IMessage) => {
+        const rows: any[] = [];
+        if (this.compact) {
+          this.decodeCompact(msg, raw => rows.push(raw), true);
+        } else {
+          this.track(msg, true);
+          try {
+            const list = JSON.parse(msg.body);
+            if (Array.isArray(list)) rows.push(...list);
+          } catch (e) {
+            console.error('[WS] bootstrap parse error', e);
+          }
+        }
+        this.pushAll(rows);
+      });
 
-          const nowIso = new Date().toISOString();
-          // arrivedAt fallback zinciri: arrivedAt -> createdAt -> timestamp -> now
-          ev.arrivedAt = ev.arrivedAt ?? ev.createdAt ?? ev.timestamp ?? nowIso;
+      if (this.compact) {
+        this.client!.subscribe('/user/queue/alarms-dictionary.compact', (msg: IMessage) => {
+          try {
+            this.decoder.definitions(msg.body, msg.headers['epoch']);
+          } catch (e) {
+            console.error('[WS] dictionary parse error', e);
+          }
+          this.releaseHeld();
+        });
+      }
 
-          // ID'ye dokunmuyoruz
-          this.store.push(ev);
+      // CANLI
+      const resumeHeaders: Record<string, string> = resuming
+        ? { seq: String(this.lastSeq), epoch: this.epoch! }
+        : {};
+      this.client!.subscribe('/topic/alarms' + suffix, (msg: IMessage) => {
+        if (this.compact) {
+          this.decodeCompact(msg, raw => this.push(raw));
+          return;
+        }
+        this.track(msg);
+        try {
+          this.push(JSON.parse(msg.body));
         } catch (e) {
           console.error('[WS] live parse error', e);
         }
+      }, resumeHeaders);
+
+      // Kapanışlar canlı akışta da gelir (endedAt); bu topic filtreli/toplu akışla kalan istemciler için
+      this.client!.subscribe('/topic/alarms.cleared', (msg: IMessage) => {
+        try {
+          const c = JSON.parse(msg.body);
+          if (c?.id) this.store.close(c.id, new Date(c.endedAt ?? Date.now()).toISOString());
+        } catch (e) {
+          console.error('[WS] cleared parse error', e);
+        }
       });
     };
 
@@ -59,6 +122,149 @@ export class AlarmSocketService {
   disconnect() {
     this.client?.deactivate();
     this.bootstrapped = false;
+    this.lastSeq = undefined;
+    this.epoch = undefined;
+    this.ahead.clear();
+    this.resyncing = false;
+    this.resetHeld();
+  }
+
+  /**
+   * Bilinmeyen sözlük kodu (abonelik anında kaçan tanım): frame ve ardından gelen canlı frame'ler sırayla
+   * bekletilir, tanımlar sunucudan istenir; yanıt gelince çözülür. Yanıt gelmez ya da kodu tanımlamazsa
+   * son çare yeniden bağlanılır (resume eksikleri ve tanımları getirir).
+   */
+  private decodeCompact(msg: IMessage, out: (raw: any) => void, bootstrap = false) {
+    if (!bootstrap && this.held.length) {
+      this.hold(msg);
+      return;
+    }
+    const missing = this.tryDecode(msg, out, bootstrap);
+    if (!missing) return;
+    if (bootstrap) {
+      // bootstrap kendi satırlarının tanımlarını taşır; olmaması beklenmez
+      console.warn('[WS] unknown code in compact bootstrap, resubscribing');
+      this.client?.forceDisconnect();
+      return;
+    }
+    this.hold(msg);
+    this.define(missing);
+  }
+
+  /** Çözülürse undefined; bilinmeyen kod varsa onları döner. */
+  private tryDecode(msg: IMessage, out: (raw: any) => void, bootstrap = false): number[] | undefined {
+    try {
+      const missing = this.decoder.decode(msg.body, msg.headers['epoch'], out);
+      if (!missing) this.track(msg, bootstrap);
+      return missing;
+    } catch (e) {
+      console.error('[WS] compact parse error', e);
+      return undefined;
+    }
+  }
+
+  private hold(msg: IMessage) {
+    this.held.push(msg);
+    if (this.held.length > AlarmSocketService.MAX_HELD) this.giveUp('too many frames waiting for definitions');
+  }
+
+  private define(codes: number[]) {
+    const fresh = codes.filter(c => !this.asked.has(c));
+    if (!fresh.length) {
+      // istenmiş ve yanıtlanmış ama tanımsız: sunucu bu kodu bilmiyor
+      if (!this.defineTimer) this.giveUp('unknown compact code ' + codes[0]);
+      return;
+    }
+    fresh.forEach(c => this.asked.add(c));
+    this.client?.publish({ destination: '/app/alarms.compact.define', body: JSON.stringify(fresh) });
+    if (!this.defineTimer) {
+      this.defineTimer = setTimeout(() => this.giveUp('compact definitions timed out'),
+        AlarmSocketService.DEFINE_TIMEOUT_MS);
+    }
+  }
+
+  /** Tanım yanıtı geldi: bekleyenleri sırayla çöz; yine bilinmeyen kodda dur ve onu iste. */
+  private releaseHeld() {
+    clearTimeout(this.defineTimer);
+    this.defineTimer = undefined;
+    while (this.held.length) {
+      const missing = this.tryDecode(this.held[0], raw => this.push(raw));
+      if (missing) {
+        this.define(missing);
+        return;
+      }
+      this.held.shift();
+    }
+    this.asked.clear();
+  }
+
+  private giveUp(reason: string) {
+    console.warn('[WS]', reason, ', resubscribing');
+    this.resetHeld();
+    this.client?.forceDisconnect();
+  }
+
+  private resetHeld() {
+    clearTimeout(this.defineTimer);
+    this.defineTimer = undefined;
+    this.held = [];
+    this.asked.clear();
+  }
+
+  private push(raw: any) {
+    // ID'ye dokunmuyoruz
+    this.store.push(this.toEvent(raw));
+  }
+
+  private pushAll(list: any[]) {
+    if (list.length) this.store.pushAll(list.map(raw => this.toEvent(raw)));
+  }
+
+  private toEvent(raw: any): AlarmEvent {
+    const ev = this.normalize(raw);
+    // arrivedAt fallback zinciri: arrivedAt -> createdAt -> timestamp -> now
+    ev.arrivedAt = ev.arrivedAt ?? ev.createdAt ?? ev.timestamp ?? new Date().toISOString();
+    return ev;
+  }
+
+  /**
+   * seq/epoch başlıklarını izle; sunucu yeniden başladıysa (epoch değişti) sıfırdan say.
+   * Bootstrap'ın seq'i gövdenin kapsadığı son sıra no'sudur: ona kadar her şey alınmış sayılır.
+   */
+  private track(msg: IMessage, bootstrap = false) {
+    const seq = Number(msg.headers['seq']);
+    const epoch = msg.headers['epoch'];
+    // Sunucu bu bağlantı yetişemediği için frame attıysa (alarm.outbound.*) sayısı burada gelir. Atılanların
+    // seq'i geçildi, resume getirmez: watermark unutulur, yeniden bağlanınca tam bootstrap (resume=full) gelir
+    if (this.resyncing) return;
+    if (Number(msg.headers['dropped']) > 0) {
+      console.warn('[WS DROPPED]', msg.headers['dropped'], ', resyncing');
+      this.resyncing = true;
+      this.lastSeq = undefined;
+      this.epoch = undefined;
+      this.ahead.clear();
+      this.client?.forceDisconnect();
+      return;
+    }
+    if (!epoch || isNaN(seq)) return;
+    if (epoch !== this.epoch || this.lastSeq === undefined) {
+      this.epoch = epoch;
+      this.ahead.clear();
+      this.lastSeq = bootstrap ? seq : seq - 1;
+      if (bootstrap) return;
+    }
+    if (bootstrap) {
+      if (seq > this.lastSeq) this.lastSeq = seq;
+      for (const s of this.ahead) if (s <= this.lastSeq) this.ahead.delete(s);
+    } else if (seq > this.lastSeq) {
+      this.ahead.add(seq);
+    }
+    while (this.ahead.delete(this.lastSeq + 1)) this.lastSeq++;
+    if (this.ahead.size > AlarmSocketService.MAX_AHEAD) {
+      console.warn('[WS] seq gap at', this.lastSeq + 1, ', resubscribing');
+      this.ahead.clear();
+      this.client?.forceDisconnect();
+    }
   }
 
   /** Backend’ten geleni tek tipe indirgeme */
@@ -91,6 +297,8 @@ export class AlarmSocketService {
       type: e.type ?? 'INFO',
       message: e.message ?? e.text ?? '',
       createdAt: e.createdAt,
+      endedAt: e.endedAt ? new Date(e.endedAt).toISOString() : undefined,
+      status: e.endedAt ? 'CLEARED' : 'ACTIVE',
       system, device, point
     } as AlarmEvent;
   }
@@ -135,19 +135,64 @@ export class AlarmStoreService implements OnDestroy {
   }
 
   push(event: AlarmEvent) {
+    if (!this.apply(event)) return;
+    this.buffer = this.pruneBuffer(this.buffer);
+    this.recomputeDerived();
+    this.persist();
+  }
+
+  /** WS bootstrap/replay listesi: push ile aynı kurallar, tek yeniden hesaplama. */
+  pushAll(events: AlarmEvent[]) {
+    let changed = false;
+    for (const e of events) changed = this.apply(e) || changed;
+    if (!changed) return;
+    this.buffer = this.pruneBuffer(this.sortDesc(this.buffer));
+    this.recomputeDerived();
+    this.persist();
+  }
+
+  /** id'li alarmı kapalı işaretler (/topic/alarms.cleared); tamponda yoksa yok sayılır. */
+  close(id: string, endedAt: string) {
+    const i = this.buffer.findIndex(e => e.id === id);
+    if (i < 0 || this.buffer[i].status === 'CLEARED') return;
+    this.buffer[i] = { ...this.buffer[i], status: 'CLEARED', endedAt };
+    this.recomputeDerived();
+    this.persist();
+  }
+
+  // ---------- yardımcılar ----------
+
+  /** Yeni olayı ekler ya da aynı id'li satırı günceller; buffer değiştiyse true. */
+  private apply(event: AlarmEvent): boolean {
     if (event.id) {
-      if (this.seenIds.has(event.id)) return;
+      // Aynı id: alarmın güncellemesi (seviye/mesaj değişti) ya da kapanışı; satır yerinde güncellenir
+      if (this.seenIds.has(event.id)) return this.update(event);
       this.seenIds.add(event.id);
     }
     if (!event.arrivedAt) event.arrivedAt = new Date().toISOString();
-
     this.buffer.unshift(event);
-    this.buffer = this.pruneBuffer(this.buffer);
-    this.recomputeDerived();
-    this.persist();
+    return true;
   }
 
-  // ---------- yardımcılar ----------
+  private update(event: AlarmEvent): boolean {
+    const i = this.buffer.findIndex(e => e.id === event.id);
+    if (i < 0) return false;
+    const cur = this.buffer[i];
+    // kapanmış alarm geri açılmaz (replay/bootstrap eski hali tekrar getirebilir)
+    if (cur.status === 'CLEARED' && !event.endedAt) return false;
+    if (cur.level === event.level && cur.type === event.type && cur.location === event.location
+      && cur.message === event.message && cur.endedAt === (event.endedAt ?? cur.endedAt)) return false;
+    this.buffer[i] = {
+      ...cur,
+      level: event.level,
+      type: event.type,
+      location: event.location,
+      message: event.message,
+      endedAt: event.endedAt ?? cur.endedAt,
+      status: event.endedAt ? 'CLEARED' : cur.status,
+    };
+    return true;
+  }
 
   private getArrivedMs(e: AlarmEvent): number {
     return new Date(e.arrivedAt ?? e.createdAt ?? e.timestamp).getTime();
@@ -176,7 +221,7 @@ export class AlarmStoreService implements OnDestroy {
 
     // live 10m
     this.recent10mSub.next(recent10m);
-    this.totalActiveSub.next(recent10m.length);
+    this.totalActiveSub.next(recent10m.filter(e => e.status !== 'CLEARED').length);
 
     // severity 10m / 1h
     this.bySeverity10mSub.next(this.countSeverity(recent10m));
@@ -1 +1 @@
-export const environment = { apiBase: 'http://localhost:8080' };
\ No newline at end of file
+export const environment = { apiBase: 'http://localhost:8080', compactWire: false };